@@ -2,6 +2,7 @@ package com.omnixys.account;
 
 import com.omnixys.account.config.AppProperties;
 import com.omnixys.account.config.ApplicationConfig;
+import com.omnixys.account.config.LogSamplerProperties;
 import com.omnixys.account.dev.DevConfig;
 import com.omnixys.account.utils.Env;
 import org.springframework.boot.SpringApplication;
@@ -20,7 +21,7 @@ import static com.omnixys.account.util.Banner.TEXT;
 
 @SpringBootApplication(proxyBeanMethods = false)
 @Import({ApplicationConfig.class, DevConfig.class})
-@EnableConfigurationProperties({AppProperties.class})
+@EnableConfigurationProperties({AppProperties.class, LogSamplerProperties.class})
 @EnableJpaRepositories
 @EnableWebSecurity
 @EnableMethodSecurity
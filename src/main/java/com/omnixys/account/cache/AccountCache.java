@@ -0,0 +1,167 @@
+package com.omnixys.account.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Prozesslokaler Read-Through-Cache für Konten, Schlüssel ist die Konto-ID.
+ * <p>
+ * Der Cache ist in der Größe und der Lebensdauer der Einträge begrenzt. Treffer und Fehlschläge werden als
+ * Metriken {@code cache.gets{cache="accounts"}} veröffentlicht.
+ * </p>
+ * <p>
+ * Schreibende Services melden Änderungen mit {@link #refresh(Account)} bzw. {@link #evict(UUID)}. Beides wird
+ * erst nach dem Commit der laufenden Transaktion wirksam, damit kein Leser einen nicht festgeschriebenen Stand
+ * sieht; bei einem Rollback bleibt der Cache unverändert. Ein Eintrag wird nur durch einen Stand mit höherer
+ * {@code @Version} ersetzt. Ein Ladevorgang, der parallel zu einem Commit läuft, wird durch die anschließende
+ * Invalidierung verworfen, weil Caffeine Invalidierung und Laden desselben Schlüssels serialisiert.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Component
+public class AccountCache {
+
+    private final Cache<UUID, Account> cache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public AccountCache(
+        @Value("${app.cache.accounts.max-size:10000}") final long maxSize,
+        @Value("${app.cache.accounts.ttl:5m}") final Duration ttl,
+        final MeterRegistry meterRegistry,
+        final EntityManagerFactory entityManagerFactory,
+        final LoggerPlusFactory factory
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.factory = factory;
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+    }
+
+    /**
+     * Liefert das Konto aus dem Cache oder lädt es mit der übergebenen Funktion.
+     *
+     * @param id     ID des Kontos
+     * @param loader lädt das Konto aus der Datenbank
+     * @return Das Konto oder leer, falls es nicht existiert; nicht existierende Konten werden nicht gecacht
+     */
+    public Optional<Account> get(final UUID id, final Function<UUID, Optional<Account>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Liefert mehrere Konten aus dem Cache; fehlende Konten werden gemeinsam mit einer Abfrage geladen.
+     *
+     * @param ids    IDs der Konten
+     * @param loader lädt die fehlenden Konten aus der Datenbank
+     * @return Die gefundenen Konten in der Reihenfolge der IDs; nicht existierende Konten fehlen
+     */
+    public List<Account> getAll(
+        final Collection<UUID> ids,
+        final Function<Collection<UUID>, ? extends Collection<Account>> loader
+    ) {
+        final var accounts = cache.getAll(ids, missing -> loader.apply(List.copyOf(missing))
+            .stream()
+            .collect(toMap(Account::getId, identity())));
+        return ids.stream()
+            .map(accounts::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Übernimmt nach dem Commit den neuen Stand eines Kontos, sofern er neuer als der gecachte ist.
+     *
+     * @param account das gespeicherte Konto
+     */
+    public void refresh(final Account account) {
+        logger().debug("refresh: id={}, version={}", account.getId(), account.getVersion());
+        afterCommit(() -> cache.asMap().compute(account.getId(), (_, cached) ->
+            cached == null || cached.getVersion() < account.getVersion() ? account : cached));
+    }
+
+    /**
+     * Entfernt ein Konto nach dem Commit aus dem Cache, z.B. nach dem Löschen oder nach einer Buchung direkt
+     * in der Datenbank, bei der kein aktueller Stand der Entity vorliegt.
+     * <p>
+     * Da solche Buchungen auch an Hibernate vorbei erfolgen, wird das Konto zusätzlich aus dem
+     * Second-Level-Cache entfernt, und zwar vor dem Eintrag in diesem Cache: ein Leser, der dazwischen lädt,
+     * liest so den neuen Stand aus der Datenbank statt des veralteten aus dem Second-Level-Cache.
+     * </p>
+     *
+     * @param id ID des Kontos
+     */
+    public void evict(final UUID id) {
+        logger().debug("evict: id={}", id);
+        afterCommit(() -> {
+            entityManagerFactory.getCache().evict(Account.class, id);
+            cache.invalidate(id);
+        });
+    }
+
+    /**
+     * Entfernt mehrere Konten nach dem Commit aus dem Cache und dem Second-Level-Cache, z.B. nach einem
+     * mengenbasierten Löschen an Hibernate vorbei.
+     * <p>
+     * Da sich dabei auch die Ergebnisse gecachter Abfragen wie {@code findByUsername} ändern, werden zusätzlich
+     * die Regionen des Query-Cache geleert. Wie bei {@link #evict(UUID)} wird der Second-Level-Cache zuerst
+     * geleert.
+     * </p>
+     *
+     * @param ids IDs der Konten
+     */
+    public void evictAll(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        logger().debug("evictAll: count={}", ids.size());
+        afterCommit(() -> {
+            final var secondLevelCache = entityManagerFactory.getCache();
+            ids.forEach(id -> secondLevelCache.evict(Account.class, id));
+            secondLevelCache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+            cache.invalidateAll(ids);
+        });
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.omnixys.account.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cache für geparste und validierte GraphQL-Dokumente, Schlüssel ist der SHA-256-Hash des Query-Textes.
+ * <p>
+ * Wiederholte Operationen werden dadurch nur einmal gegen das föderierte Schema geparst und validiert.
+ * Dokumente mit Fehlern werden nicht gecacht. Treffer und Fehlschläge werden als Metriken
+ * {@code cache.gets{cache="graphql-documents"}} veröffentlicht.
+ * </p>
+ * <p>
+ * Zusätzlich werden Automatic Persisted Queries (APQ) nach Apollo unterstützt: Der Client sendet nur
+ * {@code extensions.persistedQuery.sha256Hash}. Ist der Hash unbekannt, antwortet der Server mit
+ * {@code PersistedQueryNotFound} und der Client sendet die Query einmalig zusammen mit dem Hash. Da APQ denselben
+ * Hash verwendet, teilen sich beide Wege einen Cache.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Component
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+
+    private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    private final Cache<String, PreparsedDocumentEntry> cache;
+    private final PersistedQuerySupport persistedQuerySupport;
+    private final boolean persistedQueriesEnabled;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public PreparsedDocumentCache(
+        @Value("${app.graphql.document-cache.max-size:1000}") final long maxSize,
+        @Value("${app.graphql.document-cache.ttl:1h}") final Duration ttl,
+        @Value("${app.graphql.persisted-queries.enabled:true}") final boolean persistedQueriesEnabled,
+        final MeterRegistry meterRegistry,
+        final LoggerPlusFactory factory
+    ) {
+        this.persistedQueriesEnabled = persistedQueriesEnabled;
+        this.factory = factory;
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "graphql-documents");
+        persistedQuerySupport = new ApolloPersistedQuerySupport(this::getPersisted);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        final ExecutionInput executionInput,
+        final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        if (persistedQueriesEnabled && executionInput.getExtensions().containsKey(PERSISTED_QUERY_EXTENSION)) {
+            return persistedQuerySupport.getDocumentAsync(executionInput, parseAndValidateFunction);
+        }
+        final var key = sha256(executionInput.getQuery());
+        final var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.completedFuture(store(key, parseAndValidateFunction.apply(executionInput)));
+    }
+
+    /**
+     * Lookup für {@link ApolloPersistedQuerySupport}. Bei einem Fehlschlag wirft {@code onCacheMiss} ein
+     * {@code PersistedQueryNotFound}, falls der Client nur den Hash gesendet hat.
+     */
+    private CompletableFuture<PreparsedDocumentEntry> getPersisted(
+        final Object persistedQueryId,
+        final ExecutionInput executionInput,
+        final PersistedQueryCacheMiss onCacheMiss
+    ) {
+        final var key = persistedQueryId.toString();
+        final var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        logger().debug("getPersisted: unbekannter Hash={}", key);
+        return CompletableFuture.completedFuture(store(key, onCacheMiss.apply(executionInput.getQuery())));
+    }
+
+    private PreparsedDocumentEntry store(final String key, final PreparsedDocumentEntry entry) {
+        if (!entry.hasErrors()) {
+            cache.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static String sha256(final String query) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(query.getBytes(UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.omnixys.account.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Prozesslokaler Near-Cache für die Zuordnung Benutzername → IDs der Konten.
+ * <p>
+ * Gecacht werden nur die IDs; die Konten selbst liefert der {@link AccountCache}. Buchungen verändern die
+ * Zuordnung nicht und müssen diesen Cache daher nicht invalidieren. Auch leere Ergebnisse werden gecacht,
+ * allerdings nur für die kurze Dauer {@code app.cache.usernames.negative-ttl}, damit ein neu angelegtes Konto
+ * auf einer anderen Instanz schnell sichtbar wird.
+ * </p>
+ * <p>
+ * Anlegen, Ändern und Löschen von Konten entfernen den Benutzernamen nach dem Commit mit {@link #evict(String)}.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Component
+public class UsernameAccountsCache {
+
+    private final Cache<String, List<UUID>> cache;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public UsernameAccountsCache(
+        @Value("${app.cache.usernames.max-size:50000}") final long maxSize,
+        @Value("${app.cache.usernames.ttl:5m}") final Duration ttl,
+        @Value("${app.cache.usernames.negative-ttl:10s}") final Duration negativeTtl,
+        final MeterRegistry meterRegistry,
+        final LoggerPlusFactory factory
+    ) {
+        this.factory = factory;
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(Expiry.<String, List<UUID>>writing((_, ids) -> ids.isEmpty() ? negativeTtl : ttl))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "account-usernames");
+    }
+
+    /**
+     * Liefert die IDs der Konten eines Benutzers aus dem Cache oder lädt sie mit der übergebenen Funktion.
+     *
+     * @param username der Benutzername
+     * @param loader   lädt die IDs aus der Datenbank
+     * @return Die IDs der Konten, ggf. leer
+     */
+    public List<UUID> get(final String username, final Function<String, List<UUID>> loader) {
+        return cache.get(username, key -> List.copyOf(loader.apply(key)));
+    }
+
+    /**
+     * Entfernt einen Benutzernamen nach dem Commit der laufenden Transaktion aus dem Cache.
+     *
+     * @param username der Benutzername; {@code null} wird ignoriert
+     */
+    public void evict(final String username) {
+        if (username == null) {
+            return;
+        }
+        logger().debug("evict: username={}", username);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(username);
+            }
+        });
+    }
+
+    /**
+     * Entfernt mehrere Benutzernamen nach dem Commit der laufenden Transaktion aus dem Cache.
+     *
+     * @param usernames die Benutzernamen
+     */
+    public void evictAll(final Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        logger().debug("evictAll: count={}", usernames.size());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll(usernames);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(usernames);
+            }
+        });
+    }
+}
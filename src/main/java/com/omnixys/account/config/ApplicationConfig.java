@@ -9,7 +9,7 @@ package com.omnixys.account.config;
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
  * @version 1.0
  */
-public final class ApplicationConfig implements SecurityConfig {
+public final class ApplicationConfig implements SecurityConfig, CacheConfig, GraphQlConfig, KafkaConfig {
 
   /**
    * Privater Konstruktor, um Instanzen dieser Klasse zu verhindern.
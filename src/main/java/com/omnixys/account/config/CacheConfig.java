@@ -0,0 +1,89 @@
+package com.omnixys.account.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Diese Schnittstelle definiert die Konfiguration für den Hibernate Second-Level-Cache.
+ * Sie veröffentlicht Treffer, Fehlschläge und die Trefferquote je Cache-Region als Metriken.
+ *
+ * @since 17.10.2026
+ */
+sealed interface CacheConfig permits ApplicationConfig {
+
+  /**
+   * Name der Region des Query-Cache, wenn keine eigene Region angegeben ist.
+   */
+  String QUERY_RESULTS_REGION = "default-query-results-region";
+
+  /**
+   * Registriert je Region des Second-Level-Cache die Metriken {@code hibernate.cache.requests} mit
+   * {@code result=hit|miss}, {@code hibernate.cache.puts}, {@code hibernate.cache.size} und
+   * {@code hibernate.cache.hit.ratio}. Voraussetzung ist {@code hibernate.generate_statistics: true}.
+   *
+   * @param entityManagerFactory die EntityManagerFactory von Hibernate
+   * @return Der MeterBinder für die Cache-Regionen.
+   */
+  @Bean
+  default MeterBinder hibernateCacheMetrics(final EntityManagerFactory entityManagerFactory) {
+    final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    return registry -> {
+      if (!statistics.isStatisticsEnabled()) {
+        return;
+      }
+      final var regions = new LinkedHashSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+      regions.add(QUERY_RESULTS_REGION);
+      for (final var region : regions) {
+        final var tags = Tags.of("region", region);
+        final ToDoubleFunction<Statistics> hits = stats -> regionStatistics(stats, region, CacheRegionStatistics::getHitCount);
+        final ToDoubleFunction<Statistics> misses = stats -> regionStatistics(stats, region, CacheRegionStatistics::getMissCount);
+        FunctionCounter.builder("hibernate.cache.requests", statistics, hits)
+            .description("Anfragen an eine Region des Second-Level-Cache")
+            .tags(tags.and("result", "hit"))
+            .register(registry);
+        FunctionCounter.builder("hibernate.cache.requests", statistics, misses)
+            .description("Anfragen an eine Region des Second-Level-Cache")
+            .tags(tags.and("result", "miss"))
+            .register(registry);
+        FunctionCounter.builder("hibernate.cache.puts", statistics,
+                stats -> regionStatistics(stats, region, CacheRegionStatistics::getPutCount))
+            .description("Einträge, die in eine Region des Second-Level-Cache geschrieben wurden")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("hibernate.cache.size", statistics,
+                stats -> regionStatistics(stats, region, CacheRegionStatistics::getElementCountInMemory))
+            .description("Anzahl der Einträge in einer Region des Second-Level-Cache")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("hibernate.cache.hit.ratio", statistics, stats -> {
+              final var hit = hits.applyAsDouble(stats);
+              final var total = hit + misses.applyAsDouble(stats);
+              return total == 0 ? Double.NaN : hit / total;
+            })
+            .description("Trefferquote einer Region des Second-Level-Cache seit dem Start")
+            .tags(tags)
+            .register(registry);
+      }
+    };
+  }
+
+  private static double regionStatistics(
+      final Statistics statistics,
+      final String region,
+      final ToDoubleFunction<CacheRegionStatistics> value
+  ) {
+    final var regionStatistics = statistics.getCacheRegionStatistics(region);
+    return regionStatistics == null ? Double.NaN : value.applyAsDouble(regionStatistics);
+  }
+}
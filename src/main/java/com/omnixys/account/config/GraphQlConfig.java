@@ -0,0 +1,25 @@
+package com.omnixys.account.config;
+
+import com.omnixys.account.cache.PreparsedDocumentCache;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Diese Schnittstelle definiert zusätzliche Konfigurationen für die GraphQL-Ausführung.
+ * Sie registriert den Cache für geparste und validierte Dokumente inklusive Persisted Queries.
+ *
+ * @since 17.10.2026
+ */
+sealed interface GraphQlConfig permits ApplicationConfig {
+
+  /**
+   * Registriert den {@link PreparsedDocumentCache} als {@code PreparsedDocumentProvider}.
+   *
+   * @param preparsedDocumentCache der Cache für geparste Dokumente
+   * @return Der Customizer für die GraphQL-Quelle.
+   */
+  @Bean
+  default GraphQlSourceBuilderCustomizer preparsedDocumentCustomizer(final PreparsedDocumentCache preparsedDocumentCache) {
+    return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(preparsedDocumentCache));
+  }
+}
@@ -0,0 +1,138 @@
+package com.omnixys.account.config;
+
+import com.omnixys.account.messaging.KeyOrderedExecutor;
+import com.omnixys.account.messaging.RetryTopicRouter;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static com.omnixys.account.messaging.KafkaTopicProperties.RETRYABLE_TOPICS;
+
+/**
+ * Diese Schnittstelle definiert zusätzliche Konfigurationen für die Kafka-Listener.
+ * Sie stellt neben der Standard-Factory Factories für Batch-Listener, parallele Listener und die Listener der
+ * Retry-Topics sowie deren gemeinsame Fehlerbehandlung bereit und legt die Retry- und Dead-Letter-Topics an.
+ *
+ * @since 17.10.2026
+ */
+sealed interface KafkaConfig permits ApplicationConfig {
+
+  /**
+   * Factory für Listener, die alle Records eines {@code poll()} als Liste erhalten. Die übrigen Einstellungen
+   * aus {@code spring.kafka.listener} gelten unverändert.
+   *
+   * @param configurer      der Configurer von Spring Boot
+   * @param consumerFactory die ConsumerFactory von Spring Boot
+   * @return Die Factory für Batch-Listener.
+   */
+  @Bean
+  default ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+      final ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+      final ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory
+  ) {
+    final var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+    configurer.configure(factory, consumerFactory.getIfAvailable());
+    factory.setBatchListener(true);
+    return factory;
+  }
+
+  /**
+   * Factory für Listener, die Records parallel verarbeiten und einzeln bestätigen. Mit {@code asyncAcks} darf
+   * in beliebiger Reihenfolge und aus anderen Threads bestätigt werden; committet wird jeweils nur bis vor den
+   * ältesten noch nicht bestätigten Record.
+   *
+   * @param configurer      der Configurer von Spring Boot
+   * @param consumerFactory die ConsumerFactory von Spring Boot
+   * @return Die Factory für parallele Listener.
+   */
+  @Bean
+  default ConcurrentKafkaListenerContainerFactory<Object, Object> parallelKafkaListenerContainerFactory(
+      final ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+      final ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory
+  ) {
+    final var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+    configurer.configure(factory, consumerFactory.getIfAvailable());
+    factory.setBatchListener(false);
+    factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+    factory.getContainerProperties().setAsyncAcks(true);
+    return factory;
+  }
+
+  /**
+   * Factory für die Listener der Retry-Topics. Sie erhalten alle Records eines {@code poll()} und committen die
+   * Offsets selbst ({@link RetryTopicRouter#drain}), damit noch nicht fällige Records nicht übersprungen werden.
+   *
+   * @param configurer      der Configurer von Spring Boot
+   * @param consumerFactory die ConsumerFactory von Spring Boot
+   * @return Die Factory für die Listener der Retry-Topics.
+   */
+  @Bean
+  default ConcurrentKafkaListenerContainerFactory<Object, Object> retryKafkaListenerContainerFactory(
+      final ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+      final ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory
+  ) {
+    final var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+    configurer.configure(factory, consumerFactory.getIfAvailable());
+    factory.setBatchListener(true);
+    factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+    return factory;
+  }
+
+  /**
+   * Fehlerbehandlung der Listener-Container, von Spring Boot in alle Factories übernommen. Records, deren Payload
+   * nicht deserialisiert werden konnte, leitet der {@link RetryTopicRouter} sofort mit den ursprünglichen Bytes
+   * in das Dead-Letter-Topic, alle übrigen nach 9 sofortigen Wiederholungen. Scheitert das Weiterleiten an ein
+   * Retry- oder Dead-Letter-Topic, wird der Record ohne Begrenzung mit {@link RetryTopicRouter#forwardingBackOff()}
+   * erneut zugestellt und nie übersprungen. Records, die der {@link KeyOrderedExecutor} mangels freiem Platz abgelehnt hat, werden ohne
+   * Begrenzung erneut ausgeliefert; gewartet wird dabei im Executor, zwischen den Versuchen pollt der Container.
+   *
+   * @param retryTopicRouter der Router für das Dead-Letter-Topic
+   * @return Die Fehlerbehandlung.
+   */
+  @Bean
+  default CommonErrorHandler kafkaErrorHandler(final RetryTopicRouter retryTopicRouter) {
+    final var errorHandler = new DefaultErrorHandler(retryTopicRouter::recover, new FixedBackOff(0, 9));
+    errorHandler.setBackOffFunction((_, exception) -> {
+      if (isRejected(exception)) {
+        return new FixedBackOff(0, FixedBackOff.UNLIMITED_ATTEMPTS);
+      }
+      return RetryTopicRouter.isForwardingFailure(exception) ? retryTopicRouter.forwardingBackOff() : null;
+    });
+    return errorHandler;
+  }
+
+  private static boolean isRejected(final Throwable exception) {
+    return exception instanceof RejectedExecutionException
+        || exception.getCause() instanceof RejectedExecutionException;
+  }
+
+  /**
+   * Legt die Retry- und Dead-Letter-Topics der Topics aus {@code RETRYABLE_TOPICS} an, falls sie fehlen.
+   *
+   * @param retryTopicRouter der Router mit der Anzahl der Versuche
+   * @return Die Topics.
+   */
+  @Bean
+  default KafkaAdmin.NewTopics retryTopics(final RetryTopicRouter retryTopicRouter) {
+    return new KafkaAdmin.NewTopics(RETRYABLE_TOPICS.stream()
+        .flatMap(topic -> Stream.concat(
+            Arrays.stream(retryTopicRouter.retryTopics(topic)),
+            Stream.of(RetryTopicRouter.deadLetterTopic(topic))
+        ))
+        .map(topic -> TopicBuilder.name(topic).build())
+        .toArray(NewTopic[]::new));
+  }
+}
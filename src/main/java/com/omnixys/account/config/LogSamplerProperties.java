@@ -0,0 +1,41 @@
+package com.omnixys.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Einstellungen für das Sampling der Log-Events, die über Kafka an den zentralen Logging-Service gehen.
+ * <p>
+ * Die Schlüssel von {@code limits} sind ein Kontext ({@code Klasse#methode}) oder ein einfacher Klassenname;
+ * Schlüssel mit {@code #} müssen in YAML in eckigen Klammern stehen, z.B.
+ * {@code "[AccountMutationResolver#onNotFound]"}.
+ * </p>
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "app.kafka.log-sampler")
+public class LogSamplerProperties {
+
+    private boolean enabled = true;
+    private Duration window = Duration.ofSeconds(10);
+    private int maxKeys = 10_000;
+    private Limit limit = new Limit();
+    private Map<String, Limit> limits = new HashMap<>();
+
+    /**
+     * Token-Bucket je Kontext.
+     */
+    @Setter
+    @Getter
+    public static class Limit {
+        /** Nachgefüllte Events pro Sekunde. */
+        private double rate = 20;
+        /** Maximale Anzahl Events ohne Wartezeit. */
+        private int burst = 100;
+    }
+}
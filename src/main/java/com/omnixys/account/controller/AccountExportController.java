@@ -0,0 +1,59 @@
+package com.omnixys.account.controller;
+
+import com.omnixys.account.models.enums.ExportFormat;
+import com.omnixys.account.service.AccountExportService;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+
+/**
+ * REST-Schnittstelle für den vollständigen Kontoexport, z.B. für den Abgleich durch das Reconciliation-Team.
+ * <p>
+ * Die Antwort wird gestreamt: Die Konten werden während des Lesens aus der Datenbank geschrieben, so dass auch
+ * zweistellige Millionenbeträge an Zeilen mit konstantem Speicher exportiert werden.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@RestController
+@RequestMapping("/accounts")
+@RequiredArgsConstructor
+public class AccountExportController {
+    private final AccountExportService accountExportService;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Exportiert alle Konten.
+     *
+     * @param format {@code NDJSON} (Default) oder {@code CSV}
+     * @return Response mit Statuscode 200 und dem gestreamten Export als Body
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestParam(defaultValue = "NDJSON") final ExportFormat format
+    ) {
+        logger().debug("export: format={}", format);
+        final var disposition = ContentDisposition.attachment()
+            .filename("accounts." + format.getExtension())
+            .build();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getMediaType()))
+            .header(CONTENT_DISPOSITION, disposition.toString())
+            .body(out -> accountExportService.export(format, out));
+    }
+}
@@ -1,8 +1,30 @@
 package com.omnixys.account.exceptions;
 
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn eine Buchung das Dispolimit eines Kontos überschreiten würde.
+ */
+@Getter
 public class InsufficientFundsException extends RuntimeException {
 
+  /** ID des Kontos, auf dem die Buchung abgelehnt wurde. */
+  private final UUID id;
+
   public InsufficientFundsException() {
     super("Du hast nicht genügend Geld");
+    id = null;
+  }
+
+  /**
+   * Erstellt eine neue `InsufficientFundsException` für das angegebene Konto.
+   *
+   * @param id Die ID des Kontos.
+   */
+  public InsufficientFundsException(final UUID id) {
+    super(String.format("Das Bankkonto mit der ID %s hat nicht genügend Guthaben für diese Buchung.", id));
+    this.id = id;
   }
 }
@@ -0,0 +1,175 @@
+package com.omnixys.account.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.omnixys.account.messaging.KafkaTopicProperties.RETRYABLE_TOPICS;
+
+/**
+ * Sendet Records aus einem Dead-Letter-Topic erneut an ihr Haupt-Topic, z.B. nachdem die Ursache behoben wurde.
+ * <p>
+ * Gelesen wird mit einer eigenen Consumer-Group ({@code <groupId>.dlt-replay}); committet wird erst, wenn Kafka
+ * die erneut gesendeten Records bestätigt hat, so dass ein abgebrochener Replay beim nächsten Aufruf fortgesetzt
+ * wird. Die Header des Originals bleiben erhalten, u.a. {@code traceparent} und die Koordinaten des Originals für
+ * den {@link IdempotentConsumer}; der Zähler der Wiederholungen beginnt von vorn. Metrik:
+ * {@code kafka.dlt.replayed}.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Service
+public class DeadLetterReplayService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final int MAX_POLL_RECORDS = 500;
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+    private final Duration sendTimeout;
+    private final Duration timeout;
+
+    public DeadLetterReplayService(
+        @Value("${app.groupId}") final String groupId,
+        @Value("${app.kafka.retry.send-timeout:10s}") final Duration sendTimeout,
+        @Value("${app.kafka.retry.replay-timeout:60s}") final Duration timeout,
+        final ConsumerFactory<Object, Object> consumerFactory,
+        final KafkaTemplate<String, Object> kafkaTemplate,
+        final MeterRegistry meterRegistry
+    ) {
+        this.groupId = groupId + ".dlt-replay";
+        this.sendTimeout = sendTimeout;
+        this.timeout = timeout;
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sendet höchstens {@code limit} Records aus dem Dead-Letter-Topic von {@code topic} erneut an {@code topic}.
+     * Der Aufruf endet, sobald das Dead-Letter-Topic gelesen ist, spätestens nach {@code replay-timeout}.
+     *
+     * @param topic Haupt-Topic, z.B. {@code account.create.person}
+     * @param limit maximale Anzahl der Records
+     * @return Anzahl der erneut gesendeten Records
+     * @throws IllegalArgumentException falls das Topic kein Dead-Letter-Topic hat oder {@code limit} nicht positiv ist
+     * @throws KafkaException falls ein Record nicht gesendet werden konnte; die bis dahin gesendeten sind committet
+     */
+    public int replay(final String topic, final int limit) {
+        if (!RETRYABLE_TOPICS.contains(topic)) {
+            throw new IllegalArgumentException("Kein Topic mit Dead-Letter-Topic: " + topic);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Das Limit muss positiv sein: " + limit);
+        }
+        final var deadLetterTopic = RetryTopicRouter.deadLetterTopic(topic);
+        final var properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(limit, MAX_POLL_RECORDS));
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        var replayed = 0;
+        try (final var consumer = consumerFactory.createConsumer(groupId, null, null, properties)) {
+            consumer.subscribe(List.of(deadLetterTopic));
+            final var deadline = System.nanoTime() + timeout.toNanos();
+            while (replayed < limit && System.nanoTime() < deadline) {
+                final var records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    if (!consumer.assignment().isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                final var batch = new ArrayList<ConsumerRecord<Object, Object>>(records.count());
+                records.forEach(batch::add);
+                replayed += replayBatch(consumer, topic, batch.subList(0, Math.min(batch.size(), limit - replayed)));
+            }
+        }
+        log.info("♻️ {} Records aus '{}' erneut an '{}' gesendet", replayed, deadLetterTopic, topic);
+        return replayed;
+    }
+
+    /**
+     * Sendet einen Stapel und committet je Partition bis vor den ersten nicht bestätigten Record.
+     *
+     * @return Anzahl der erneut gesendeten Records
+     */
+    private int replayBatch(
+        final Consumer<Object, Object> consumer,
+        final String topic,
+        final List<ConsumerRecord<Object, Object>> records
+    ) {
+        final var futures = new ArrayList<CompletableFuture<SendResult<String, Object>>>(records.size());
+        for (final var record : records) {
+            if (record.value() == null) {
+                log.error("❌ Nicht lesbarer Record übersprungen: partition={}, offset={}", record.partition(), record.offset());
+                futures.add(null);
+                continue;
+            }
+            futures.add(kafkaTemplate.send(new ProducerRecord<>(
+                topic, null, Objects.toString(record.key(), null), record.value(), RetryTopicRouter.replayHeaders(record)
+            )));
+        }
+
+        final var offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+        final var failed = new HashSet<TopicPartition>();
+        var replayed = 0;
+        Exception failure = null;
+        for (int i = 0; i < records.size(); i++) {
+            final var record = records.get(i);
+            final var partition = new TopicPartition(record.topic(), record.partition());
+            if (failed.contains(partition)) {
+                continue;
+            }
+            final var future = futures.get(i);
+            try {
+                if (future != null) {
+                    future.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                    replayed++;
+                }
+                offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                failed.add(partition);
+                failure = e;
+            }
+        }
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+        meterRegistry.counter("kafka.dlt.replayed", "topic", topic).increment(replayed);
+        if (failure != null) {
+            throw new KafkaException("Replay nach " + replayed + " Records des Stapels abgebrochen", failure);
+        }
+        return replayed;
+    }
+}
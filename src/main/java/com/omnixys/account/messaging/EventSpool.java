@@ -0,0 +1,299 @@
+package com.omnixys.account.messaging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT_UNALIGNED;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Lokaler, nur anhängender Zwischenspeicher für ausgehende Events, bestehend aus memory-mapped Segmentdateien.
+ * <p>
+ * Jedes Segment hat eine feste Größe und beginnt mit einem Header aus Kennung und Leseposition. Danach folgen
+ * die Einträge als {@code [Länge][CRC32][Bytes]}; eine Länge von 0 markiert das Ende der geschriebenen Daten.
+ * Die Länge wird zuletzt geschrieben, so dass ein abgebrochener Schreibvorgang beim Öffnen als Ende erkannt
+ * wird. Die Leseposition wird nach jedem {@link #commit(int)} im Header abgelegt, damit nach einem Neustart
+ * nur noch nicht bestätigte Einträge erneut geliefert werden.
+ * </p>
+ * <p>
+ * Der Speicherplatz ist auf {@code maxSegments * segmentSize} begrenzt; ist er erschöpft, lehnt
+ * {@link #append(byte[])} neue Einträge ab. Vollständig gelesene Segmente werden sofort freigegeben und
+ * gelöscht. Alle Methoden sind threadsicher.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+public final class EventSpool implements Closeable {
+
+    private static final int MAGIC = 0x4f58_5350;
+    private static final int HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final String PREFIX = "spool-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long pendingBytes;
+    private boolean closed;
+
+    /**
+     * Öffnet den Spool und übernimmt vorhandene Segmente aus dem Verzeichnis.
+     *
+     * @param directory   Verzeichnis der Segmentdateien, wird bei Bedarf angelegt
+     * @param segmentSize Größe einer Segmentdatei in Bytes
+     * @param maxSegments maximale Anzahl der Segmentdateien
+     * @throws IOException Falls das Verzeichnis oder ein Segment nicht geöffnet werden kann
+     */
+    public EventSpool(final Path directory, final int segmentSize, final int maxSegments) throws IOException {
+        if (segmentSize <= HEADER + RECORD_HEADER) {
+            throw new IllegalArgumentException("Die Segmentgröße ist zu klein: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        try (var files = Files.list(directory)) {
+            final var existing = files
+                .filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                .sorted(Comparator.comparingLong(EventSpool::sequenceOf))
+                .toList();
+            for (final var path : existing) {
+                final var segment = Segment.open(path, sequenceOf(path));
+                if (segment.exhausted()) {
+                    segment.delete();
+                } else {
+                    segments.addLast(segment);
+                    pendingBytes += segment.writePosition - segment.readPosition;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hängt einen Eintrag an.
+     *
+     * @param data der Eintrag
+     * @return {@code false}, falls der Speicherplatz erschöpft, der Eintrag größer als ein Segment oder der
+     *         Spool geschlossen ist
+     * @throws IOException Falls ein neues Segment nicht angelegt werden kann
+     */
+    public synchronized boolean append(final byte[] data) throws IOException {
+        final var required = RECORD_HEADER + data.length;
+        if (closed || required > segmentSize - HEADER) {
+            return false;
+        }
+        var tail = segments.peekLast();
+        if (tail == null || tail.writePosition + required > segmentSize) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            final var sequence = tail == null ? 0 : tail.sequence + 1;
+            tail = Segment.create(directory.resolve(PREFIX + sequence + SUFFIX), sequence, segmentSize);
+            segments.addLast(tail);
+        }
+        tail.write(data);
+        pendingBytes += required;
+        return true;
+    }
+
+    /**
+     * Liefert die ältesten noch nicht bestätigten Einträge, ohne sie zu entfernen.
+     *
+     * @param max maximale Anzahl
+     * @return Die Einträge in Einfügereihenfolge
+     */
+    public synchronized List<byte[]> peek(final int max) {
+        final var result = new ArrayList<byte[]>(Math.min(max, 64));
+        for (final var segment : segments) {
+            var position = segment.readPosition;
+            while (result.size() < max && position < segment.writePosition) {
+                final var data = segment.read(position);
+                result.add(data);
+                position += RECORD_HEADER + data.length;
+            }
+            if (result.size() >= max) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bestätigt die ältesten Einträge, z.B. nach erfolgreichem Versand der mit {@link #peek(int)} gelesenen.
+     *
+     * @param count Anzahl der bestätigten Einträge
+     */
+    public synchronized void commit(final int count) {
+        var remaining = count;
+        while (remaining > 0 && !segments.isEmpty()) {
+            final var head = segments.peekFirst();
+            while (remaining > 0 && head.readPosition < head.writePosition) {
+                final var length = head.length(head.readPosition);
+                head.readPosition += RECORD_HEADER + length;
+                pendingBytes -= RECORD_HEADER + length;
+                remaining--;
+            }
+            head.persistReadPosition();
+            if (head.readPosition >= head.writePosition && segments.size() > 1) {
+                segments.removeFirst().delete();
+            } else if (remaining > 0) {
+                break;
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingBytes == 0;
+    }
+
+    /**
+     * @return Die Bytes der noch nicht bestätigten Einträge
+     */
+    public synchronized long pendingBytes() {
+        return pendingBytes;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        segments.forEach(Segment::close);
+        segments.clear();
+    }
+
+    private static long sequenceOf(final Path path) {
+        final var name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Eine Segmentdatei, die über eine eigene {@link Arena} gemappt ist und daher deterministisch freigegeben
+     * werden kann.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final Arena arena;
+        private final MemorySegment memory;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(final Path path, final long sequence, final Arena arena, final MemorySegment memory) {
+            this.path = path;
+            this.sequence = sequence;
+            this.arena = arena;
+            this.memory = memory;
+        }
+
+        static Segment create(final Path path, final long sequence, final int size) throws IOException {
+            final var segment = map(path, sequence, size, true);
+            segment.memory.set(JAVA_INT_UNALIGNED, 0, MAGIC);
+            segment.readPosition = HEADER;
+            segment.writePosition = HEADER;
+            segment.persistReadPosition();
+            return segment;
+        }
+
+        static Segment open(final Path path, final long sequence) throws IOException {
+            final var segment = map(path, sequence, Files.size(path), false);
+            final var memory = segment.memory;
+            if (memory.byteSize() < HEADER || memory.get(JAVA_INT_UNALIGNED, 0) != MAGIC) {
+                segment.readPosition = HEADER;
+                segment.writePosition = HEADER;
+                return segment;
+            }
+            var position = HEADER;
+            while (position + RECORD_HEADER <= memory.byteSize()) {
+                final var length = memory.get(JAVA_INT_UNALIGNED, position);
+                if (length <= 0 || position + RECORD_HEADER + (long) length > memory.byteSize()) {
+                    break;
+                }
+                if (crc(segment.read(position)) != memory.get(JAVA_INT_UNALIGNED, position + 4)) {
+                    break;
+                }
+                position += RECORD_HEADER + length;
+            }
+            segment.writePosition = position;
+            segment.readPosition = Math.clamp(memory.get(JAVA_INT_UNALIGNED, 4), HEADER, position);
+            return segment;
+        }
+
+        private static Segment map(final Path path, final long sequence, final long size, final boolean create)
+            throws IOException {
+            final var arena = Arena.ofShared();
+            try (var channel = create
+                ? FileChannel.open(path, CREATE_NEW, READ, WRITE)
+                : FileChannel.open(path, READ, WRITE)) {
+                return new Segment(path, sequence, arena, channel.map(READ_WRITE, 0, size, arena));
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        void write(final byte[] data) {
+            final var position = writePosition;
+            MemorySegment.copy(data, 0, memory, JAVA_BYTE, position + RECORD_HEADER, data.length);
+            memory.set(JAVA_INT_UNALIGNED, position + 4, crc(data));
+            memory.set(JAVA_INT_UNALIGNED, position, data.length);
+            writePosition = position + RECORD_HEADER + data.length;
+        }
+
+        int length(final int position) {
+            return memory.get(JAVA_INT_UNALIGNED, position);
+        }
+
+        byte[] read(final int position) {
+            return memory.asSlice(position + RECORD_HEADER, length(position)).toArray(JAVA_BYTE);
+        }
+
+        boolean exhausted() {
+            return readPosition >= writePosition;
+        }
+
+        void persistReadPosition() {
+            memory.set(JAVA_INT_UNALIGNED, 4, readPosition);
+        }
+
+        void close() {
+            memory.force();
+            arena.close();
+        }
+
+        void delete() {
+            arena.close();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException _) {
+                // wird beim nächsten Öffnen als leeres Segment erkannt und erneut gelöscht
+            }
+        }
+
+        private static int crc(final byte[] data) {
+            final var crc = new CRC32();
+            crc.update(data);
+            return (int) crc.getValue();
+        }
+    }
+}
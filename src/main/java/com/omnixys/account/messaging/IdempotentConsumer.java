@@ -0,0 +1,292 @@
+package com.omnixys.account.messaging;
+
+import com.omnixys.account.repository.ProcessedMessageRepository;
+import com.omnixys.account.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Sorgt dafür, dass Kafka-Nachrichten auch bei erneuter Zustellung (Rebalancing, Neustart) nur einmal verarbeitet
+ * werden.
+ * <p>
+ * Jede Nachricht wird in derselben Transaktion wie ihre Verarbeitung im {@link ProcessedMessageRepository}
+ * eingetragen; ist sie dort bereits vorhanden, wird sie übersprungen. Davor steht ein Bloom-Filter mit den
+ * zuletzt verarbeiteten Schlüsseln: meldet er einen Schlüssel als sicher unbekannt (der Normalfall der ersten
+ * Zustellung), entfällt die vorherige Abfrage der Datenbank. Die Korrektheit hängt nicht vom Filter ab, da der
+ * Eintrag selbst Duplikate erkennt.
+ * </p>
+ * <p>
+ * Einträge werden nach {@code ttl} gelöscht. Da ein Bloom-Filter keine Einträge entfernen kann, wird er alle
+ * {@code ttl} durch einen leeren ersetzt und der bisherige noch eine weitere Periode mit abgefragt. Beim Start
+ * wird der Filter aus den Einträgen der letzten {@code ttl} gefüllt. Metriken: {@code idempotency.duplicates},
+ * {@code idempotency.bloom.negative}, {@code idempotency.bloom.positive}, {@code idempotency.bloom.false-positive},
+ * {@code idempotency.bloom.false-positive.rate}, {@code idempotency.bloom.expected-fpp} und
+ * {@code idempotency.pruned}.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class IdempotentConsumer implements SmartLifecycle {
+
+    /** Optionaler Header mit einer fachlichen ID der Nachricht. */
+    public static final String EVENT_ID_HEADER = "x-event-id";
+
+    private static final int PRUNE_BATCH_SIZE = 10_000;
+
+    private final ProcessedMessageRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final long pruneIntervalNanos;
+    private final long expectedKeys;
+    private final double falsePositiveProbability;
+    private final boolean warmUp;
+
+    private final Counter duplicates;
+    private final Counter bloomNegative;
+    private final Counter bloomPositive;
+    private final Counter falsePositive;
+    private final Counter pruned;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotated = System.nanoTime();
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public IdempotentConsumer(
+        @Value("${app.kafka.idempotency.ttl:7d}") final Duration ttl,
+        @Value("${app.kafka.idempotency.prune-interval:1h}") final Duration pruneInterval,
+        @Value("${app.kafka.idempotency.expected-keys:1000000}") final long expectedKeys,
+        @Value("${app.kafka.idempotency.false-positive-probability:0.01}") final double falsePositiveProbability,
+        @Value("${app.kafka.idempotency.warm-up:true}") final boolean warmUp,
+        final ProcessedMessageRepository repository,
+        final PlatformTransactionManager transactionManager,
+        final MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.pruneIntervalNanos = pruneInterval.toNanos();
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.warmUp = warmUp;
+        this.current = new BloomFilter(expectedKeys, falsePositiveProbability);
+        this.previous = new BloomFilter(expectedKeys, falsePositiveProbability);
+
+        duplicates = Counter.builder("idempotency.duplicates")
+            .description("Übersprungene, bereits verarbeitete Nachrichten")
+            .register(meterRegistry);
+        bloomNegative = Counter.builder("idempotency.bloom.negative")
+            .description("Nachrichten, für die der Bloom-Filter die Abfrage der Datenbank erspart hat")
+            .register(meterRegistry);
+        bloomPositive = Counter.builder("idempotency.bloom.positive")
+            .description("Nachrichten, die der Bloom-Filter als möglicherweise verarbeitet gemeldet hat")
+            .register(meterRegistry);
+        falsePositive = Counter.builder("idempotency.bloom.false-positive")
+            .description("Meldungen des Bloom-Filters, die die Datenbank widerlegt hat")
+            .register(meterRegistry);
+        pruned = Counter.builder("idempotency.pruned")
+            .description("Nach Ablauf der TTL gelöschte Einträge")
+            .register(meterRegistry);
+        Gauge.builder("idempotency.bloom.false-positive.rate", this, IdempotentConsumer::falsePositiveRate)
+            .description("Gemessene Falsch-Positiv-Rate des Bloom-Filters")
+            .register(meterRegistry);
+        Gauge.builder("idempotency.bloom.expected-fpp", this, consumer -> consumer.current.expectedFalsePositiveProbability())
+            .description("Aus dem Füllgrad geschätzte Falsch-Positiv-Rate des aktuellen Bloom-Filters")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Liefert den Schlüssel einer Nachricht: den Header {@value #EVENT_ID_HEADER}, sonst Topic, Partition und
+     * Offset, die bei einer erneuten Zustellung gleich bleiben. Für Nachrichten aus Retry- und Dead-Letter-Topics
+     * gelten die Koordinaten des Originals ({@link RetryTopicRouter}).
+     *
+     * @param record die Nachricht
+     * @return Der Schlüssel
+     */
+    public static String messageKey(final ConsumerRecord<?, ?> record) {
+        final var topic = RetryTopicRouter.originalTopic(record);
+        final var eventId = header(record, EVENT_ID_HEADER);
+        if (eventId != null) {
+            return topic + '#' + eventId;
+        }
+        final var partition = header(record, RetryTopicRouter.ORIGINAL_PARTITION_HEADER);
+        final var offset = header(record, RetryTopicRouter.ORIGINAL_OFFSET_HEADER);
+        if (partition != null && offset != null) {
+            return topic + '-' + partition + '@' + offset;
+        }
+        return topic + '-' + record.partition() + '@' + record.offset();
+    }
+
+    /**
+     * Verarbeitet eine Nachricht, falls sie noch nicht verarbeitet wurde. Eintrag und Verarbeitung erfolgen in
+     * einer Transaktion; Services mit {@code @Transactional} nehmen daran teil.
+     *
+     * @param key    Schlüssel der Nachricht
+     * @param action die Verarbeitung
+     * @return {@code false}, falls die Nachricht bereits verarbeitet wurde
+     */
+    public boolean runOnce(final String key, final Runnable action) {
+        if (seenBefore(key)) {
+            duplicates.increment();
+            return false;
+        }
+        final var processed = Boolean.TRUE.equals(transactionTemplate.execute(_ -> {
+            if (!repository.claim(key)) {
+                return false;
+            }
+            action.run();
+            return true;
+        }));
+        current.put(key);
+        if (!processed) {
+            duplicates.increment();
+        }
+        return processed;
+    }
+
+    /**
+     * Verarbeitet die noch nicht verarbeiteten Nachrichten eines Stapels in einer Transaktion.
+     *
+     * @param keys   Schlüssel der Nachrichten
+     * @param action erhält die Schlüssel der noch nicht verarbeiteten Nachrichten in der Reihenfolge von
+     *               {@code keys}
+     * @param <T>    Ergebnis der Verarbeitung
+     * @return Das Ergebnis der Verarbeitung
+     */
+    public <T> T runOnceAll(final Collection<String> keys, final Function<List<String>, T> action) {
+        final var candidates = new ArrayList<String>(keys.size());
+        final var positives = new ArrayList<String>();
+        for (final var key : keys) {
+            if (mightContain(key)) {
+                positives.add(key);
+            } else {
+                candidates.add(key);
+            }
+        }
+        bloomNegative.increment(candidates.size());
+        if (!positives.isEmpty()) {
+            bloomPositive.increment(positives.size());
+            final var existing = repository.findExisting(positives);
+            falsePositive.increment(positives.size() - existing.size());
+            positives.stream().filter(key -> !existing.contains(key)).forEach(candidates::add);
+        }
+
+        final var claimedCount = new AtomicInteger();
+        final var result = transactionTemplate.execute(_ -> {
+            final var claimed = new HashSet<>(repository.claimAll(candidates));
+            claimedCount.set(claimed.size());
+            return action.apply(keys.stream().filter(claimed::contains).toList());
+        });
+        keys.forEach(current::put);
+        duplicates.increment(keys.size() - claimedCount.get());
+        return result;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+            .name("idempotency")
+            .daemon()
+            .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final var thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        if (warmUp) {
+            try {
+                final var filter = current;
+                transactionTemplate.executeWithoutResult(_ -> repository.forEachSince(ttl, filter::put));
+                log.info("✅ Idempotenz: Bloom-Filter gefüllt, geschätzte Falsch-Positiv-Rate {}", filter.expectedFalsePositiveProbability());
+            } catch (Exception e) {
+                log.warn("⚠️ Idempotenz: Bloom-Filter konnte nicht gefüllt werden: {}", e.getMessage());
+            }
+        }
+        while (running) {
+            LockSupport.parkNanos(this, pruneIntervalNanos);
+            if (!running) {
+                break;
+            }
+            prune();
+            if (System.nanoTime() - rotated >= ttl.toNanos()) {
+                previous = current;
+                current = new BloomFilter(expectedKeys, falsePositiveProbability);
+                rotated = System.nanoTime();
+            }
+        }
+    }
+
+    private void prune() {
+        try {
+            int deleted;
+            do {
+                deleted = repository.deleteExpired(ttl, PRUNE_BATCH_SIZE);
+                pruned.increment(deleted);
+            } while (deleted == PRUNE_BATCH_SIZE && running);
+        } catch (Exception e) {
+            log.warn("⚠️ Idempotenz: Löschen abgelaufener Einträge fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    private boolean seenBefore(final String key) {
+        if (!mightContain(key)) {
+            bloomNegative.increment();
+            return false;
+        }
+        bloomPositive.increment();
+        if (repository.exists(key)) {
+            return true;
+        }
+        falsePositive.increment();
+        return false;
+    }
+
+    private boolean mightContain(final String key) {
+        return current.mightContain(key) || previous.mightContain(key);
+    }
+
+    private double falsePositiveRate() {
+        final var negatives = falsePositive.count() + bloomNegative.count();
+        return negatives > 0 ? falsePositive.count() / negatives : 0;
+    }
+
+    private static String header(final ConsumerRecord<?, ?> record, final String key) {
+        final var header = record.headers().lastHeader(key);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
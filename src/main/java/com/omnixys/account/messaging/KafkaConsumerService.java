@@ -7,26 +7,31 @@ import com.omnixys.account.models.mapper.AccountMapper;
 import com.omnixys.account.service.AccountWriteService;
 import com.omnixys.account.tracing.LoggerPlus;
 import com.omnixys.account.tracing.LoggerPlusFactory;
+import com.omnixys.account.tracing.TraceContextPropagator;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.annotation.Observed;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
-import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
-import io.opentelemetry.api.trace.TraceFlags;
-import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
 
 import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_CREATE_PERSON;
 import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_DELETE_PERSON;
@@ -48,6 +53,12 @@ import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ALL_START
  * </ul>
  * </p>
  *
+ * <p>
+ * Fehlgeschlagene Records werden nicht verworfen, sondern über den {@link RetryTopicRouter} in Retry-Topics und
+ * zuletzt in ein Dead-Letter-Topic geleitet; die Retry-Topics lesen eigene Listener, so dass Wiederholungen die
+ * Haupt-Topics nie aufhalten.
+ * </p>
+ *
  * @author
  * @since 21.04.2025
  */
@@ -55,53 +66,49 @@ import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ALL_START
 @RequiredArgsConstructor
 public class KafkaConsumerService {
 
+    private static final String CREATE_PERSON_RETRY_LISTENER = "account-create-person-retry";
+    private static final String DELETE_PERSON_RETRY_LISTENER = "account-delete-person-retry";
+
     private final ApplicationContext context;
     private final AccountWriteService accountWriteService;
     private final AccountMapper accountMapper;
     private final Tracer tracer;
+    private final MeterRegistry meterRegistry;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final IdempotentConsumer idempotentConsumer;
+    private final RetryTopicRouter retryTopicRouter;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
     }
 
     /**
-     * Konsumiert neue Kunden-Ereignisse und erstellt ein Konto.
+     * Konsumiert neue Kunden-Ereignisse und erstellt ein Konto. Aktiv im Modus {@code RECORD} von
+     * {@code app.kafka.create-person.mode}. Schlägt die Erstellung fehl, wird der Record an den
+     * {@link RetryTopicRouter} übergeben.
      *
      * @param record Kafka-Record mit JSON-Payload vom Typ {@link CreateAccountInput}
      */
-    @KafkaListener(topics = TOPIC_ACCOUNT_CREATE_PERSON, groupId = "${app.groupId}")
+    @KafkaListener(
+        topics = TOPIC_ACCOUNT_CREATE_PERSON,
+        groupId = "${app.groupId}",
+        autoStartup = "#{'${app.kafka.create-person.mode:RECORD}' == 'RECORD'}"
+    )
     @Observed(name = "kafka-consume.account-customer-created")
     public void consumeCustomerCreated(ConsumerRecord<String, CreateAccountDTO> record) {
         final var headers = record.headers();
         final var dto = record.value();
-        final var createAccountInput = accountMapper.toCreateInput(dto);
-
-        // ✨ 1. Extrahiere traceparent Header (W3C) oder B3 als Fallback
-        final var traceParent = getHeader(headers, "traceparent");
-
-        SpanContext linkedContext = null;
-        if (traceParent != null && traceParent.startsWith("00-")) {
-            String[] parts = traceParent.split("-");
-            if (parts.length == 4) {
-                String traceId = parts[1];
-                String spanId = parts[2];
-                boolean sampled = "01".equals(parts[3]);
-
-                linkedContext = SpanContext.createFromRemoteParent(
-                    traceId,
-                    spanId,
-                    sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(),
-                    TraceState.getDefault()
-                );
-            }
-        }
+
+        // ✨ 1. Extrahiere Trace-Kontext (W3C traceparent, sonst B3)
+        final var linkedContext = TraceContextPropagator.extract(headers);
 
         // ✨ 2. Starte neuen Trace mit Link (nicht als Parent!)
         SpanBuilder spanBuilder = tracer.spanBuilder("kafka.account.consume")
             .setSpanKind(SpanKind.CONSUMER)
             .setAttribute("messaging.system", "kafka")
             .setAttribute("messaging.destination", TOPIC_ACCOUNT_CREATE_PERSON)
-            .setAttribute("messaging.operation", "consume");
+            .setAttribute("messaging.operation", "consume")
+            .setAttribute("messaging.retry.attempt", RetryTopicRouter.attempt(record));
 
         if (linkedContext != null && linkedContext.isValid()) {
             spanBuilder.addLink(linkedContext);
@@ -111,62 +118,197 @@ public class KafkaConsumerService {
 
         try (Scope scope = span.makeCurrent()) {
             assert scope != null;
-            logger().info("📥 Empfangene Nachricht auf '{}': {}", TOPIC_ACCOUNT_CREATE_PERSON, dto);
-            final var accountInput = accountMapper.toAccount(createAccountInput);
-            final var account = accountWriteService.create(accountInput);
-            logger().info("✅ Konto erstellt für Benutzername='{}', Account-ID={}", createAccountInput.username(), account.getId());
+            logger().info("📥 Empfangene Nachricht auf '{}': {}", record.topic(), dto);
+            final var createAccountInput = accountMapper.toCreateInput(dto);
+            final var messageKey = IdempotentConsumer.messageKey(record);
+            final var processed = idempotentConsumer.runOnce(messageKey, () -> {
+                final var account = accountWriteService.create(accountMapper.toAccount(createAccountInput));
+                logger().info("✅ Konto erstellt für Benutzername='{}', Account-ID={}", createAccountInput.username(), account.getId());
+            });
+            if (!processed) {
+                logger().info("⏭️ Nachricht bereits verarbeitet und übersprungen: {}", messageKey);
+            }
+            span.setAttribute("messaging.duplicate", !processed);
             span.setStatus(StatusCode.OK);
         } catch (Exception e) {
             span.recordException(e);
             span.setStatus(StatusCode.ERROR, "Kafka-Fehler");
             logger().error("❌ Fehler beim Erstellen des Kontos", e);
+            retryTopicRouter.retry(record, e);
         } finally {
             span.end();
         }
     }
 
-    private String getHeader(Headers headers, String key) {
-        Header header = headers.lastHeader(key);
-        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    /**
+     * Konsumiert neue Kunden-Ereignisse parallel. Aktiv im Modus {@code PARALLEL} von
+     * {@code app.kafka.create-person.mode}.
+     * <p>
+     * Jeder Record wird wie in {@link #consumeCustomerCreated(ConsumerRecord)} verarbeitet, aber über den
+     * {@link KeyOrderedExecutor}: Records verschiedener Benutzer laufen gleichzeitig, Records desselben Benutzers
+     * ({@code userId}, sonst {@code username}) nacheinander. Der Record wird erst bestätigt, wenn er verarbeitet
+     * oder an den {@link RetryTopicRouter} übergeben wurde; scheitert das Weiterleiten, wiederholt der Executor
+     * die Verarbeitung, ohne zu bestätigen. Ist kein Platz frei, lehnt der Executor den Record ab und der Container
+     * liefert ihn beim nächsten {@code poll()} erneut aus.
+     * </p>
+     *
+     * @param record         Kafka-Record mit JSON-Payload vom Typ {@link CreateAccountDTO}
+     * @param acknowledgment Bestätigung des Records
+     */
+    @KafkaListener(
+        topics = TOPIC_ACCOUNT_CREATE_PERSON,
+        groupId = "${app.groupId}",
+        containerFactory = "parallelKafkaListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.create-person.mode:RECORD}' == 'PARALLEL'}"
+    )
+    public void consumeCustomerCreatedParallel(ConsumerRecord<String, CreateAccountDTO> record, Acknowledgment acknowledgment) {
+        final var dto = record.value();
+        final Object key = dto == null ? null : dto.userId() != null ? dto.userId() : dto.username();
+        keyOrderedExecutor.submit(key, () -> consumeCustomerCreated(record), acknowledgment::acknowledge);
     }
 
     /**
-     * Konsumiert Lösch-Events und entfernt die zugehörigen Accounts.
+     * Konsumiert neue Kunden-Ereignisse stapelweise, z.B. beim Massen-Onboarding, und erstellt die Konten eines
+     * {@code poll()} in einer Transaktion mit JDBC-Batching. Aktiv im Modus {@code BATCH} von
+     * {@code app.kafka.create-person.mode}.
+     * <p>
+     * Der Consumer-Span erhält je Record einen Link auf dessen Trace-Kontext. Nicht lesbare oder
+     * unvollständige Records werden vorab aussortiert und in das Dead-Letter-Topic geleitet. Scheitert der Stapel
+     * trotzdem, werden seine Konten einzeln angelegt und nur die fehlerhaften an den {@link RetryTopicRouter}
+     * übergeben. Aussortierte Records zählt die Metrik {@code kafka.account.create.poison}. Bereits verarbeitete Records überspringt der
+     * {@link IdempotentConsumer}.
+     * </p>
+     *
+     * @param records Kafka-Records mit JSON-Payload vom Typ {@link CreateAccountDTO}
+     */
+    @KafkaListener(
+        topics = TOPIC_ACCOUNT_CREATE_PERSON,
+        groupId = "${app.groupId}",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.create-person.mode:RECORD}' == 'BATCH'}",
+        properties = "max.poll.records=${app.kafka.create-person.batch-size:500}"
+    )
+    @Observed(name = "kafka-consume.account-customer-created-batch")
+    public void consumeCustomersCreated(List<ConsumerRecord<String, CreateAccountDTO>> records) {
+        SpanBuilder spanBuilder = tracer.spanBuilder("kafka.account.consume-batch")
+            .setSpanKind(SpanKind.CONSUMER)
+            .setAttribute("messaging.system", "kafka")
+            .setAttribute("messaging.destination", TOPIC_ACCOUNT_CREATE_PERSON)
+            .setAttribute("messaging.operation", "consume")
+            .setAttribute("messaging.batch.message_count", records.size());
+
+        final var inputs = new LinkedHashMap<String, CreateAccountInput>(records.size());
+        final var sources = new HashMap<String, ConsumerRecord<String, CreateAccountDTO>>(records.size());
+        final var invalid = new ArrayList<ConsumerRecord<String, CreateAccountDTO>>();
+        for (final var record : records) {
+            final var linkedContext = TraceContextPropagator.extract(record.headers());
+            if (linkedContext != null) {
+                spanBuilder.addLink(linkedContext);
+            }
+            final var input = toCreateInput(record);
+            if (input != null) {
+                final var messageKey = IdempotentConsumer.messageKey(record);
+                inputs.put(messageKey, input);
+                sources.put(messageKey, record);
+            } else {
+                invalid.add(record);
+            }
+        }
+        final var poison = invalid.size();
+
+        Span span = spanBuilder.startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            assert scope != null;
+            deadLetterInvalid(invalid);
+            var created = 0;
+            var retried = 0;
+            try {
+                created = idempotentConsumer.runOnceAll(inputs.keySet(), keys -> accountWriteService.createAll(
+                    keys.stream().map(inputs::get).map(accountMapper::toAccount).toList()
+                ).size());
+            } catch (Exception e) {
+                logger().warn("⚠️ Stapel mit {} Konten fehlgeschlagen, Konten werden einzeln angelegt: {}", inputs.size(), e.getMessage());
+                for (final var entry : inputs.entrySet()) {
+                    final var input = entry.getValue();
+                    try {
+                        if (idempotentConsumer.runOnce(entry.getKey(), () -> accountWriteService.create(accountMapper.toAccount(input)))) {
+                            created++;
+                        }
+                    } catch (Exception recordException) {
+                        retried++;
+                        logger().error("❌ Fehler beim Erstellen des Kontos für Benutzername='{}'", input.username(), recordException);
+                        retryTopicRouter.retry(sources.get(entry.getKey()), recordException);
+                    }
+                }
+            }
+            logger().info("📥 {} Konten aus {} Nachrichten auf '{}' erstellt", created, records.size(), TOPIC_ACCOUNT_CREATE_PERSON);
+            span.setAttribute("messaging.batch.poison_count", poison);
+            span.setAttribute("messaging.batch.retry_count", retried);
+            span.setStatus(StatusCode.OK);
+        } catch (Exception e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, "Kafka-Fehler");
+            logger().error("❌ Fehler beim Erstellen der Konten", e);
+            // Weiterleiten gescheitert: Stapel ab dem ersten Record mit wachsendem Abstand erneut zustellen lassen,
+            // bereits erstellte Konten überspringt der IdempotentConsumer
+            throw redeliverBatch(e);
+        } finally {
+            meterRegistry.counter("kafka.account.create.poison").increment(poison);
+            span.end();
+        }
+    }
+
+    /**
+     * Prüft einen Record für {@link #consumeCustomersCreated(List)}.
+     *
+     * @param record der Record
+     * @return Die Eingabe für das neue Konto oder {@code null}, falls der Record nicht verarbeitet werden kann
+     */
+    private CreateAccountInput toCreateInput(ConsumerRecord<String, CreateAccountDTO> record) {
+        final var dto = record.value();
+        if (dto == null) {
+            logger().error("❌ Nicht lesbare Nachricht auf '{}' übersprungen: partition={}, offset={}", record.topic(), record.partition(), record.offset());
+            return null;
+        }
+        try {
+            final var input = accountMapper.toCreateInput(dto);
+            if (input.category() != null && input.userId() != null && input.username() != null) {
+                return input;
+            }
+        } catch (Exception _) {
+            // unbekannte Kategorie
+        }
+        logger().error("❌ Ungültige Nachricht auf '{}' übersprungen: partition={}, offset={}, payload={}", record.topic(), record.partition(), record.offset(), dto);
+        return null;
+    }
+
+    /**
+     * Konsumiert Lösch-Events und entfernt die zugehörigen Accounts. Aktiv im Modus {@code RECORD} von
+     * {@code app.kafka.delete-person.mode}. Schlägt das Löschen fehl, wird der Record an den
+     * {@link RetryTopicRouter} übergeben.
      *
      * @param record Kafka-Record mit JSON-Payload vom Typ {@link DeleteAccountDTO}
      */
     @Observed(name = "kafka-consume.account-customer-deleted")
-    @KafkaListener(topics = TOPIC_ACCOUNT_DELETE_PERSON, groupId = "${app.groupId}")
+    @KafkaListener(
+        topics = TOPIC_ACCOUNT_DELETE_PERSON,
+        groupId = "${app.groupId}",
+        autoStartup = "#{'${app.kafka.delete-person.mode:RECORD}' == 'RECORD'}"
+    )
     public void consumeCustomerDeleted(ConsumerRecord<String, DeleteAccountDTO> record) {
         Headers headers = record.headers();
         final var deleteAccountDTO = record.value();
 
-        // ✨ 1. Extrahiere traceparent Header (W3C) oder B3 als Fallback
-        String traceParent = getHeader(headers, "traceparent");
-
-        SpanContext linkedContext = null;
-        if (traceParent != null && traceParent.startsWith("00-")) {
-            String[] parts = traceParent.split("-");
-            if (parts.length == 4) {
-                String traceId = parts[1];
-                String spanId = parts[2];
-                boolean sampled = "01".equals(parts[3]);
-
-                linkedContext = SpanContext.createFromRemoteParent(
-                    traceId,
-                    spanId,
-                    sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(),
-                    TraceState.getDefault()
-                );
-            }
-        }
+        // ✨ 1. Extrahiere Trace-Kontext (W3C traceparent, sonst B3)
+        final var linkedContext = TraceContextPropagator.extract(headers);
 
         // ✨ 2. Starte neuen Trace mit Link (nicht als Parent!)
         SpanBuilder spanBuilder = tracer.spanBuilder("kafka.account.consume")
             .setSpanKind(SpanKind.CONSUMER)
             .setAttribute("messaging.system", "kafka")
             .setAttribute("messaging.destination", TOPIC_ACCOUNT_DELETE_PERSON)
-            .setAttribute("messaging.operation", "consume");
+            .setAttribute("messaging.operation", "consume")
+            .setAttribute("messaging.retry.attempt", RetryTopicRouter.attempt(record));
 
         if (linkedContext != null && linkedContext.isValid()) {
             spanBuilder.addLink(linkedContext);
@@ -175,19 +317,203 @@ public class KafkaConsumerService {
         Span span = spanBuilder.startSpan();
         try (Scope scope = span.makeCurrent()) {
             assert scope != null;
-            logger().info("📥 Empfangene Nachricht auf '{}': {}", TOPIC_ACCOUNT_DELETE_PERSON, deleteAccountDTO);
-            accountWriteService.deleteAccountByUsernameOrCustomerId(deleteAccountDTO.id(), deleteAccountDTO.username());
-            logger().info("🗑️ Konto gelöscht: username='{}', customerId={}", deleteAccountDTO.username(), deleteAccountDTO.id());
+            logger().info("📥 Empfangene Nachricht auf '{}': {}", record.topic(), deleteAccountDTO);
+            final var deleted = accountWriteService.deleteAccountByUsernameOrCustomerId(deleteAccountDTO.id(), deleteAccountDTO.username());
+            logger().info("🗑️ {} Konten gelöscht: username='{}', customerId={}", deleted.size(), deleteAccountDTO.username(), deleteAccountDTO.id());
             span.setStatus(StatusCode.OK);
         } catch (Exception e) {
             span.recordException(e);
             span.setStatus(StatusCode.ERROR, "Kafka-Fehler");
-            logger().error("❌ Fehler beim Erstellen des Kontos", e);
+            logger().error("❌ Fehler beim Löschen des Kontos", e);
+            retryTopicRouter.retry(record, e);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Konsumiert Lösch-Events parallel. Aktiv im Modus {@code PARALLEL} von {@code app.kafka.delete-person.mode}.
+     * <p>
+     * Jeder Record wird wie in {@link #consumeCustomerDeleted(ConsumerRecord)} verarbeitet, aber über den
+     * {@link KeyOrderedExecutor}: Records verschiedener Benutzer laufen gleichzeitig, Records desselben Benutzers
+     * ({@code username}, sonst {@code id}) nacheinander. Wie in
+     * {@link #consumeCustomerCreatedParallel(ConsumerRecord, Acknowledgment)} wird der Record erst bestätigt, wenn
+     * er verarbeitet oder weitergeleitet wurde.
+     * </p>
+     *
+     * @param record         Kafka-Record mit JSON-Payload vom Typ {@link DeleteAccountDTO}
+     * @param acknowledgment Bestätigung des Records
+     */
+    @KafkaListener(
+        topics = TOPIC_ACCOUNT_DELETE_PERSON,
+        groupId = "${app.groupId}",
+        containerFactory = "parallelKafkaListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.delete-person.mode:RECORD}' == 'PARALLEL'}"
+    )
+    public void consumeCustomerDeletedParallel(ConsumerRecord<String, DeleteAccountDTO> record, Acknowledgment acknowledgment) {
+        final var dto = record.value();
+        final Object key = dto == null ? null : dto.username() != null ? dto.username() : dto.id();
+        keyOrderedExecutor.submit(key, () -> consumeCustomerDeleted(record), acknowledgment::acknowledge);
+    }
+
+    /**
+     * Konsumiert Lösch-Events stapelweise, z.B. bei Massenlöschungen, und entfernt die Konten aller Records
+     * eines {@code poll()} mit einem einzigen {@code DELETE}. Aktiv im Modus {@code BATCH} von
+     * {@code app.kafka.delete-person.mode}.
+     * <p>
+     * Wie beim einzelnen Record hat der Benutzername Vorrang vor der ID. Der Consumer-Span erhält je Record einen
+     * Link auf dessen {@code traceparent}. Ungültige Records werden in das Dead-Letter-Topic geleitet; scheitert
+     * der Stapel, werden die Records einzeln gelöscht und nur die fehlerhaften an den {@link RetryTopicRouter}
+     * übergeben. Aussortierte Records zählt die Metrik {@code kafka.account.delete.poison}.
+     * </p>
+     *
+     * @param records Kafka-Records mit JSON-Payload vom Typ {@link DeleteAccountDTO}
+     */
+    @KafkaListener(
+        topics = TOPIC_ACCOUNT_DELETE_PERSON,
+        groupId = "${app.groupId}",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.delete-person.mode:RECORD}' == 'BATCH'}",
+        properties = "max.poll.records=${app.kafka.delete-person.batch-size:2000}"
+    )
+    @Observed(name = "kafka-consume.account-customer-deleted-batch")
+    public void consumeCustomersDeleted(List<ConsumerRecord<String, DeleteAccountDTO>> records) {
+        SpanBuilder spanBuilder = tracer.spanBuilder("kafka.account.consume-batch")
+            .setSpanKind(SpanKind.CONSUMER)
+            .setAttribute("messaging.system", "kafka")
+            .setAttribute("messaging.destination", TOPIC_ACCOUNT_DELETE_PERSON)
+            .setAttribute("messaging.operation", "consume")
+            .setAttribute("messaging.batch.message_count", records.size());
+
+        final var valid = new ArrayList<ConsumerRecord<String, DeleteAccountDTO>>(records.size());
+        final var invalid = new ArrayList<ConsumerRecord<String, DeleteAccountDTO>>();
+        final var userIds = new ArrayList<UUID>();
+        final var usernames = new ArrayList<String>();
+        for (final var record : records) {
+            final var linkedContext = TraceContextPropagator.extract(record.headers());
+            if (linkedContext != null) {
+                spanBuilder.addLink(linkedContext);
+            }
+            final var dto = record.value();
+            if (dto == null || (dto.username() == null && dto.id() == null)) {
+                logger().error("❌ Ungültige Nachricht auf '{}' übersprungen: partition={}, offset={}", record.topic(), record.partition(), record.offset());
+                invalid.add(record);
+                continue;
+            }
+            valid.add(record);
+            if (dto.username() != null) {
+                usernames.add(dto.username());
+            } else {
+                userIds.add(dto.id());
+            }
+        }
+        final var poison = invalid.size();
+
+        Span span = spanBuilder.startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            assert scope != null;
+            deadLetterInvalid(invalid);
+            var deleted = 0;
+            var retried = 0;
+            try {
+                deleted = accountWriteService.deleteAllByUserIdsOrUsernames(userIds, usernames).size();
+            } catch (Exception e) {
+                logger().warn("⚠️ Stapel mit {} Löschungen fehlgeschlagen, Konten werden einzeln gelöscht: {}", valid.size(), e.getMessage());
+                for (final var record : valid) {
+                    final var dto = record.value();
+                    try {
+                        deleted += accountWriteService.deleteAccountByUsernameOrCustomerId(dto.id(), dto.username()).size();
+                    } catch (Exception recordException) {
+                        retried++;
+                        logger().error("❌ Fehler beim Löschen der Konten für Benutzername='{}', customerId={}", dto.username(), dto.id(), recordException);
+                        retryTopicRouter.retry(record, recordException);
+                    }
+                }
+            }
+            logger().info("🗑️ {} Konten aus {} Nachrichten auf '{}' gelöscht", deleted, records.size(), TOPIC_ACCOUNT_DELETE_PERSON);
+            span.setAttribute("accounts.deleted", deleted);
+            span.setAttribute("messaging.batch.poison_count", poison);
+            span.setAttribute("messaging.batch.retry_count", retried);
+            span.setStatus(StatusCode.OK);
+        } catch (Exception e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, "Kafka-Fehler");
+            logger().error("❌ Fehler beim Löschen der Konten", e);
+            // Weiterleiten gescheitert: Stapel ab dem ersten Record mit wachsendem Abstand erneut zustellen lassen,
+            // Löschen ist idempotent
+            throw redeliverBatch(e);
         } finally {
+            meterRegistry.counter("kafka.account.delete.poison").increment(poison);
             span.end();
         }
     }
 
+    /**
+     * Wiederholt fehlgeschlagene Kunden-Ereignisse aus den Retry-Topics von {@code account.create.person}, sobald
+     * sie fällig sind. Die Records werden wie in {@link #consumeCustomerCreated(ConsumerRecord)} verarbeitet und
+     * bei einem erneuten Fehler an den nächsten Versuch bzw. das Dead-Letter-Topic weitergeleitet.
+     *
+     * @param records  Kafka-Records mit JSON-Payload vom Typ {@link CreateAccountDTO}
+     * @param consumer der Consumer des Listeners
+     */
+    @KafkaListener(
+        id = CREATE_PERSON_RETRY_LISTENER,
+        topics = "#{@retryTopicRouter.retryTopics('" + TOPIC_ACCOUNT_CREATE_PERSON + "')}",
+        groupId = "${app.groupId}",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void retryCustomersCreated(List<ConsumerRecord<String, CreateAccountDTO>> records, Consumer<?, ?> consumer) {
+        retryTopicRouter.drain(CREATE_PERSON_RETRY_LISTENER, records, consumer, this::consumeCustomerCreated);
+    }
+
+    /**
+     * Wiederholt fehlgeschlagene Lösch-Events aus den Retry-Topics von {@code account.delete.person}, sobald sie
+     * fällig sind. Die Records werden wie in {@link #consumeCustomerDeleted(ConsumerRecord)} verarbeitet.
+     *
+     * @param records  Kafka-Records mit JSON-Payload vom Typ {@link DeleteAccountDTO}
+     * @param consumer der Consumer des Listeners
+     */
+    @KafkaListener(
+        id = DELETE_PERSON_RETRY_LISTENER,
+        topics = "#{@retryTopicRouter.retryTopics('" + TOPIC_ACCOUNT_DELETE_PERSON + "')}",
+        groupId = "${app.groupId}",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void retryCustomersDeleted(List<ConsumerRecord<String, DeleteAccountDTO>> records, Consumer<?, ?> consumer) {
+        retryTopicRouter.drain(DELETE_PERSON_RETRY_LISTENER, records, consumer, this::consumeCustomerDeleted);
+    }
+
+    /**
+     * Lässt einen Stapel, dessen Records nicht alle weitergeleitet werden konnten, vollständig erneut zustellen.
+     * Der {@code CommonErrorHandler} setzt dann auf den ersten Record zurück und wartet zwischen den Zustellungen
+     * wie bei einzelnen Records, statt den Stapel nach wenigen Versuchen aufzugeben.
+     *
+     * @param e der Fehler des Stapels
+     * @return Die zu werfende Exception
+     */
+    private static RuntimeException redeliverBatch(Exception e) {
+        if (RetryTopicRouter.isForwardingFailure(e)) {
+            return new BatchListenerFailedException("Weiterleiten fehlgeschlagen, Stapel wird erneut zugestellt", e, 0);
+        }
+        return e instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e);
+    }
+
+    /**
+     * Leitet ungültige Records eines Stapels in das Dead-Letter-Topic; Wiederholungen wären zwecklos. Nicht
+     * lesbare Records ohne Payload leitet der {@link RetryTopicRouter} mit den ursprünglichen Bytes weiter, wie es
+     * der {@code CommonErrorHandler} für die übrigen Listener tut.
+     *
+     * @param records die ungültigen Records
+     */
+    private void deadLetterInvalid(List<? extends ConsumerRecord<String, ?>> records) {
+        for (final var record : records) {
+            final var cause = record.value() != null
+                ? new IllegalArgumentException("Ungültige Nachricht: " + record.value())
+                : new IllegalArgumentException("Nicht lesbare Nachricht");
+            retryTopicRouter.deadLetter(record, cause);
+        }
+    }
+
     @Observed(name = "kafka-consume.person.orchestration")
     @KafkaListener(
         topics = {
@@ -3,29 +3,28 @@ package com.omnixys.account.messaging;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.omnixys.account.config.AppProperties;
 import com.omnixys.account.models.entities.Account;
-import com.omnixys.account.models.event.LogDTO;
+import com.omnixys.account.models.event.AccountEvent;
 import com.omnixys.account.models.event.SendMailEvent;
+import com.omnixys.account.service.OutboxService;
 import com.omnixys.account.tracing.TraceContextUtil;
 import io.micrometer.observation.annotation.Observed;
-import io.micrometer.tracing.CurrentTraceContext;
 import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.SpanContext;
-import io.opentelemetry.api.trace.StatusCode;
-import io.opentelemetry.api.trace.Tracer;
-import io.opentelemetry.context.Context;
-import io.opentelemetry.context.Scope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.header.Headers;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.UUID;
 
-import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_LOG_STREAM_LOG_ACCOUNT;
+import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_ACCOUNT_CREATED;
+import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_ACCOUNT_DELETED;
+import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_ACCOUNT_UPDATED;
 import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_CREATE_ACCOUNT;
+import static com.omnixys.account.models.event.AccountEventType.CREATED;
+import static com.omnixys.account.models.event.AccountEventType.DELETED;
+import static com.omnixys.account.models.event.AccountEventType.UPDATED;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
 
 /**
  * Service zum Versenden von Kafka-Nachrichten im Zusammenhang mit Personenereignissen.
@@ -33,7 +32,7 @@ import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_NOTIFICAT
  * Unterstützte Ereignisse:
  * <ul>
  *     <li>Kundenmail nach Erstellung</li>
- *     <li>Erstellen eines Kontos</li>
+ *     <li>Erstellen, Ändern und Löschen eines Kontos</li>
  *     <li>Erstellen und Löschen eines Warenkorbs</li>
  * </ul>
  * </p>
@@ -43,6 +42,10 @@ import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_NOTIFICAT
  * z.B. <code>shopping-cart.customer.created</code>
  * </p>
  *
+ * <p>
+ * Fachliche Events werden über die Outbox ({@link OutboxService}, {@link OutboxRelay}) transaktional versendet.
+ * </p>
+ *
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
  * @since 01.05.2025
  * @version 2
@@ -52,86 +55,95 @@ import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_NOTIFICAT
 @RequiredArgsConstructor
 public class KafkaPublisherService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final Tracer tracer;
-    private final KafkaUtilService kafkaUtilService;
+    private final OutboxService outboxService;
     private final AppProperties appProperties;
+    private final LogSampler logSampler;
 
 
     /**
      * Versendet ein Logging-Event an das zentrale Logging-System via Kafka.
+     * <p>
+     * Der Versand erfolgt asynchron und gebündelt über den {@link LogShipper}; hier werden nur Zeitpunkt,
+     * Span und Benutzer des aufrufenden Threads erfasst. Wiederholungen fasst vorher der {@link LogSampler}
+     * zusammen.
+     * </p>
      *
-     * @param level   z.B. INFO, WARN, DEBUG, ERROR
-     * @param message Die zu loggende Nachricht
-     * @param context Kontext wie Klassen- oder Methodenname
+     * @param level    z.B. INFO, WARN, DEBUG, ERROR
+     * @param template Das unformatierte Template der Nachricht, identifiziert Wiederholungen
+     * @param message  Die zu loggende Nachricht
+     * @param context  Kontext wie Klassen- oder Methodenname
      */
-    @Observed(name = "kafka-publisher.log")
-    public void log(String level, String message, String serviceName, String context) {
-        SpanContext spanContext = Span.current().getSpanContext();
-
-        final var event = new LogDTO(
-            UUID.randomUUID(),
+    public void log(String level, String template, String message, String serviceName, String context) {
+        logSampler.offer(template, new LogShipper.Entry(
             Instant.now(),
             level,
             message,
             serviceName,
             context,
-            spanContext.isValid() ? spanContext.getTraceId() : null,
-            spanContext.isValid() ? spanContext.getSpanId() : null,
+            Span.current().getSpanContext(),
             TraceContextUtil.getUsernameOrNull(),
-            appProperties.getEnv()
-        );
-
-        sendKafkaEvent(TOPIC_LOG_STREAM_LOG_ACCOUNT, event, "log");
+            appProperties.getEnv(),
+            1
+        ));
     }
 
     /**
-     * Versendet ein Kafka-Event zur Bestätigungsmail beim Erstellen einer Person.
+     * Stellt ein Kafka-Event zur Bestätigungsmail beim Erstellen einer Person in die Outbox ein.
+     * <p>
+     * Das Event wird in der laufenden Transaktion geschrieben und erst nach deren Commit vom {@link OutboxRelay}
+     * versendet.
+     * </p>
      *
      * @param account die erstellte Person
      * @param role   die zugewiesene Rolle
      */
     @Observed(name = "kafka-publisher.send-mail")
+    @Transactional(propagation = MANDATORY)
     public void sendMail(Account account, String role) {
         final var mailDTO = SendMailEvent.fromEntity(account);
-        sendKafkaEvent(TOPIC_NOTIFICATION_CREATE_ACCOUNT, mailDTO, "sendMail");
+        outboxService.append(TOPIC_NOTIFICATION_CREATE_ACCOUNT, "sendMail", mailDTO);
+        log.debug("📤 Kafka-Event 'sendMail' für Topic '{}' in die Outbox geschrieben: {}", TOPIC_NOTIFICATION_CREATE_ACCOUNT, mailDTO);
     }
 
-
     /**
-     * Zentraler Kafka-Versand mit OpenTelemetry-Span.
+     * Stellt das Event zu einem neu angelegten Konto in die Outbox ein.
      *
-     * @param topic     Ziel-Topic
-     * @param payload   Event-Inhalt (DTO oder String)
-     * @param operation Name der Aktion, z.B. 'createAccount'
+     * @param account das gespeicherte Konto
      */
-    private void sendKafkaEvent(String topic, Object payload, String operation) {
-        Span kafkaSpan = tracer.spanBuilder(String.format("kafka-publisher.%s", topic))
-            .setParent(Context.current())
-            .setAttribute("messaging.system", "kafka")
-            .setAttribute("messaging.destination", topic)
-            .setAttribute("messaging.destination_kind", "topic")
-            .setAttribute("messaging.operation", operation)
-            .startSpan();
-        try (Scope scope = kafkaSpan.makeCurrent()) {
-            assert scope != null;
-            SpanContext spanContext = kafkaSpan.getSpanContext();
-            //SpanContext spanContext = Span.current().getSpanContext();
-
-            Headers headers = kafkaUtilService.buildStandardHeaders(topic, operation, spanContext);
+    @Observed(name = "kafka-publisher.account-created")
+    @Transactional(propagation = MANDATORY)
+    public void accountCreated(Account account) {
+        append(TOPIC_ACCOUNT_ACCOUNT_CREATED, "accountCreated", AccountEvent.fromEntity(account, CREATED));
+    }
 
-            ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, null, null, payload, headers);
-            kafkaTemplate.send(record);
+    /**
+     * Stellt das Event zu einem geänderten Konto in die Outbox ein.
+     *
+     * @param account das gespeicherte Konto
+     */
+    @Observed(name = "kafka-publisher.account-updated")
+    @Transactional(propagation = MANDATORY)
+    public void accountUpdated(Account account) {
+        append(TOPIC_ACCOUNT_ACCOUNT_UPDATED, "accountUpdated", AccountEvent.fromEntity(account, UPDATED));
+    }
 
-            kafkaSpan.setAttribute("messaging.kafka.message_type", payload.getClass().getSimpleName());
-        } catch (Exception e) {
-            kafkaSpan.recordException(e);
-            kafkaSpan.setStatus(StatusCode.ERROR, "Kafka send failed");
-            log.error("❌ Kafka send failed: topic={}, payload={}", topic, payload, e);
-        } finally {
-            kafkaSpan.end();
-        }
+    /**
+     * Stellt das Event zu einem gelöschten Konto in die Outbox ein.
+     * <p>
+     * Das Event enthält nur ID und Benutzername, da beim mengenbasierten Löschen nur diese bekannt sind.
+     * </p>
+     *
+     * @param id       ID des Kontos
+     * @param username Benutzername des Kontos
+     */
+    @Observed(name = "kafka-publisher.account-deleted")
+    @Transactional(propagation = MANDATORY)
+    public void accountDeleted(UUID id, String username) {
+        append(TOPIC_ACCOUNT_ACCOUNT_DELETED, "accountDeleted", new AccountEvent(id, null, username, DELETED));
+    }
 
-        log.info("📤 Kafka-Event '{}' an Topic '{}': {}", operation, topic, payload);
+    private void append(final String topic, final String operation, final AccountEvent event) {
+        outboxService.append(topic, operation, event);
+        log.debug("📤 Kafka-Event '{}' für Topic '{}' in die Outbox geschrieben: {}", operation, topic, event);
     }
 }
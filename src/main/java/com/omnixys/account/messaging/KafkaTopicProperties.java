@@ -2,6 +2,8 @@ package com.omnixys.account.messaging;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 /**
  * Zentrale Konfiguration der Kafka-Topic-Namen.
  * <p>
@@ -17,8 +19,15 @@ public final class KafkaTopicProperties {
     public static final String TOPIC_NOTIFICATION_CREATE_ACCOUNT = "notification.create.account";
     public static final String TOPIC_NOTIFICATION_DELETE_ACCOUNT = "notification.delete.account";
 
+    public static final String TOPIC_ACCOUNT_ACCOUNT_CREATED = "account.account.created";
+    public static final String TOPIC_ACCOUNT_ACCOUNT_UPDATED = "account.account.updated";
+    public static final String TOPIC_ACCOUNT_ACCOUNT_DELETED = "account.account.deleted";
+
     public static final String TOPIC_ACCOUNT_CREATE_PERSON = "account.create.person";
     public static final String TOPIC_ACCOUNT_DELETE_PERSON = "account.delete.person";
+
+    /** Topics mit Retry- und Dead-Letter-Topics ({@link RetryTopicRouter}). */
+    public static final List<String> RETRYABLE_TOPICS = List.of(TOPIC_ACCOUNT_CREATE_PERSON, TOPIC_ACCOUNT_DELETE_PERSON);
     
     public static final String TOPIC_LOG_STREAM_LOG_ACCOUNT = "log-Stream.log.account";
 
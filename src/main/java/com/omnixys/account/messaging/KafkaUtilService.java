@@ -1,7 +1,7 @@
 package com.omnixys.account.messaging;
 
+import com.omnixys.account.tracing.TraceContextPropagator;
 import io.opentelemetry.api.trace.SpanContext;
-import lombok.RequiredArgsConstructor;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.header.internals.RecordHeaders;
@@ -9,24 +9,39 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Hilfsklasse zum Erstellen standardisierter Kafka-Headers.
  * Kapselt Metadaten und unterstützt optional OpenTelemetry-Trace-Kontext.
+ * <p>
+ * Die Header für Service und Version werden einmal erzeugt, die für Topic und Aktion einmal je Wert; der
+ * Trace-Kontext wird über den {@link TraceContextPropagator} geschrieben.
+ * </p>
  *
  * @author Caleb
  * @since 20.04.2025
- * @version 2.0
+ * @version 3.0
  */
 @Service
-@RequiredArgsConstructor
 public class KafkaUtilService {
 
-    @Value("${app.name}")
-    private String serviceName;
+    private final Header serviceHeader;
+    private final Header versionHeader;
+    private final boolean b3;
+    private final ConcurrentHashMap<String, Header> eventNameHeaders = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Header> eventTypeHeaders = new ConcurrentHashMap<>();
+
+    public KafkaUtilService(
+        @Value("${app.name}") final String serviceName,
+        @Value("${app.version}") final String version,
+        @Value("${app.kafka.tracing.b3:false}") final boolean b3
+    ) {
+        this.serviceHeader = header("x-service", serviceName);
+        this.versionHeader = header("x-event-version", version);
+        this.b3 = b3;
+    }
 
-    @Value("${app.version}")
-    private String version;
     /**
      * Erstellt Standard-Kafka-Header mit optionalem OpenTelemetry-Tracing.
      *
@@ -39,17 +54,13 @@ public class KafkaUtilService {
         RecordHeaders headers = new RecordHeaders();
 
         // ✨ Meta-Header
-        headers.add(header("x-service", serviceName));
-        headers.add(header("x-event-name", topic));
-        headers.add(header("x-event-version", version));
-        headers.add(header("x-event-type", operation));
-
-        // ✨ W3C TraceContext Header für Tempo
-        if (spanContext != null && spanContext.isValid()) {
-            String traceFlags = spanContext.isSampled() ? "01" : "00";
-            String traceparent = String.format("00-%s-%s-%s", spanContext.getTraceId(), spanContext.getSpanId(), traceFlags);
-            headers.add(header("traceparent", traceparent));
-        }
+        headers.add(serviceHeader);
+        headers.add(eventNameHeaders.computeIfAbsent(topic, name -> header("x-event-name", name)));
+        headers.add(versionHeader);
+        headers.add(eventTypeHeaders.computeIfAbsent(operation, type -> header("x-event-type", type)));
+
+        // ✨ W3C TraceContext Header für Tempo, optional B3
+        TraceContextPropagator.inject(spanContext, headers, b3);
         return headers;
     }
 
@@ -0,0 +1,227 @@
+package com.omnixys.account.messaging;
+
+import com.omnixys.account.models.enums.WorkerType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.omnixys.account.models.enums.WorkerType.VIRTUAL;
+
+/**
+ * Führt Kafka-Records parallel aus, hält aber je Schlüssel die Reihenfolge ein.
+ * <p>
+ * Aufgaben mit gleichem Schlüssel (z.B. Benutzer-ID oder Benutzername) werden hintereinander an die Aufgabe
+ * davor gehängt, Aufgaben mit verschiedenen Schlüsseln laufen gleichzeitig auf einem Pool aus
+ * {@code pool-size} Plattform-Threads oder auf virtuellen Threads ({@code workers}). Höchstens
+ * {@code max-in-flight} Aufgaben sind gleichzeitig angenommen; ist die Grenze erreicht, wartet
+ * {@link #submit(Object, Runnable, Runnable)} höchstens {@code acquire-timeout} auf einen freien Platz und wirft
+ * sonst eine {@link RejectedExecutionException}. Der Container setzt dann auf den Record zurück und liefert ihn
+ * beim nächsten {@code poll()} erneut aus, so dass der Consumer-Thread weder {@code max.poll.interval.ms}
+ * überschreitet noch das Stoppen des Containers aufhält.
+ * </p>
+ * <p>
+ * Nur nach einer erfolgreichen Aufgabe wird ihr Callback ausgeführt, z.B. das Bestätigen des Records; der
+ * Container committet mit {@code asyncAcks} nur Offsets, bis zu denen alle Records bestätigt sind. Endet eine
+ * Aufgabe mit einer Exception, etwa weil der {@link RetryTopicRouter} den Record nicht weiterleiten konnte, wird
+ * sie nach {@code retry-backoff} (verdoppelt bis {@code retry-max-backoff}) wiederholt, solange der Executor
+ * läuft; die folgenden Aufgaben desselben Schlüssels warten so lange. Beim Stoppen bleibt der Record
+ * unbestätigt und wird nach dem Neustart erneut ausgeliefert. Metriken: {@code kafka.parallel.in-flight},
+ * {@code kafka.parallel.keys}, {@code kafka.parallel.completed}, {@code kafka.parallel.failed},
+ * {@code kafka.parallel.rejected} und {@code kafka.parallel.abandoned}.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class KeyOrderedExecutor implements SmartLifecycle {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Duration shutdownTimeout;
+    private final long acquireTimeoutNanos;
+    private final long retryBackoffNanos;
+    private final long retryMaxBackoffNanos;
+    private final ConcurrentHashMap<Object, CompletableFuture<Boolean>> tails = new ConcurrentHashMap<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter abandoned;
+
+    private volatile boolean running;
+
+    public KeyOrderedExecutor(
+        @Value("${app.kafka.parallel.max-in-flight:256}") final int maxInFlight,
+        @Value("${app.kafka.parallel.workers:VIRTUAL}") final WorkerType workers,
+        @Value("${app.kafka.parallel.pool-size:16}") final int poolSize,
+        @Value("${app.kafka.parallel.shutdown-timeout:30s}") final Duration shutdownTimeout,
+        @Value("${app.kafka.parallel.acquire-timeout:5s}") final Duration acquireTimeout,
+        @Value("${app.kafka.parallel.retry-backoff:1s}") final Duration retryBackoff,
+        @Value("${app.kafka.parallel.retry-max-backoff:30s}") final Duration retryMaxBackoff,
+        final MeterRegistry meterRegistry
+    ) {
+        this.executor = workers == VIRTUAL
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kafka-parallel-", 0).factory())
+            : Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("kafka-parallel-", 0).daemon().factory());
+        this.permits = new Semaphore(maxInFlight);
+        this.shutdownTimeout = shutdownTimeout;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.retryMaxBackoffNanos = Math.max(retryBackoffNanos, retryMaxBackoff.toNanos());
+
+        Gauge.builder("kafka.parallel.in-flight", permits, semaphore -> maxInFlight - semaphore.availablePermits())
+            .description("Angenommene, noch nicht abgeschlossene Records")
+            .tag("workers", workers.name())
+            .register(meterRegistry);
+        Gauge.builder("kafka.parallel.keys", tails, ConcurrentHashMap::size)
+            .description("Schlüssel mit angenommenen, noch nicht abgeschlossenen Records")
+            .register(meterRegistry);
+        completed = Counter.builder("kafka.parallel.completed")
+            .description("Erfolgreich verarbeitete und bestätigte Records")
+            .register(meterRegistry);
+        failed = Counter.builder("kafka.parallel.failed")
+            .description("Fehlgeschlagene Versuche, die wiederholt werden")
+            .register(meterRegistry);
+        rejected = Counter.builder("kafka.parallel.rejected")
+            .description("Mangels freiem Platz abgelehnte Records, die der Container erneut ausliefert")
+            .register(meterRegistry);
+        abandoned = Counter.builder("kafka.parallel.abandoned")
+            .description("Beim Stoppen unbestätigt gebliebene Records, die Kafka erneut ausliefert")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Nimmt eine Aufgabe an und wartet dafür höchstens {@code acquire-timeout} auf einen freien Platz.
+     *
+     * @param key       Schlüssel für die Reihenfolge; {@code null} ohne Reihenfolge
+     * @param task      die Aufgabe; wird bei einer Exception wiederholt, solange der Executor läuft
+     * @param onSuccess wird nur ausgeführt, nachdem die Aufgabe ohne Exception beendet wurde
+     * @throws RejectedExecutionException Falls kein Platz frei wurde oder der Executor nicht läuft; der Record
+     *     ist dann nicht angenommen und muss erneut ausgeliefert werden
+     */
+    public void submit(final Object key, final Runnable task, final Runnable onSuccess) {
+        acquire(key);
+
+        final Supplier<Boolean> guarded = () -> runUntilSuccess(key, task);
+        final CompletableFuture<Boolean> future;
+        try {
+            future = key == null
+                ? CompletableFuture.supplyAsync(guarded, executor)
+                : tails.compute(key, (_, tail) -> tail == null
+                    ? CompletableFuture.supplyAsync(guarded, executor)
+                    : tail.handleAsync((_, _) -> guarded.get(), executor));
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        future.whenComplete((succeeded, _) -> {
+            if (key != null) {
+                tails.remove(key, future);
+            }
+            permits.release();
+            if (Boolean.TRUE.equals(succeeded)) {
+                completed.increment();
+                onSuccess.run();
+            } else {
+                abandoned.increment();
+            }
+        });
+    }
+
+    private void acquire(final Object key) {
+        final boolean acquired;
+        try {
+            acquired = running && permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Warten auf einen freien Platz unterbrochen", e);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new RejectedExecutionException(running
+                ? "Kein freier Platz für key=" + key + ", Record wird erneut ausgeliefert"
+                : "Parallele Verarbeitung gestoppt, Record wird erneut ausgeliefert");
+        }
+    }
+
+    /**
+     * Führt die Aufgabe aus und wiederholt sie bei einer Exception mit wachsendem Abstand.
+     *
+     * @return {@code true}, falls die Aufgabe erfolgreich war; {@code false}, falls der Executor vorher gestoppt
+     *     wurde
+     */
+    private boolean runUntilSuccess(final Object key, final Runnable task) {
+        var backoff = retryBackoffNanos;
+        for (var attempt = 1; ; attempt++) {
+            try {
+                task.run();
+                return true;
+            } catch (Exception e) {
+                failed.increment();
+                log.error("❌ Parallele Verarbeitung fehlgeschlagen, Record bleibt unbestätigt: key={}, attempt={}", key, attempt, e);
+            }
+            try {
+                if (stopped.await(backoff, TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff = Math.min(backoff * 2, retryMaxBackoffNanos);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Wartet höchstens {@code shutdown-timeout} auf die angenommenen Aufgaben und bricht laufende Wiederholungen
+     * ab. Nicht bestätigte Records liefert Kafka nach dem Neustart erneut aus.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        stopped.countDown();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("⚠️ Parallele Verarbeitung nicht rechtzeitig beendet, {} Schlüssel offen", tails.size());
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stoppt nach den Listener-Containern, damit keine neuen Aufgaben mehr angenommen werden.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+}
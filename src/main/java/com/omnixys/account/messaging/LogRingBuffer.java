@@ -0,0 +1,105 @@
+package com.omnixys.account.messaging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Begrenzter, lock-freier Ringpuffer für beliebig viele Produzenten und genau einen Konsumenten.
+ * <p>
+ * Jeder Slot trägt eine Sequenznummer, die anzeigt, ob er frei oder belegt ist. Produzenten reservieren einen
+ * Slot per CAS auf {@code tail} und geben ihn durch das Setzen der Sequenznummer frei; der Konsument liest
+ * ohne CAS. Ist der Puffer voll, liefert {@link #offer(Object)} sofort {@code false}, so dass der Aufrufer über
+ * das weitere Vorgehen entscheidet.
+ * </p>
+ *
+ * @param <E> Typ der Elemente
+ */
+final class LogRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity gewünschte Kapazität, wird auf die nächste Zweierpotenz aufgerundet
+     */
+    LogRingBuffer(final int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Die Kapazität muss mindestens 2 sein.");
+        }
+        final var size = Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        elements = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Fügt ein Element hinzu. Darf von beliebig vielen Threads gleichzeitig aufgerufen werden.
+     *
+     * @param element das Element
+     * @return {@code false}, falls der Puffer voll ist
+     */
+    boolean offer(final E element) {
+        var position = tail.get();
+        while (true) {
+            final var index = (int) (position & mask);
+            final var difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Entnimmt bis zu {@code max} Elemente. Darf nur vom Konsumenten-Thread aufgerufen werden.
+     *
+     * @param consumer erhält die Elemente in Einfügereihenfolge
+     * @param max      maximale Anzahl
+     * @return Die Anzahl der entnommenen Elemente
+     */
+    @SuppressWarnings("unchecked")
+    int drain(final Consumer<? super E> consumer, final int max) {
+        var position = head;
+        var count = 0;
+        while (count < max) {
+            final var index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            final var element = (E) elements[index];
+            elements[index] = null;
+            sequences.set(index, position + elements.length);
+            position++;
+            count++;
+            consumer.accept(element);
+        }
+        head = position;
+        return count;
+    }
+
+    /**
+     * @return Die ungefähre Anzahl belegter Slots
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+}
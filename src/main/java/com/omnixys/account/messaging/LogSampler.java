@@ -0,0 +1,255 @@
+package com.omnixys.account.messaging;
+
+import com.omnixys.account.config.LogSamplerProperties;
+import com.omnixys.account.config.LogSamplerProperties.Limit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sampling-Stufe vor dem {@link LogShipper}, damit sich wiederholende Log-Events weder den Pod noch den zentralen
+ * Logging-Service überlasten.
+ * <p>
+ * Events mit gleichem Level, Kontext und Template werden innerhalb eines Zeitfensters ({@code window})
+ * zusammengefasst: das erste wird sofort weitergegeben, alle weiteren nur gezählt. Am Ende des Fensters wird
+ * für sie ein einziges Event mit der letzten Nachricht und {@code count} = Anzahl der Wiederholungen versendet.
+ * </p>
+ * <p>
+ * Zusätzlich begrenzt je Kontext ein Token-Bucket ({@code limit} bzw. {@code limits}) die sofort weitergegebenen
+ * Events; darüber hinausgehende werden ebenfalls im Fenster gezählt. Werden mehr als {@code max-keys}
+ * verschiedene Events gleichzeitig gezählt, gilt für weitere nur noch der Token-Bucket, überzählige werden
+ * verworfen. Metriken: {@code log.sampler.passed}, {@code log.sampler.collapsed},
+ * {@code log.sampler.summaries}, {@code log.sampler.dropped} und {@code log.sampler.keys}.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Component
+public class LogSampler implements SmartLifecycle {
+
+    private final LogShipper logShipper;
+    private final LogSamplerProperties properties;
+    private final ConcurrentHashMap<Key, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter passed;
+    private final Counter collapsed;
+    private final Counter summaries;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    private record Key(String level, String context, String template) {}
+
+    /**
+     * Im aktuellen Fenster gezählte Wiederholungen eines Events.
+     * <p>
+     * Beim Schließen des Fensters wird der Zähler atomar durch {@link #CLOSED} ersetzt. Ein {@link #add} danach
+     * schlägt fehl, so dass der Aufrufer die Wiederholung in einem neuen Aggregat zählt, statt dass sie verloren
+     * geht. Die Nachricht wird vor dem Zählen gesetzt, damit ein geschlossenes Aggregat mit {@code count > 0} immer
+     * eine hat.
+     * </p>
+     */
+    private static final class Aggregate {
+        private static final long CLOSED = Long.MIN_VALUE;
+
+        private final AtomicLong count = new AtomicLong();
+        private volatile LogShipper.Entry last;
+
+        /**
+         * @return {@code false}, falls das Fenster bereits geschlossen ist
+         */
+        boolean add(final LogShipper.Entry entry) {
+            last = entry;
+            var current = count.get();
+            while (current != CLOSED) {
+                if (count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                current = count.get();
+            }
+            return false;
+        }
+
+        /**
+         * @return Die Anzahl der bis zum Schließen gezählten Wiederholungen
+         */
+        long close() {
+            return count.getAndSet(CLOSED);
+        }
+    }
+
+    /**
+     * Token-Bucket mit kontinuierlicher Nachfüllung.
+     */
+    private static final class TokenBucket {
+        private final double ratePerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilled = System.nanoTime();
+
+        TokenBucket(final Limit limit) {
+            ratePerNano = limit.getRate() / 1e9;
+            capacity = Math.max(1, limit.getBurst());
+            tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            final var now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilled) * ratePerNano);
+            refilled = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    public LogSampler(final LogShipper logShipper, final LogSamplerProperties properties, final MeterRegistry meterRegistry) {
+        this.logShipper = logShipper;
+        this.properties = properties;
+
+        passed = Counter.builder("log.sampler.passed")
+            .description("Sofort weitergegebene Log-Events")
+            .register(meterRegistry);
+        collapsed = Counter.builder("log.sampler.collapsed")
+            .description("In Wiederholungs-Events zusammengefasste Log-Events")
+            .register(meterRegistry);
+        summaries = Counter.builder("log.sampler.summaries")
+            .description("Versendete Wiederholungs-Events")
+            .register(meterRegistry);
+        dropped = Counter.builder("log.sampler.dropped")
+            .description("Wegen Token-Bucket und max-keys verworfene Log-Events")
+            .register(meterRegistry);
+        Gauge.builder("log.sampler.keys", aggregates, ConcurrentHashMap::size)
+            .description("Im aktuellen Fenster gezählte verschiedene Log-Events")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Gibt ein Log-Event an den {@link LogShipper} weiter oder zählt es im aktuellen Fenster.
+     *
+     * @param template das unformatierte Template der Nachricht
+     * @param entry    das Event
+     */
+    public void offer(final String template, final LogShipper.Entry entry) {
+        if (!properties.isEnabled()) {
+            logShipper.offer(entry);
+            return;
+        }
+        final var key = new Key(entry.level(), entry.context(), template);
+        while (true) {
+            var aggregate = aggregates.get(key);
+            if (aggregate == null) {
+                if (aggregates.size() >= properties.getMaxKeys()) {
+                    if (bucket(entry.context()).tryAcquire()) {
+                        passed.increment();
+                        logShipper.offer(entry);
+                    } else {
+                        dropped.increment();
+                    }
+                    return;
+                }
+                final var created = new Aggregate();
+                aggregate = aggregates.putIfAbsent(key, created);
+                if (aggregate == null) {
+                    if (bucket(entry.context()).tryAcquire()) {
+                        passed.increment();
+                        logShipper.offer(entry);
+                        return;
+                    }
+                    aggregate = created;
+                }
+            }
+            if (aggregate.add(entry)) {
+                collapsed.increment();
+                return;
+            }
+            // Fenster wurde gerade geschlossen: im nächsten Fenster zählen
+            aggregates.remove(key, aggregate);
+        }
+    }
+
+    /**
+     * Schließt das aktuelle Fenster und versendet je gezähltem Event ein Wiederholungs-Event.
+     */
+    void flush() {
+        aggregates.forEach((key, aggregate) -> {
+            final var count = aggregate.close();
+            aggregates.remove(key, aggregate);
+            if (count > 0) {
+                summaries.increment();
+                logShipper.offer(aggregate.last.withCount(count));
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+            .name("log-sampler")
+            .daemon()
+            .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final var thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(properties.getWindow());
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stoppt vor dem {@link LogShipper}, damit die letzten Wiederholungs-Events noch versendet werden.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1500;
+    }
+
+    private void run() {
+        final var windowNanos = properties.getWindow().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, windowNanos);
+            flush();
+        }
+    }
+
+    private TokenBucket bucket(final String context) {
+        return buckets.computeIfAbsent(Objects.requireNonNullElse(context, ""), _ -> new TokenBucket(limitFor(context)));
+    }
+
+    private Limit limitFor(final String context) {
+        final var limits = properties.getLimits();
+        var limit = limits.get(context);
+        if (limit == null && context != null) {
+            final var separator = context.indexOf('#');
+            limit = limits.get(separator < 0 ? context : context.substring(0, separator));
+        }
+        return limit != null ? limit : properties.getLimit();
+    }
+}
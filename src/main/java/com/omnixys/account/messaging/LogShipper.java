@@ -0,0 +1,248 @@
+package com.omnixys.account.messaging;
+
+import com.omnixys.account.models.enums.LogOverflowPolicy;
+import com.omnixys.account.models.event.LogDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_LOG_STREAM_LOG_ACCOUNT;
+import static com.omnixys.account.models.enums.LogOverflowPolicy.BLOCK;
+
+/**
+ * Asynchroner Versand der Log-Events von {@link com.omnixys.account.tracing.LoggerPlus} an Kafka.
+ * <p>
+ * Aufrufende Threads legen ein Event nur in einem lock-freien {@link LogRingBuffer} ab. Ein eigener Thread
+ * entnimmt die Events in Stapeln von bis zu {@code batch-size} und übergibt sie ohne Span je Event über den
+ * {@link SpoolingSender} an den Kafka-Producer, der sie zu wenigen großen Requests zusammenfasst. Ist der
+ * Puffer leer, wartet der Thread {@code linger}. Jedes Event bleibt ein eigener {@link LogDTO}-Record, damit sich für Konsumenten des Topics
+ * nichts ändert.
+ * </p>
+ * <p>
+ * Ist der Puffer voll, entscheidet {@link LogOverflowPolicy}, ob das Event verworfen wird oder der Aufrufer
+ * kurz wartet. Metriken: {@code log.shipper.queue.depth}, {@code log.shipper.dropped},
+ * {@code log.shipper.sent}, {@code log.shipper.failed} und {@code log.shipper.batch.size}.
+ * </p>
+ * <p>
+ * Der Versand startet vor und stoppt nach allen anderen Lifecycle-Komponenten außer dem {@link SpoolingSender};
+ * beim Stoppen wird der Puffer geleert und der Producer geflusht.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class LogShipper implements SmartLifecycle {
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SpoolingSender spoolingSender;
+    private final LogRingBuffer<Entry> buffer;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final LogOverflowPolicy overflow;
+    private final long blockTimeoutNanos;
+
+    private final Counter dropped;
+    private final Counter sent;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    /**
+     * Ein noch nicht versendetes Log-Event. Alles, was vom aufrufenden Thread abhängt (Zeitpunkt, Span,
+     * Benutzer), wird beim Einstellen erfasst; ID und Kafka-Header erzeugt der Versand-Thread.
+     */
+    public record Entry(
+        Instant timestamp,
+        String level,
+        String message,
+        String service,
+        String context,
+        SpanContext spanContext,
+        String user,
+        String environment,
+        long count
+    ) {
+        /**
+         * @param repetitions Anzahl der zusammengefassten Events
+         * @return Das Event mit der Anzahl der Wiederholungen als {@code count}
+         */
+        Entry withCount(final long repetitions) {
+            return new Entry(timestamp, level, message, service, context, spanContext, user, environment, repetitions);
+        }
+
+        LogDTO toEvent() {
+            final var valid = spanContext != null && spanContext.isValid();
+            return new LogDTO(
+                UUID.randomUUID(),
+                timestamp,
+                level,
+                message,
+                service,
+                context,
+                valid ? spanContext.getTraceId() : null,
+                valid ? spanContext.getSpanId() : null,
+                user,
+                environment,
+                count
+            );
+        }
+    }
+
+    public LogShipper(
+        @Value("${app.kafka.log-shipper.capacity:8192}") final int capacity,
+        @Value("${app.kafka.log-shipper.batch-size:500}") final int batchSize,
+        @Value("${app.kafka.log-shipper.linger:50ms}") final Duration linger,
+        @Value("${app.kafka.log-shipper.overflow:DROP}") final LogOverflowPolicy overflow,
+        @Value("${app.kafka.log-shipper.block-timeout:5ms}") final Duration blockTimeout,
+        final KafkaTemplate<String, Object> kafkaTemplate,
+        final SpoolingSender spoolingSender,
+        final MeterRegistry meterRegistry
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.spoolingSender = spoolingSender;
+        this.buffer = new LogRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+
+        Gauge.builder("log.shipper.queue.depth", buffer, LogRingBuffer::size)
+            .description("Wartende Log-Events")
+            .register(meterRegistry);
+        Gauge.builder("log.shipper.queue.capacity", buffer, LogRingBuffer::capacity)
+            .description("Kapazität des Puffers für Log-Events")
+            .register(meterRegistry);
+        dropped = Counter.builder("log.shipper.dropped")
+            .description("Wegen vollem Puffer verworfene Log-Events")
+            .tag("policy", overflow.name())
+            .register(meterRegistry);
+        sent = Counter.builder("log.shipper.sent")
+            .description("An den Kafka-Producer übergebene Log-Events")
+            .register(meterRegistry);
+        failed = Counter.builder("log.shipper.failed")
+            .description("Log-Events, die weder gesendet noch zwischengespeichert werden konnten")
+            .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("log.shipper.batch.size")
+            .description("Log-Events je Versandstapel")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stellt ein Log-Event für den Versand ein.
+     *
+     * @param entry das Event
+     * @return {@code false}, falls das Event wegen vollem Puffer verworfen wurde
+     */
+    public boolean offer(final Entry entry) {
+        if (buffer.offer(entry)) {
+            return true;
+        }
+        if (overflow == BLOCK && running) {
+            final var deadline = System.nanoTime() + blockTimeoutNanos;
+            do {
+                LockSupport.parkNanos(10_000);
+                if (buffer.offer(entry)) {
+                    return true;
+                }
+            } while (System.nanoTime() - deadline < 0);
+        }
+        dropped.increment();
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+            .name("log-shipper")
+            .daemon()
+            .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final var thread = worker;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            if (!thread.join(STOP_TIMEOUT)) {
+                log.warn("⚠️ Log-Versand nicht rechtzeitig beendet, {} Events verworfen", buffer.size());
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Startet vor und stoppt nach allen anderen Komponenten außer dem {@link SpoolingSender}, damit deren
+     * Log-Events beim Herunterfahren noch versendet werden.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    private void run() {
+        final var batch = new ArrayList<Entry>(batchSize);
+        while (running || buffer.size() > 0) {
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, lingerNanos);
+                continue;
+            }
+            ship(batch);
+            batch.clear();
+        }
+        try {
+            kafkaTemplate.flush();
+        } catch (Exception e) {
+            log.warn("⚠️ Log-Versand: Flush beim Stoppen fehlgeschlagen", e);
+        }
+    }
+
+    private void ship(final ArrayList<Entry> batch) {
+        var failures = 0;
+        Exception lastFailure = null;
+        for (final var entry : batch) {
+            try {
+                spoolingSender.send(TOPIC_LOG_STREAM_LOG_ACCOUNT, "log", entry.toEvent(), entry.spanContext());
+            } catch (Exception e) {
+                failures++;
+                lastFailure = e;
+            }
+        }
+        sent.increment(batch.size() - failures);
+        batchSizes.record(batch.size());
+        if (failures > 0) {
+            failed.increment(failures);
+            log.warn("⚠️ Log-Versand: {} von {} Events abgelehnt", failures, batch.size(), lastFailure);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.omnixys.account.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.account.models.entities.OutboxEvent;
+import com.omnixys.account.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Versendet die Events der Outbox an Kafka.
+ * <p>
+ * Ein eigener Thread sperrt in einer Transaktion bis zu {@code batch-size} der ältesten Events mit
+ * {@code FOR UPDATE SKIP LOCKED}, übergibt sie alle dem Kafka-Producer, wartet höchstens {@code send-timeout}
+ * auf die Bestätigungen und löscht die bestätigten Events mit einem einzigen {@code DELETE}. War der Stapel
+ * voll, folgt sofort der nächste, sonst wartet der Thread {@code poll-interval}. Da gesperrte Zeilen
+ * übersprungen werden, können beliebig viele Pods parallel versenden, ohne ein Event doppelt zu senden.
+ * </p>
+ * <p>
+ * Nicht bestätigte Events bleiben stehen und werden im nächsten Durchlauf erneut gesendet (at-least-once).
+ * Events, deren Typ oder Payload nicht gelesen werden kann, werden in derselben Transaktion zur Analyse nach
+ * {@code outbox_failed} verschoben, damit sie nicht dauerhaft Plätze im Stapel belegen.
+ * Die Reihenfolge ist je Pod die der IDs; zwischen parallel arbeitenden Pods ist sie nicht garantiert.
+ * Metriken: {@code outbox.relay.published}, {@code outbox.relay.failed}, {@code outbox.relay.unreadable},
+ * {@code outbox.relay.batch.size}, {@code outbox.relay.batch} und {@code outbox.relay.lag} (Zeit vom Schreiben
+ * bis zur Bestätigung).
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaUtilService kafkaUtilService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final Duration sendTimeout;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Counter unreadable;
+    private final DistributionSummary batchSizes;
+    private final Timer batches;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public OutboxRelay(
+        @Value("${app.outbox.batch-size:500}") final int batchSize,
+        @Value("${app.outbox.poll-interval:200ms}") final Duration pollInterval,
+        @Value("${app.outbox.send-timeout:10s}") final Duration sendTimeout,
+        final OutboxRepository outboxRepository,
+        final PlatformTransactionManager transactionManager,
+        final KafkaTemplate<String, Object> kafkaTemplate,
+        final KafkaUtilService kafkaUtilService,
+        final ObjectMapper objectMapper,
+        final MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaUtilService = kafkaUtilService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.sendTimeout = sendTimeout;
+
+        published = Counter.builder("outbox.relay.published")
+            .description("Von Kafka bestätigte und aus der Outbox gelöschte Events")
+            .register(meterRegistry);
+        failed = Counter.builder("outbox.relay.failed")
+            .description("Nicht bestätigte Events, die erneut gesendet werden")
+            .register(meterRegistry);
+        unreadable = Counter.builder("outbox.relay.unreadable")
+            .description("Nicht lesbare Events, die nach outbox_failed verschoben wurden")
+            .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+            .description("Events je Versandstapel")
+            .register(meterRegistry);
+        batches = Timer.builder("outbox.relay.batch")
+            .description("Dauer eines Versandstapels vom Sperren bis zum Löschen")
+            .register(meterRegistry);
+        lag = Timer.builder("outbox.relay.lag")
+            .description("Zeit vom Schreiben eines Events in die Outbox bis zur Bestätigung durch Kafka")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+            .name("outbox-relay")
+            .daemon()
+            .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final var thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(sendTimeout);
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            var relayed = 0;
+            try {
+                relayed = batches.record(() -> Objects.requireNonNull(transactionTemplate.execute(_ -> relayBatch())));
+            } catch (Exception e) {
+                log.warn("⚠️ Outbox: Versand fehlgeschlagen: {}", e.getMessage());
+            }
+            if (relayed < batchSize) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Versendet einen Stapel in der laufenden Transaktion.
+     *
+     * @return Anzahl der bestätigten und der verschobenen Events
+     */
+    private int relayBatch() {
+        final var events = outboxRepository.lockNext(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        batchSizes.record(events.size());
+
+        // je Event die Bestätigung oder null, falls es nicht lesbar ist
+        final var futures = new ArrayList<CompletableFuture<SendResult<String, Object>>>(events.size());
+        var moved = 0;
+        for (final var event : events) {
+            final ProducerRecord<String, Object> record;
+            try {
+                record = toRecord(event);
+            } catch (Exception e) {
+                futures.add(null);
+                moved += outboxRepository.moveToFailed(event.getId(), e.toString());
+                log.error("❌ Outbox: Event {} vom Typ {} nicht lesbar, nach outbox_failed verschoben",
+                    event.getId(), event.getType(), e);
+                continue;
+            }
+            try {
+                futures.add(kafkaTemplate.send(record));
+            } catch (Exception e) {
+                // Broker nicht erreichbar: nicht jedes weitere Event max.block.ms warten lassen
+                futures.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+        unreadable.increment(moved);
+
+        final var deadline = System.nanoTime() + sendTimeout.toNanos();
+        final var sent = new ArrayList<UUID>(events.size());
+        Exception lastFailure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            final var future = futures.get(i);
+            if (future == null) {
+                continue;
+            }
+            final var event = events.get(i);
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.add(event.getId());
+                lag.record(Duration.between(event.getCreated(), LocalDateTime.now()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lastFailure = e;
+                break;
+            } catch (Exception e) {
+                lastFailure = e;
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            outboxRepository.deleteByIds(sent);
+            published.increment(sent.size());
+        }
+        final var failures = events.size() - sent.size() - moved;
+        if (failures > 0) {
+            failed.increment(failures);
+            log.warn("⚠️ Outbox: {} von {} Events nicht bestätigt, nächster Versuch im nächsten Durchlauf",
+                failures, events.size(), lastFailure);
+        }
+        return sent.size() + moved;
+    }
+
+    private ProducerRecord<String, Object> toRecord(final OutboxEvent event) throws Exception {
+        final var payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getType()));
+        final var headers = kafkaUtilService.buildStandardHeaders(event.getTopic(), event.getOperation(), spanContext(event));
+        return new ProducerRecord<>(event.getTopic(), null, null, null, payload, headers);
+    }
+
+    private static SpanContext spanContext(final OutboxEvent event) {
+        if (event.getTraceId() == null || event.getSpanId() == null) {
+            return null;
+        }
+        return SpanContext.create(
+            event.getTraceId(),
+            event.getSpanId(),
+            event.isSampled() ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+            TraceState.getDefault()
+        );
+    }
+}
@@ -0,0 +1,486 @@
+package com.omnixys.account.messaging;
+
+import com.omnixys.account.exceptions.ConstraintViolationsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Leitet fehlgeschlagene Kafka-Records in gestufte Retry-Topics und zuletzt in ein Dead-Letter-Topic, statt sie
+ * zu verwerfen oder die Partition mit Wiederholungen zu blockieren.
+ * <p>
+ * Der {@code n}-te Versuch landet in {@code <topic>.retry-<n>} und ist nach
+ * {@code initial-delay * multiplier^(n-1)} (höchstens {@code max-delay}) fällig; nach {@code attempts} Versuchen
+ * oder bei fachlichen Fehlern (ungültige Daten, verletzte Constraints) landet der Record in {@code <topic>.dlt}.
+ * Alle Header des Originals bleiben erhalten, u.a. {@code traceparent}; dazu kommen Topic, Partition und Offset
+ * des Originals, der Versuch, der Fälligkeitszeitpunkt und die Exception. Records, deren Payload nicht
+ * deserialisiert werden konnte ({@code null} vom {@code ErrorHandlingDeserializer}), landen mit den unveränderten
+ * Bytes und den Typ-Headern des Originals im Dead-Letter-Topic, so dass sie nach einer Korrektur erneut
+ * eingespielt werden können.
+ * </p>
+ * <p>
+ * Die Retry-Topics werden von eigenen Listener-Containern gelesen ({@link #drain}). Ist ein Record noch nicht
+ * fällig, wird nur seine Partition bis zur Fälligkeit pausiert; die Partitionen der Haupt-Topics sind davon nie
+ * betroffen. Metriken: {@code kafka.retry.routed} und {@code kafka.dlt.routed}.
+ * </p>
+ * <p>
+ * Scheitert das Weiterleiten selbst, z.B. weil der Broker nicht erreichbar ist, wird eine
+ * {@link ForwardingException} geworfen. Der Record gilt dann als nicht verarbeitet: der {@code CommonErrorHandler}
+ * setzt auf ihn zurück und stellt ihn mit {@link #forwardingBackOff()} ohne Begrenzung erneut zu.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class RetryTopicRouter {
+
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String DUE_HEADER = "x-retry-due";
+    public static final String ORIGINAL_TOPIC_HEADER = "x-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "x-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "x-original-offset";
+    public static final String EXCEPTION_HEADER = "x-exception";
+    public static final String EXCEPTION_MESSAGE_HEADER = "x-exception-message";
+
+    /** Header, die bei jeder Weiterleitung neu gesetzt werden. */
+    private static final Set<String> ROUTING_HEADERS = Set.of(
+        ATTEMPT_HEADER,
+        DUE_HEADER,
+        EXCEPTION_HEADER,
+        EXCEPTION_MESSAGE_HEADER,
+        SerializationUtils.KEY_DESERIALIZER_EXCEPTION_HEADER,
+        SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER
+    );
+
+    /** Typ-Header des {@code JsonSerializer}; beim Serialisieren der Payload neu gesetzt, bei Rohdaten behalten. */
+    private static final Set<String> TYPE_HEADERS = Set.of(
+        AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+        AbstractJavaTypeMapper.DEFAULT_CONTENT_CLASSID_FIELD_NAME,
+        AbstractJavaTypeMapper.DEFAULT_KEY_CLASSID_FIELD_NAME
+    );
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(RetryTopicRouter.class);
+
+    private static final List<Class<? extends Exception>> NOT_RETRYABLE = List.of(
+        IllegalArgumentException.class,
+        ConstraintViolationsException.class,
+        DataIntegrityViolationException.class
+    );
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private volatile KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    private final KafkaListenerEndpointRegistry registry;
+    private final MeterRegistry meterRegistry;
+    private final int attempts;
+    private final Duration initialDelay;
+    private final double multiplier;
+    private final Duration maxDelay;
+    private final Duration sendTimeout;
+    private final Duration forwardBackoff;
+    private final Duration forwardMaxBackoff;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("kafka-retry").daemon().factory()
+    );
+
+    public RetryTopicRouter(
+        @Value("${app.kafka.retry.attempts:3}") final int attempts,
+        @Value("${app.kafka.retry.initial-delay:1s}") final Duration initialDelay,
+        @Value("${app.kafka.retry.multiplier:10}") final double multiplier,
+        @Value("${app.kafka.retry.max-delay:10m}") final Duration maxDelay,
+        @Value("${app.kafka.retry.send-timeout:10s}") final Duration sendTimeout,
+        @Value("${app.kafka.retry.forward-backoff:1s}") final Duration forwardBackoff,
+        @Value("${app.kafka.retry.forward-max-backoff:1m}") final Duration forwardMaxBackoff,
+        final KafkaTemplate<String, Object> kafkaTemplate,
+        final KafkaListenerEndpointRegistry registry,
+        final MeterRegistry meterRegistry
+    ) {
+        this.attempts = attempts;
+        this.initialDelay = initialDelay;
+        this.multiplier = multiplier;
+        this.maxDelay = maxDelay;
+        this.sendTimeout = sendTimeout;
+        this.forwardBackoff = forwardBackoff;
+        this.forwardMaxBackoff = forwardMaxBackoff;
+        this.kafkaTemplate = kafkaTemplate;
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param topic   Haupt-Topic
+     * @param attempt Versuch ab 1
+     * @return Das Retry-Topic für den Versuch
+     */
+    public static String retryTopic(final String topic, final int attempt) {
+        return topic + ".retry-" + attempt;
+    }
+
+    /**
+     * @param topic Haupt-Topic
+     * @return Das Dead-Letter-Topic
+     */
+    public static String deadLetterTopic(final String topic) {
+        return topic + ".dlt";
+    }
+
+    /**
+     * @param topic Haupt-Topic
+     * @return Alle Retry-Topics des Haupt-Topics, z.B. für {@code @KafkaListener(topics = ...)}
+     */
+    public String[] retryTopics(final String topic) {
+        return IntStream.rangeClosed(1, attempts)
+            .mapToObj(attempt -> retryTopic(topic, attempt))
+            .toArray(String[]::new);
+    }
+
+    /**
+     * @param attempt Versuch ab 1
+     * @return Die Wartezeit vor dem Versuch
+     */
+    public Duration delay(final int attempt) {
+        final var millis = initialDelay.toMillis() * Math.pow(multiplier, attempt - 1);
+        return millis >= maxDelay.toMillis() ? maxDelay : Duration.ofMillis((long) millis);
+    }
+
+    /**
+     * Wartezeiten zwischen den erneuten Zustellungen eines Records, dessen Weiterleitung gescheitert ist: ab
+     * {@code forward-backoff} verdoppelt bis {@code forward-max-backoff}, ohne Begrenzung der Versuche. Die
+     * Wartezeit muss unter {@code max.poll.interval.ms} bleiben, da der Consumer-Thread dabei nicht pollt.
+     *
+     * @return Der Backoff für den {@code CommonErrorHandler}
+     */
+    public BackOff forwardingBackOff() {
+        final var backOff = new ExponentialBackOff(forwardBackoff.toMillis(), 2);
+        backOff.setMaxInterval(Math.max(forwardBackoff.toMillis(), forwardMaxBackoff.toMillis()));
+        return backOff;
+    }
+
+    /**
+     * @param exception eine Exception aus einem Listener, ggf. vom Container verpackt
+     * @return {@code true}, falls ein Record nicht in ein Retry- oder Dead-Letter-Topic weitergeleitet werden konnte
+     */
+    public static boolean isForwardingFailure(final Throwable exception) {
+        for (var current = exception; current != null; current = current.getCause()) {
+            if (current instanceof ForwardingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param record ein Record aus einem Haupt-, Retry- oder Dead-Letter-Topic
+     * @return Das Haupt-Topic, aus dem der Record ursprünglich stammt
+     */
+    public static String originalTopic(final ConsumerRecord<?, ?> record) {
+        final var topic = header(record.headers(), ORIGINAL_TOPIC_HEADER);
+        return topic != null ? topic : record.topic();
+    }
+
+    /**
+     * @param record ein Record aus einem Haupt-, Retry- oder Dead-Letter-Topic
+     * @return Die Anzahl der bisherigen Wiederholungen; {@code 0} im Haupt-Topic
+     */
+    public static int attempt(final ConsumerRecord<?, ?> record) {
+        final var attempt = header(record.headers(), ATTEMPT_HEADER);
+        return attempt != null ? Integer.parseInt(attempt) : 0;
+    }
+
+    /**
+     * Leitet einen fehlgeschlagenen Record in das Retry-Topic des nächsten Versuchs, nach dem letzten Versuch
+     * oder bei einem fachlichen Fehler in das Dead-Letter-Topic.
+     *
+     * @param record der fehlgeschlagene Record
+     * @param cause  der Fehler
+     * @throws ForwardingException falls der Record nicht weitergeleitet werden konnte
+     */
+    public void retry(final ConsumerRecord<?, ?> record, final Exception cause) {
+        final var attempt = attempt(record) + 1;
+        if (attempt > attempts || !isRetryable(cause)) {
+            deadLetter(record, cause);
+            return;
+        }
+        final var topic = originalTopic(record);
+        final var delay = delay(attempt);
+        final var headers = forwardHeaders(record, cause);
+        headers.add(header(ATTEMPT_HEADER, Integer.toString(attempt)));
+        headers.add(header(DUE_HEADER, Long.toString(System.currentTimeMillis() + delay.toMillis())));
+        send(retryTopic(topic, attempt), record, headers);
+        meterRegistry.counter("kafka.retry.routed", "topic", topic, "attempt", Integer.toString(attempt)).increment();
+        log.warn("🔁 Record aus '{}' fehlgeschlagen, Versuch {} von {} in {}: {}", topic, attempt, attempts, delay, cause.getMessage());
+    }
+
+    /**
+     * Leitet einen Record direkt in das Dead-Letter-Topic. Ist die Payload {@code null}, weil sie nicht
+     * deserialisiert werden konnte, werden die ursprünglichen Bytes weitergeleitet und die
+     * {@link DeserializationException} als Fehler eingetragen.
+     *
+     * @param record der Record
+     * @param cause  der Fehler
+     * @throws ForwardingException falls der Record nicht weitergeleitet werden konnte
+     */
+    public void deadLetter(final ConsumerRecord<?, ?> record, final Exception cause) {
+        final var topic = originalTopic(record);
+        final var unreadable = record.value() == null ? deserializationException(record, cause) : null;
+        final var headers = forwardHeaders(record, unreadable != null ? unreadable : cause);
+        headers.add(header(ATTEMPT_HEADER, Integer.toString(attempt(record))));
+        if (record.value() == null) {
+            sendRaw(deadLetterTopic(topic), record, unreadable != null ? unreadable.getData() : null, headers);
+        } else {
+            send(deadLetterTopic(topic), record, headers);
+        }
+        meterRegistry.counter("kafka.dlt.routed", "topic", topic).increment();
+        log.error("☠️ Record aus '{}' nach {} Wiederholungen in das Dead-Letter-Topic verschoben: {}", topic, attempt(record), cause.getMessage());
+    }
+
+    /**
+     * Recoverer des {@code CommonErrorHandler} für Records, die der Listener-Container nicht zustellen konnte.
+     * Jeder Record wird in das Dead-Letter-Topic geleitet, nicht lesbare wie in den Batch-Listenern mit den
+     * ursprünglichen Bytes; übersprungen wird keiner. Ein Record, dessen Weiterleitung gescheitert ist, wird nicht
+     * als erledigt behandelt, sondern erneut zugestellt.
+     *
+     * @param record der Record
+     * @param cause  der Fehler
+     * @throws ForwardingException falls der Record nicht weitergeleitet werden konnte; er wird dann erneut
+     *     zugestellt
+     */
+    public void recover(final ConsumerRecord<?, ?> record, final Exception cause) {
+        if (isForwardingFailure(cause)) {
+            throw new ForwardingException(
+                "Record aus '" + record.topic() + "' nicht weitergeleitet, offset=" + record.offset(), cause
+            );
+        }
+        deadLetter(record, cause);
+    }
+
+    /**
+     * Verarbeitet einen Stapel aus Retry-Topics. Fällige Records werden verarbeitet und committet; beim ersten
+     * noch nicht fälligen Record einer Partition wird diese auf ihn zurückgesetzt und bis zur Fälligkeit
+     * pausiert, ebenso nach einem Fehler der Verarbeitung für {@code initial-delay}. Die Container-Factory muss Offsets dem Listener überlassen ({@code AckMode.MANUAL}).
+     *
+     * @param listenerId ID des Listeners
+     * @param records    die Records eines {@code poll()}
+     * @param consumer   der Consumer des Listeners
+     * @param action     verarbeitet einen Record und leitet ihn bei einem Fehler selbst weiter
+     * @param <V>        Typ der Payload
+     */
+    public <V> void drain(
+        final String listenerId,
+        final List<ConsumerRecord<String, V>> records,
+        final Consumer<?, ?> consumer,
+        final java.util.function.Consumer<ConsumerRecord<String, V>> action
+    ) {
+        final var offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+        final var deferred = new HashSet<TopicPartition>();
+        for (final var record : records) {
+            final var partition = new TopicPartition(record.topic(), record.partition());
+            if (deferred.contains(partition)) {
+                continue;
+            }
+            final var due = header(record.headers(), DUE_HEADER);
+            final var wait = due == null ? 0 : Long.parseLong(due) - System.currentTimeMillis();
+            if (wait > 0) {
+                deferred.add(partition);
+                defer(listenerId, consumer, record, wait);
+                continue;
+            }
+            try {
+                action.accept(record);
+            } catch (RuntimeException e) {
+                // z.B. Kafka beim Weiterleiten nicht erreichbar: Partition später ab diesem Record wiederholen
+                log.error("❌ Record aus '{}' nicht verarbeitet, neuer Versuch in {}", record.topic(), initialDelay, e);
+                deferred.add(partition);
+                defer(listenerId, consumer, record, initialDelay.toMillis());
+                continue;
+            }
+            offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+        }
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+    }
+
+    private void defer(final String listenerId, final Consumer<?, ?> consumer, final ConsumerRecord<?, ?> record, final long millis) {
+        final var partition = new TopicPartition(record.topic(), record.partition());
+        consumer.seek(partition, record.offset());
+        final var container = Objects.requireNonNull(registry.getListenerContainer(listenerId));
+        container.pausePartition(partition);
+        scheduler.schedule(() -> container.resumePartition(partition), millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Kopiert die Header eines Records aus dem Dead-Letter-Topic für das erneute Senden an das Haupt-Topic. Die
+     * Header des Originals bleiben erhalten, die der Weiterleitung entfallen. Die Typ-Header bleiben nur bei einer
+     * nicht lesbaren Payload erhalten, da sie dann unverändert weitergeleitet wird.
+     *
+     * @param record der Record
+     * @return Die Header
+     */
+    public static RecordHeaders replayHeaders(final ConsumerRecord<?, ?> record) {
+        final var raw = record.value() == null;
+        final var headers = new RecordHeaders();
+        for (final var header : record.headers()) {
+            if (!ROUTING_HEADERS.contains(header.key()) && (raw || !TYPE_HEADERS.contains(header.key()))) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Sucht die Exception des {@code ErrorHandlingDeserializer}, zuerst in der Ursache, dann im Header des Records.
+     *
+     * @return Die Exception mit den ursprünglichen Bytes oder {@code null}
+     */
+    private static DeserializationException deserializationException(final ConsumerRecord<?, ?> record, final Throwable cause) {
+        for (var current = cause; current != null; current = current.getCause()) {
+            if (current instanceof DeserializationException deserializationException && !deserializationException.isKey()) {
+                return deserializationException;
+            }
+        }
+        return SerializationUtils.getExceptionFromHeader(record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+    }
+
+    private RecordHeaders forwardHeaders(final ConsumerRecord<?, ?> record, final Exception cause) {
+        final var headers = replayHeaders(record);
+        if (headers.lastHeader(ORIGINAL_TOPIC_HEADER) == null) {
+            headers.add(header(ORIGINAL_TOPIC_HEADER, record.topic()));
+            headers.add(header(ORIGINAL_PARTITION_HEADER, Integer.toString(record.partition())));
+            headers.add(header(ORIGINAL_OFFSET_HEADER, Long.toString(record.offset())));
+        }
+        final var rootCause = rootCause(cause);
+        headers.add(header(EXCEPTION_HEADER, rootCause.getClass().getName()));
+        headers.add(header(EXCEPTION_MESSAGE_HEADER, Objects.toString(rootCause.getMessage(), "")));
+        return headers;
+    }
+
+    private void send(final String topic, final ConsumerRecord<?, ?> record, final Headers headers) {
+        final var producerRecord = new ProducerRecord<String, Object>(
+            topic, null, Objects.toString(record.key(), null), record.value(), headers
+        );
+        try {
+            kafkaTemplate.send(producerRecord).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ForwardingException("Weiterleiten an '" + topic + "' unterbrochen", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new ForwardingException("Weiterleiten an '" + topic + "' fehlgeschlagen", e);
+        }
+    }
+
+    /**
+     * Sendet die ursprünglichen Bytes ohne den {@code JsonSerializer} des {@link KafkaTemplate}.
+     */
+    private void sendRaw(final String topic, final ConsumerRecord<?, ?> record, final byte[] value, final Headers headers) {
+        final var producerRecord = new ProducerRecord<>(
+            topic, null, Objects.toString(record.key(), null), value, headers
+        );
+        try {
+            rawKafkaTemplate().send(producerRecord).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ForwardingException("Weiterleiten an '" + topic + "' unterbrochen", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new ForwardingException("Weiterleiten an '" + topic + "' fehlgeschlagen", e);
+        }
+    }
+
+    /**
+     * Legt beim ersten nicht lesbaren Record ein {@link KafkaTemplate} mit {@link ByteArraySerializer} auf Basis
+     * der Producer-Konfiguration des {@link KafkaTemplate} an.
+     */
+    @SuppressWarnings("unchecked")
+    private KafkaTemplate<String, byte[]> rawKafkaTemplate() {
+        var template = rawKafkaTemplate;
+        if (template == null) {
+            synchronized (this) {
+                template = rawKafkaTemplate;
+                if (template == null) {
+                    final var producerFactory = (ProducerFactory<String, byte[]>) (ProducerFactory<?, ?>) kafkaTemplate.getProducerFactory();
+                    template = new KafkaTemplate<>(producerFactory, Map.of(
+                        ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class
+                    ));
+                    rawKafkaTemplate = template;
+                }
+            }
+        }
+        return template;
+    }
+
+    private static boolean isRetryable(final Throwable cause) {
+        for (var current = cause; current != null; current = current.getCause()) {
+            final var type = current.getClass();
+            if (NOT_RETRYABLE.stream().anyMatch(notRetryable -> notRetryable.isAssignableFrom(type))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Throwable rootCause(final Throwable cause) {
+        var current = cause;
+        while (current.getCause() != null && current.getCause() != current) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    private static String header(final Headers headers, final String key) {
+        final var header = headers.lastHeader(key);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static Header header(final String key, final String value) {
+        return new RecordHeader(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ein Record konnte nicht in ein Retry- oder Dead-Letter-Topic weitergeleitet werden und muss erneut
+     * zugestellt werden.
+     */
+    public static class ForwardingException extends KafkaException {
+
+        public ForwardingException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
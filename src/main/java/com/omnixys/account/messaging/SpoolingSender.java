@@ -0,0 +1,335 @@
+package com.omnixys.account.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Versendet Events an Kafka und weicht bei Störungen auf den lokalen {@link EventSpool} aus.
+ * <p>
+ * Solange der Broker erreichbar ist und der Puffer des Producers weniger als {@code buffer-threshold} belegt
+ * ist, werden Events direkt gesendet. Schlägt ein Versand fehl oder steigt die Belegung über den Schwellwert,
+ * wird der Spool aktiv: neue Events werden dann nur noch angehängt, so dass kein aufrufender Thread im Producer
+ * blockiert und ihre Reihenfolge erhalten bleibt. Ein eigener Thread prüft alle {@code check-interval} die
+ * Belegung und spielt den Spool in Stapeln von {@code replay-batch-size} in Einfügereihenfolge ab, sobald der
+ * Broker wieder antwortet. Erst wenn der Spool leer ist, wird wieder direkt gesendet.
+ * </p>
+ * <p>
+ * Events, deren direkter Versand erst im Callback scheitert, werden nachträglich angehängt und können daher
+ * nach später gesendeten Events ankommen. Bestätigt werden nur die vorderen, erfolgreich gesendeten Einträge
+ * eines Stapels; nach einem Teilerfolg können Events daher doppelt ankommen (at-least-once). Ist der Spool
+ * voll, werden Events verworfen und gezählt. Metriken: {@code kafka.spool.active}, {@code kafka.spool.segments}, {@code kafka.spool.bytes},
+ * {@code kafka.spool.spooled}, {@code kafka.spool.replayed} und {@code kafka.spool.dropped}.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Slf4j
+@Component
+public class SpoolingSender implements SmartLifecycle {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaUtilService kafkaUtilService;
+    private final ObjectMapper objectMapper;
+    private final EventSpool spool;
+    private final double bufferThreshold;
+    private final long checkIntervalNanos;
+    private final long retryIntervalNanos;
+    private final int replayBatchSize;
+    private final Duration replayTimeout;
+
+    private final Counter spooled;
+    private final Counter replayed;
+    private final Counter dropped;
+
+    private volatile boolean spooling;
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile Metric bufferAvailable;
+    private volatile Metric bufferTotal;
+
+    /**
+     * Ein Event im Spool, zusammen mit allem, was für den erneuten Versand nötig ist.
+     */
+    record SpooledEvent(
+        String topic,
+        String operation,
+        String type,
+        JsonNode payload,
+        String traceId,
+        String spanId,
+        boolean sampled
+    ) {}
+
+    public SpoolingSender(
+        @Value("${app.kafka.spool.dir:./tmp/spool}") final Path directory,
+        @Value("${app.kafka.spool.segment-size:8388608}") final int segmentSize,
+        @Value("${app.kafka.spool.max-segments:32}") final int maxSegments,
+        @Value("${app.kafka.spool.buffer-threshold:0.8}") final double bufferThreshold,
+        @Value("${app.kafka.spool.check-interval:100ms}") final Duration checkInterval,
+        @Value("${app.kafka.spool.retry-interval:5s}") final Duration retryInterval,
+        @Value("${app.kafka.spool.replay-batch-size:500}") final int replayBatchSize,
+        @Value("${app.kafka.spool.replay-timeout:10s}") final Duration replayTimeout,
+        final KafkaTemplate<String, Object> kafkaTemplate,
+        final KafkaUtilService kafkaUtilService,
+        final ObjectMapper objectMapper,
+        final MeterRegistry meterRegistry
+    ) throws IOException {
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaUtilService = kafkaUtilService;
+        this.objectMapper = objectMapper;
+        this.spool = new EventSpool(directory, segmentSize, maxSegments);
+        this.bufferThreshold = bufferThreshold;
+        this.checkIntervalNanos = checkInterval.toNanos();
+        this.retryIntervalNanos = retryInterval.toNanos();
+        this.replayBatchSize = replayBatchSize;
+        this.replayTimeout = replayTimeout;
+        this.spooling = !spool.isEmpty();
+
+        Gauge.builder("kafka.spool.active", this, sender -> sender.spooling ? 1 : 0)
+            .description("1, solange Events in den Spool statt direkt an Kafka gehen")
+            .register(meterRegistry);
+        Gauge.builder("kafka.spool.segments", spool, EventSpool::segmentCount)
+            .description("Segmentdateien des Spools")
+            .register(meterRegistry);
+        Gauge.builder("kafka.spool.bytes", spool, EventSpool::pendingBytes)
+            .description("Noch nicht abgespielte Bytes im Spool")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        spooled = Counter.builder("kafka.spool.spooled")
+            .description("In den Spool geschriebene Events")
+            .register(meterRegistry);
+        replayed = Counter.builder("kafka.spool.replayed")
+            .description("Aus dem Spool an Kafka gesendete Events")
+            .register(meterRegistry);
+        dropped = Counter.builder("kafka.spool.dropped")
+            .description("Wegen vollem Spool verworfene Events")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Sendet ein Event direkt oder hängt es an den Spool an.
+     *
+     * @param topic       Ziel-Topic
+     * @param operation   Name der Aktion für den Header {@code x-event-type}
+     * @param payload     Event-Inhalt
+     * @param spanContext Span für den Header {@code traceparent}, optional
+     */
+    public void send(final String topic, final String operation, final Object payload, final SpanContext spanContext) {
+        if (spooling) {
+            spool(topic, operation, payload, spanContext);
+            return;
+        }
+        final var headers = kafkaUtilService.buildStandardHeaders(topic, operation, spanContext);
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(topic, null, null, null, payload, headers))
+                .whenComplete((_, e) -> {
+                    if (e != null) {
+                        spool(topic, operation, payload, spanContext);
+                        activate(e);
+                    }
+                });
+        } catch (Exception e) {
+            spool(topic, operation, payload, spanContext);
+            activate(e);
+        }
+    }
+
+    public boolean isSpooling() {
+        return spooling;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+            .name("kafka-spool")
+            .daemon()
+            .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final var thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(replayTimeout);
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        spool.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stoppt erst nach dem {@link LogShipper}, damit dessen letzte Events noch angenommen werden.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 500;
+    }
+
+    private void run() {
+        while (running) {
+            if (underPressure()) {
+                if (!spooling) {
+                    log.warn("⚠️ Kafka-Producer ausgelastet, Events werden lokal zwischengespeichert");
+                    spooling = true;
+                }
+            } else if (!spool.isEmpty()) {
+                if (!replay()) {
+                    LockSupport.parkNanos(this, retryIntervalNanos);
+                    continue;
+                }
+            } else if (spooling) {
+                log.info("✅ Spool abgespielt, Events werden wieder direkt an Kafka gesendet");
+                spooling = false;
+            }
+            LockSupport.parkNanos(this, checkIntervalNanos);
+        }
+    }
+
+    /**
+     * Spielt einen Stapel aus dem Spool ab.
+     *
+     * @return {@code false}, falls der Broker nicht erreichbar ist
+     */
+    private boolean replay() {
+        final var batch = spool.peek(replayBatchSize);
+        final var futures = new ArrayList<CompletableFuture<SendResult<String, Object>>>(batch.size());
+        for (final var data : batch) {
+            final ProducerRecord<String, Object> record;
+            try {
+                record = toRecord(objectMapper.readValue(data, SpooledEvent.class));
+            } catch (ClassNotFoundException | IOException e) {
+                if (!futures.isEmpty()) {
+                    break;
+                }
+                log.error("❌ Spool: Eintrag nicht lesbar und übersprungen", e);
+                spool.commit(1);
+                return true;
+            }
+            try {
+                futures.add(kafkaTemplate.send(record));
+            } catch (Exception e) {
+                log.warn("⚠️ Spool: Kafka nicht erreichbar: {}", e.getMessage());
+                break;
+            }
+        }
+
+        var sent = 0;
+        try {
+            for (final var future : futures) {
+                future.get(replayTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                sent++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("⚠️ Spool: Kafka nicht erreichbar, nächster Versuch in {} ms: {}",
+                TimeUnit.NANOSECONDS.toMillis(retryIntervalNanos), e.getMessage());
+        } finally {
+            spool.commit(sent);
+            replayed.increment(sent);
+        }
+        return sent == batch.size();
+    }
+
+    private ProducerRecord<String, Object> toRecord(final SpooledEvent event) throws ClassNotFoundException, IOException {
+        final var payload = objectMapper.treeToValue(event.payload(), Class.forName(event.type()));
+        final var headers = kafkaUtilService.buildStandardHeaders(event.topic(), event.operation(), spanContext(event));
+        return new ProducerRecord<>(event.topic(), null, null, null, payload, headers);
+    }
+
+    private void spool(final String topic, final String operation, final Object payload, final SpanContext spanContext) {
+        final var valid = spanContext != null && spanContext.isValid();
+        try {
+            final var data = objectMapper.writeValueAsBytes(new SpooledEvent(
+                topic,
+                operation,
+                payload.getClass().getName(),
+                objectMapper.valueToTree(payload),
+                valid ? spanContext.getTraceId() : null,
+                valid ? spanContext.getSpanId() : null,
+                valid && spanContext.isSampled()
+            ));
+            if (spool.append(data)) {
+                spooled.increment();
+            } else {
+                dropped.increment();
+            }
+        } catch (IOException e) {
+            dropped.increment();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void activate(final Throwable cause) {
+        if (!spooling) {
+            log.warn("⚠️ Kafka-Versand fehlgeschlagen, Events werden lokal zwischengespeichert: {}", cause.getMessage());
+            spooling = true;
+        }
+    }
+
+    private boolean underPressure() {
+        if (bufferAvailable == null || bufferTotal == null) {
+            kafkaTemplate.metrics().forEach((name, metric) -> {
+                if ("producer-metrics".equals(name.group())) {
+                    switch (name.name()) {
+                        case "buffer-available-bytes" -> bufferAvailable = metric;
+                        case "buffer-total-bytes" -> bufferTotal = metric;
+                        default -> { }
+                    }
+                }
+            });
+            if (bufferAvailable == null || bufferTotal == null) {
+                return false;
+            }
+        }
+        final var total = ((Number) bufferTotal.metricValue()).doubleValue();
+        final var available = ((Number) bufferAvailable.metricValue()).doubleValue();
+        return total > 0 && (total - available) / total > bufferThreshold;
+    }
+
+    private static SpanContext spanContext(final SpooledEvent event) {
+        if (event.traceId() == null || event.spanId() == null) {
+            return null;
+        }
+        return SpanContext.create(
+            event.traceId(),
+            event.spanId(),
+            event.sampled() ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+            TraceState.getDefault()
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package com.omnixys.account.models.dto;
+
+import com.omnixys.account.models.enums.AccountType;
+import com.omnixys.account.models.enums.StatusType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Schreibgeschützte, ggf. unvollständige Sicht auf ein Konto.
+ * <p>
+ * Es werden nur die Spalten gelesen, die der Client in der GraphQL-Query angefordert hat; alle übrigen
+ * Komponenten sind {@code null}. Die Sicht ist keine Entity und wird daher weder im Persistenzkontext
+ * verwaltet noch beim Flush auf Änderungen geprüft.
+ * </p>
+ */
+public record AccountView(
+    UUID id,
+    Integer version,
+    BigDecimal balance,
+    Double rateOfInterest,
+    AccountType category,
+    StatusType state,
+    BigDecimal overdraftLimit,
+    Integer transactionLimit,
+    LocalDateTime created,
+    LocalDateTime updated,
+    UUID userId,
+    String username
+) {
+    /**
+     * Attribute von {@code Account}, die als GraphQL-Felder gleichen Namens projiziert werden können.
+     */
+    public static final Set<String> ATTRIBUTES = Set.of(
+        "id", "version", "balance", "rateOfInterest", "category", "state", "overdraftLimit",
+        "transactionLimit", "created", "updated", "userId", "username"
+    );
+}
@@ -0,0 +1,26 @@
+package com.omnixys.account.models.dto;
+
+import com.omnixys.account.models.enums.PostingStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Ergebnis einer einzelnen Buchung innerhalb eines Buchungsstapels.
+ *
+ * @param index     Position der Buchung in der Eingabe
+ * @param accountId ID des Kontos
+ * @param amount    gebuchter Betrag
+ * @param reference Referenz des Aufrufers
+ * @param status    Ergebnis der Buchung
+ * @param balance   Saldo des Kontos nach dem Stapel, falls gebucht
+ */
+public record PostingResultDTO(
+    int index,
+    UUID accountId,
+    BigDecimal amount,
+    String reference,
+    PostingStatus status,
+    BigDecimal balance
+) {
+}
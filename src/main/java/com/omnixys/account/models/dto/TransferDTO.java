@@ -0,0 +1,18 @@
+package com.omnixys.account.models.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Ergebnis einer Überweisung zwischen zwei Konten.
+ *
+ * @param transactionId ID des Journaleintrags
+ * @param fromBalance   neuer Saldo des belasteten Kontos
+ * @param toBalance     neuer Saldo des begünstigten Kontos
+ */
+public record TransferDTO(
+    UUID transactionId,
+    BigDecimal fromBalance,
+    BigDecimal toBalance
+) {
+}
@@ -2,6 +2,7 @@ package com.omnixys.account.models.entities;
 
 import com.omnixys.account.models.enums.AccountType;
 import com.omnixys.account.models.enums.StatusType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -16,6 +17,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -23,8 +25,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+
 @Entity
 @Table(name = "account")
+@Cacheable
+@Cache(usage = READ_WRITE, region = "account")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -0,0 +1,78 @@
+package com.omnixys.account.models.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Noch nicht an Kafka gesendetes Event in der Outbox.
+ * <p>
+ * Das Event wird in der Transaktion der fachlichen Änderung geschrieben und vom
+ * {@link com.omnixys.account.messaging.OutboxRelay} nach dem Versand gelöscht. Die ID ist eine zeitlich
+ * sortierbare UUID und bestimmt die Versandreihenfolge.
+ * </p>
+ */
+@Entity
+@Immutable
+@Table(name = "outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OutboxEvent implements Persistable<UUID> {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    private String topic;
+    @Column(nullable = false, updatable = false)
+    private String operation;
+
+    /**
+     * Vollqualifizierter Klassenname des Events, in den {@link #payload} beim Versand gelesen wird.
+     */
+    @Column(nullable = false, updatable = false)
+    private String type;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, updatable = false)
+    private String payload;
+
+    @Column(updatable = false)
+    private String traceId;
+    @Column(updatable = false)
+    private String spanId;
+    @Column(updatable = false)
+    private boolean sampled;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime created;
+
+    /**
+     * Outbox-Einträge werden nie aktualisiert, sondern immer neu angelegt.
+     *
+     * @return immer {@code true}
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
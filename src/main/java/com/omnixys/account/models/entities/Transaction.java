@@ -4,7 +4,6 @@ import com.omnixys.account.models.enums.TransactionType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -14,13 +13,24 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static jakarta.persistence.EnumType.STRING;
 
+/**
+ * Unveränderlicher Eintrag im Buchungsjournal.
+ * <p>
+ * Pro Saldobewegung wird genau ein Eintrag geschrieben. Die ID wird vor dem Speichern als zeitlich sortierbare
+ * UUID vergeben, daher ist jeder Eintrag neu und wird ohne vorheriges SELECT per Batch eingefügt.
+ * </p>
+ */
 @Entity
+@Immutable
 @Table(name = "transaction")
 @Getter
 @Setter
@@ -28,19 +38,32 @@ import static jakarta.persistence.EnumType.STRING;
 @AllArgsConstructor
 @Builder
 @ToString
-public class Transaction {
+public class Transaction implements Persistable<UUID> {
     @Id
-    @GeneratedValue
     private UUID id;
 
     @Enumerated(STRING)
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private TransactionType transactionType;
 
-    private int amount;
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount;
+    @Column(updatable = false)
     private UUID sender;
+    @Column(updatable = false)
     private UUID recipient;
 
     @CreationTimestamp
+    @Column(updatable = false)
     private LocalDateTime transactionDate;
+
+    /**
+     * Journaleinträge werden nie aktualisiert, sondern immer neu angelegt.
+     *
+     * @return immer {@code true}
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
 }
@@ -0,0 +1,19 @@
+package com.omnixys.account.models.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ausgabeformate des Kontoexports.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    /** Ein JSON-Objekt pro Zeile. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Kommagetrennte Werte mit Kopfzeile nach RFC 4180. */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+}
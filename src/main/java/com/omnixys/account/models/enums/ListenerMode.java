@@ -0,0 +1,13 @@
+package com.omnixys.account.models.enums;
+
+/**
+ * Verarbeitungsmodus eines Kafka-Topics in {@link com.omnixys.account.messaging.KafkaConsumerService}.
+ */
+public enum ListenerMode {
+    /** Ein Record nach dem anderen je Partition. */
+    RECORD,
+    /** Alle Records eines {@code poll()} gemeinsam in einer Transaktion. */
+    BATCH,
+    /** Records einer Partition parallel, aber je Schlüssel (Benutzer) in Reihenfolge. */
+    PARALLEL
+}
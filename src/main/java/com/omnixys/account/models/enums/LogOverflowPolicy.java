@@ -0,0 +1,11 @@
+package com.omnixys.account.models.enums;
+
+/**
+ * Verhalten des Log-Versands, wenn der Puffer für Log-Events voll ist.
+ */
+public enum LogOverflowPolicy {
+    /** Das neue Event wird verworfen und gezählt; der aufrufende Thread wartet nie. */
+    DROP,
+    /** Der aufrufende Thread wartet höchstens {@code block-timeout} auf einen freien Platz, danach wird verworfen. */
+    BLOCK
+}
@@ -0,0 +1,11 @@
+package com.omnixys.account.models.enums;
+
+/**
+ * Verhalten eines Buchungsstapels, wenn einzelne Konten nicht gebucht werden können.
+ */
+public enum PostingMode {
+    /** Der Stapel wird nur gebucht, wenn alle Konten gebucht werden können. */
+    ALL_OR_NOTHING,
+    /** Alle buchbaren Konten werden gebucht, die übrigen abgelehnt. */
+    BEST_EFFORT
+}
@@ -0,0 +1,15 @@
+package com.omnixys.account.models.enums;
+
+/**
+ * Ergebnis einer einzelnen Buchung innerhalb eines Buchungsstapels.
+ */
+public enum PostingStatus {
+    /** Die Buchung wurde durchgeführt. */
+    APPLIED,
+    /** Der Nettobetrag des Kontos hätte das Dispolimit überschritten. */
+    INSUFFICIENT_FUNDS,
+    /** Das Konto existiert nicht. */
+    NOT_FOUND,
+    /** Die Buchung war gültig, wurde aber wegen eines anderen Fehlers im Stapel nicht durchgeführt. */
+    ROLLED_BACK
+}
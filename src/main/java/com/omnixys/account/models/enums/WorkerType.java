@@ -0,0 +1,11 @@
+package com.omnixys.account.models.enums;
+
+/**
+ * Art der Threads, auf denen parallel konsumierte Kafka-Records verarbeitet werden.
+ */
+public enum WorkerType {
+    /** Fester Pool aus {@code pool-size} Plattform-Threads. */
+    POOL,
+    /** Ein virtueller Thread je Record; die Parallelität begrenzt nur {@code max-in-flight}. */
+    VIRTUAL
+}
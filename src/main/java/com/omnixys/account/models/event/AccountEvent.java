@@ -0,0 +1,29 @@
+package com.omnixys.account.models.event;
+
+import com.omnixys.account.models.entities.Account;
+
+import java.util.UUID;
+
+/**
+ * Fachliches Event zu einer Änderung an einem Konto, versendet über die Outbox.
+ *
+ * @param id       ID des Kontos
+ * @param userId   ID des zugehörigen Benutzers, bei gelöschten Konten {@code null}
+ * @param username Benutzername des Kontos
+ * @param type     Art der Änderung
+ */
+public record AccountEvent(
+    UUID id,
+    UUID userId,
+    String username,
+    AccountEventType type
+) {
+    public static AccountEvent fromEntity(final Account account, final AccountEventType type) {
+        return new AccountEvent(
+            account.getId(),
+            account.getUserId(),
+            account.getUsername(),
+            type
+        );
+    }
+}
@@ -1,5 +1,5 @@
 package com.omnixys.account.models.event;
 
 public enum AccountEventType {
-    CREATED, DELETED, DISABLED, PASSWORD_CHANGED
+    CREATED, UPDATED, DELETED, DISABLED, PASSWORD_CHANGED
 }
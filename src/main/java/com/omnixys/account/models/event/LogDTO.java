@@ -16,6 +16,7 @@ import java.util.UUID;
  * @param spanId      Optionaler Span-Identifier (falls verfügbar)
  * @param user        Optional: Benutzername oder technische ID
  * @param environment Umgebung (z.B. "dev", "prod", "staging")
+ * @param count       Anzahl gleichartiger Events, die dieses Event zusammenfasst (1 für ein einzelnes Event)
  */
 public record LogDTO(
     UUID id,
@@ -27,5 +28,6 @@ public record LogDTO(
     String traceId,
     String spanId,
     String user,
-    String environment
+    String environment,
+    long count
 ) {}
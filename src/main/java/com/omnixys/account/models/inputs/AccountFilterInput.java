@@ -0,0 +1,22 @@
+package com.omnixys.account.models.inputs;
+
+import com.omnixys.account.models.enums.AccountType;
+import com.omnixys.account.models.enums.StatusType;
+
+import java.util.UUID;
+
+/**
+ * Optionale Filterkriterien für die seitenweise Kontosuche. Nicht gesetzte Felder werden ignoriert.
+ *
+ * @param category Kontoart
+ * @param state    Kontostatus
+ * @param username Benutzername des Kontoinhabers
+ * @param userId   ID des Kontoinhabers
+ */
+public record AccountFilterInput(
+    AccountType category,
+    StatusType state,
+    String username,
+    UUID userId
+) {
+}
@@ -0,0 +1,18 @@
+package com.omnixys.account.models.inputs;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Eine einzelne Buchung innerhalb eines Buchungsstapels.
+ *
+ * @param accountId ID des Kontos
+ * @param amount    zu buchender Betrag (negativ für Abbuchungen)
+ * @param reference optionale Referenz des Aufrufers, wird unverändert zurückgegeben
+ */
+public record PostingInput(
+    UUID accountId,
+    BigDecimal amount,
+    String reference
+) {
+}
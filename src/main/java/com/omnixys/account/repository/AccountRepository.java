@@ -1,17 +1,31 @@
 package com.omnixys.account.repository;
 
 import com.omnixys.account.models.entities.Account;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_STORE_MODE;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, UUID>, JpaSpecificationExecutor<Account> {
+public interface AccountRepository
+    extends JpaRepository<Account, UUID>, JpaSpecificationExecutor<Account>, AccountRepositoryCustom {
     @NonNull
     @Override
     List<Account> findAll();
@@ -21,9 +35,75 @@ public interface AccountRepository extends JpaRepository<Account, UUID>, JpaSpec
     Optional<Account> findById(@NonNull UUID id);
 
     @NonNull
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Account>  findByUsername(@NonNull String username);
 
+    /**
+     * Liest nur die IDs der Konten eines Benutzers. Durch den Index {@code idx_account_username} genügt ein
+     * Index-Only-Scan. Das Ergebnis wird bewusst nicht im Query-Cache abgelegt: es wird bereits vom
+     * {@code UsernameAccountsCache} mit kurzer Lebensdauer für leere Ergebnisse gecacht.
+     *
+     * @param username der Benutzername
+     * @return Die IDs der Konten, ggf. leer
+     */
+    @NonNull
+    @Query("SELECT a.id FROM Account a WHERE a.username = :username")
+    List<UUID> findIdsByUsername(@NonNull @Param("username") String username);
+
+    /**
+     * Liest nur den Benutzernamen des Inhabers eines Kontos, z.B. für die Prüfung der Berechtigung.
+     *
+     * @param id ID des Kontos
+     * @return Der Benutzername oder leer, falls das Konto nicht existiert
+     */
+    @Query("SELECT a.username FROM Account a WHERE a.id = :id")
+    Optional<String> findUsernameById(@Param("id") UUID id);
+
     @NonNull
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Account>  findByUserId(@NonNull UUID customerId);
-}
 
+    /**
+     * Bucht einen Betrag atomar in der Datenbank auf ein Konto.
+     * <p>
+     * Abbuchungen erfolgen nur, wenn der neue Saldo das Dispolimit nicht unterschreitet; Gutschriften werden
+     * immer gebucht. Die Entity wird dabei weder geladen noch in den Persistenzkontext übernommen; die
+     * Versionsnummer wird trotzdem erhöht, damit nachfolgende Updates mit veralteter Version weiterhin erkannt
+     * werden.
+     * </p>
+     *
+     * @param id     ID des Kontos
+     * @param amount zu buchender Betrag (negativ für Abbuchungen)
+     * @return Der neue Saldo oder leer, falls das Konto nicht existiert oder das Dispolimit überschritten würde
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE account
+        SET balance = COALESCE(balance, 0) + :amount, version = version + 1, updated = LOCALTIMESTAMP
+        WHERE id = :id AND (:amount >= 0 OR COALESCE(balance, 0) + :amount >= -COALESCE(overdraft_limit, 0))
+        RETURNING balance
+        """, nativeQuery = true)
+    Optional<BigDecimal> addToBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Liest alle Konten als Stream in der Reihenfolge {@code created, id}.
+     * <p>
+     * Innerhalb einer Transaktion verwendet der PostgreSQL-Treiber wegen der Fetch-Size einen serverseitigen
+     * Cursor und hält nur jeweils einen Block von Zeilen im Speicher. Die Entities werden ohne Snapshot für das
+     * Dirty-Checking geladen und weder aus dem Second-Level-Cache gelesen noch dort abgelegt, damit ein Export
+     * die häufig gelesenen Konten nicht verdrängt; der Aufrufer muss sie nach der Verarbeitung aus dem
+     * Persistenzkontext lösen und den Stream schließen.
+     * </p>
+     *
+     * @return Stream über alle Konten
+     */
+    @Query("SELECT a FROM Account a ORDER BY a.created, a.id")
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false"),
+        @QueryHint(name = HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+        @QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    Stream<Account> streamAll();
+}
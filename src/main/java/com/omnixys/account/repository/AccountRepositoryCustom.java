@@ -0,0 +1,79 @@
+package com.omnixys.account.repository;
+
+import com.omnixys.account.models.dto.AccountView;
+import com.omnixys.account.models.entities.Account;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+
+/**
+ * Mengenbasierte Operationen und Projektionen auf Konten, die am Persistenzkontext vorbei ausgeführt werden.
+ * <p>
+ * Die Methoden laufen in der Transaktion des Aufrufers und umgehen den Persistenzkontext. Bereits geladene
+ * Entities werden dadurch nicht aktualisiert.
+ * </p>
+ */
+public interface AccountRepositoryCustom {
+
+    /**
+     * Sperrt die angegebenen Konten in der Reihenfolge ihrer IDs ({@code SELECT ... ORDER BY id FOR UPDATE}) und
+     * liest Saldo und Dispolimit.
+     *
+     * @param ids IDs der Konten
+     * @return Die gesperrten Konten; nicht vorhandene IDs fehlen im Ergebnis
+     */
+    List<LockedBalance> lockBalances(Collection<UUID> ids);
+
+    /**
+     * Bucht die Beträge als ein JDBC-Batch auf die Konten. Die Statements werden in der Reihenfolge der Map
+     * ausgeführt.
+     *
+     * @param deltas Betrag je Konto-ID
+     */
+    void addToBalances(SortedMap<UUID, BigDecimal> deltas);
+
+    /**
+     * Liest nur die angegebenen Attribute der Konten als {@link AccountView}, sortiert nach {@code created, id}.
+     * Statt vollständiger Entities werden Tupel gelesen, so dass weder Snapshots für das Dirty-Checking noch
+     * nicht benötigte Spalten übertragen werden.
+     *
+     * @param attributes zu lesende Attribute aus {@link AccountView#ATTRIBUTES}; {@code id} wird immer gelesen
+     * @param spec       Suchkriterien
+     * @return Die Sichten auf die gefundenen Konten
+     */
+    List<AccountView> findViews(Set<String> attributes, Specification<Account> spec);
+
+    /**
+     * Löscht alle Konten der angegebenen Benutzer mit einem einzigen {@code DELETE ... RETURNING}, ohne die
+     * Entities zu laden und ohne Prüfung der Version.
+     *
+     * @param userIds   IDs der Benutzer
+     * @param usernames Benutzernamen
+     * @return ID und Benutzername der gelöschten Konten
+     */
+    List<DeletedAccount> deleteByUserIdsOrUsernames(Collection<UUID> userIds, Collection<String> usernames);
+
+    /**
+     * Saldo und Dispolimit eines gesperrten Kontos.
+     *
+     * @param id             ID des Kontos
+     * @param balance        aktueller Saldo
+     * @param overdraftLimit Dispolimit
+     */
+    record LockedBalance(UUID id, BigDecimal balance, BigDecimal overdraftLimit) {
+    }
+
+    /**
+     * Ein gelöschtes Konto.
+     *
+     * @param id       ID des Kontos
+     * @param username Benutzername des Kontos
+     */
+    record DeletedAccount(UUID id, String username) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.omnixys.account.repository;
+
+import com.omnixys.account.models.dto.AccountView;
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.enums.AccountType;
+import com.omnixys.account.models.enums.StatusType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+
+/**
+ * Implementierung von {@link AccountRepositoryCustom}. Das {@link JdbcTemplate} nutzt dieselbe Connection
+ * wie die laufende JPA-Transaktion; Projektionen werden als Criteria-Query mit Tupel-Ergebnis ausgeführt.
+ */
+@RequiredArgsConstructor
+class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    private static final String LOCK_BALANCES = """
+        SELECT id, balance, overdraft_limit
+        FROM account
+        WHERE id = ANY (?)
+        ORDER BY id
+        FOR UPDATE
+        """;
+
+    private static final String ADD_TO_BALANCE = """
+        UPDATE account
+        SET balance = COALESCE(balance, 0) + ?, version = version + 1, updated = LOCALTIMESTAMP
+        WHERE id = ?
+        """;
+
+    private static final String DELETE_BY_USER = """
+        DELETE FROM account
+        WHERE user_id = ANY (?) OR username = ANY (?)
+        RETURNING id, username
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<LockedBalance> lockBalances(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            LOCK_BALANCES,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+            (rs, _) -> new LockedBalance(
+                rs.getObject("id", UUID.class),
+                Objects.requireNonNullElse(rs.getBigDecimal("balance"), BigDecimal.ZERO),
+                Objects.requireNonNullElse(rs.getBigDecimal("overdraft_limit"), BigDecimal.ZERO)
+            )
+        );
+    }
+
+    @Override
+    public void addToBalances(final SortedMap<UUID, BigDecimal> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_TO_BALANCE, deltas.entrySet(), deltas.size(), (ps, delta) -> {
+            ps.setBigDecimal(1, delta.getValue());
+            ps.setObject(2, delta.getKey());
+        });
+    }
+
+    @Override
+    public List<DeletedAccount> deleteByUserIdsOrUsernames(final Collection<UUID> userIds, final Collection<String> usernames) {
+        if (userIds.isEmpty() && usernames.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            DELETE_BY_USER,
+            ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("uuid", userIds.toArray()));
+                ps.setArray(2, ps.getConnection().createArrayOf("varchar", usernames.toArray()));
+            },
+            (rs, _) -> new DeletedAccount(rs.getObject("id", UUID.class), rs.getString("username"))
+        );
+    }
+
+    @Override
+    public List<AccountView> findViews(final Set<String> attributes, final Specification<Account> spec) {
+        final var selected = new LinkedHashSet<String>();
+        selected.add("id");
+        attributes.stream().filter(AccountView.ATTRIBUTES::contains).forEach(selected::add);
+
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createTupleQuery();
+        final var root = query.from(Account.class);
+        query.select(builder.tuple(selected.stream()
+            .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+            .toList()));
+        final var predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(builder.asc(root.get("created")), builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+            .getResultStream()
+            .map(tuple -> toView(tuple, selected))
+            .toList();
+    }
+
+    private static AccountView toView(final Tuple tuple, final Set<String> selected) {
+        return new AccountView(
+            tuple.get("id", UUID.class),
+            value(tuple, selected, "version", Integer.class),
+            value(tuple, selected, "balance", BigDecimal.class),
+            value(tuple, selected, "rateOfInterest", Double.class),
+            value(tuple, selected, "category", AccountType.class),
+            value(tuple, selected, "state", StatusType.class),
+            value(tuple, selected, "overdraftLimit", BigDecimal.class),
+            value(tuple, selected, "transactionLimit", Integer.class),
+            value(tuple, selected, "created", LocalDateTime.class),
+            value(tuple, selected, "updated", LocalDateTime.class),
+            value(tuple, selected, "userId", UUID.class),
+            value(tuple, selected, "username", String.class)
+        );
+    }
+
+    private static <T> T value(final Tuple tuple, final Set<String> selected, final String alias, final Class<T> type) {
+        return selected.contains(alias) ? tuple.get(alias, type) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.omnixys.account.repository;
+
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.inputs.AccountFilterInput;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Baut {@link Specification}s für Konten aus Filterkriterien.
+ *
+ * @since 17.10.2026
+ */
+public final class AccountSpecifications {
+
+    private AccountSpecifications() {
+    }
+
+    /**
+     * Verknüpft alle gesetzten Kriterien mit {@code AND}.
+     *
+     * @param filter die Filterkriterien oder {@code null}
+     * @return Die Specification; ohne Kriterien werden alle Konten gefunden
+     */
+    public static Specification<Account> from(final AccountFilterInput filter) {
+        Specification<Account> spec = (_, _, builder) -> builder.conjunction();
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.category() != null) {
+            spec = spec.and((root, _, builder) -> builder.equal(root.get("category"), filter.category()));
+        }
+        if (filter.state() != null) {
+            spec = spec.and((root, _, builder) -> builder.equal(root.get("state"), filter.state()));
+        }
+        if (filter.username() != null) {
+            spec = spec.and((root, _, builder) -> builder.equal(root.get("username"), filter.username()));
+        }
+        if (filter.userId() != null) {
+            spec = spec.and((root, _, builder) -> builder.equal(root.get("userId"), filter.userId()));
+        }
+        return spec;
+    }
+}
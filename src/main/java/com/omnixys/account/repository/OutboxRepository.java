@@ -0,0 +1,59 @@
+package com.omnixys.account.repository;
+
+import com.omnixys.account.models.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Sperrt die ältesten Events für den Versand.
+     * <p>
+     * Von einer anderen Instanz gesperrte Zeilen werden übersprungen, so dass mehrere Pods gleichzeitig
+     * disjunkte Stapel versenden. Die Sperre hält bis zum Ende der Transaktion.
+     * </p>
+     *
+     * @param limit maximale Anzahl der Events
+     * @return Die gesperrten Events in ID-Reihenfolge
+     */
+    @Query(value = "SELECT * FROM outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNext(@Param("limit") int limit);
+
+    /**
+     * Löscht versendete Events mit einem einzigen Statement.
+     *
+     * @param ids IDs der Events
+     * @return Anzahl der gelöschten Events
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Verschiebt ein nicht lesbares Event mit einem einzigen Statement in die Tabelle {@code outbox_failed}, damit
+     * es bei {@link #lockNext} keinen Platz im Stapel mehr belegt.
+     *
+     * @param id    ID des Events
+     * @param error Grund, warum das Event nicht gelesen werden konnte
+     * @return Anzahl der verschobenen Events
+     */
+    @Modifying
+    @Query(value = """
+        WITH moved AS (
+            DELETE FROM outbox WHERE id = :id
+            RETURNING id, topic, operation, type, payload, trace_id, span_id, sampled, created
+        )
+        INSERT INTO outbox_failed (id, topic, operation, type, payload, trace_id, span_id, sampled, created, error, failed)
+        SELECT id, topic, operation, type, payload, trace_id, span_id, sampled, created, :error, LOCALTIMESTAMP
+        FROM moved
+        """, nativeQuery = true)
+    int moveToFailed(@Param("id") UUID id, @Param("error") String error);
+}
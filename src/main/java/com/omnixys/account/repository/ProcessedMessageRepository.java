@@ -0,0 +1,142 @@
+package com.omnixys.account.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Persistenter Index der bereits verarbeiteten Kafka-Nachrichten für idempotente Consumer.
+ * <p>
+ * Die Methoden laufen in der Transaktion des Aufrufers. Ein Schlüssel wird mit {@link #claim(String)} bzw.
+ * {@link #claimAll(Collection)} in derselben Transaktion wie die Verarbeitung der Nachricht eingetragen; der
+ * Primärschlüssel verhindert so auch bei parallelen Zustellungen eine doppelte Verarbeitung.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProcessedMessageRepository {
+
+    private static final String EXISTS = "SELECT EXISTS (SELECT 1 FROM processed_message WHERE message_key = ?)";
+
+    private static final String FIND_EXISTING = "SELECT message_key FROM processed_message WHERE message_key = ANY (?)";
+
+    private static final String CLAIM = """
+        INSERT INTO processed_message (message_key, processed)
+        VALUES (?, LOCALTIMESTAMP)
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String CLAIM_ALL = """
+        INSERT INTO processed_message (message_key, processed)
+        SELECT message_key, LOCALTIMESTAMP FROM unnest(?) AS message_key
+        ON CONFLICT DO NOTHING
+        RETURNING message_key
+        """;
+
+    private static final String FIND_SINCE = """
+        SELECT message_key FROM processed_message
+        WHERE processed >= LOCALTIMESTAMP - (? * INTERVAL '1 second')
+        """;
+
+    private static final String DELETE_EXPIRED = """
+        DELETE FROM processed_message
+        WHERE message_key IN (
+            SELECT message_key FROM processed_message
+            WHERE processed < LOCALTIMESTAMP - (? * INTERVAL '1 second')
+            LIMIT ?
+        )
+        """;
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param key Schlüssel der Nachricht
+     * @return {@code true}, falls die Nachricht bereits verarbeitet wurde
+     */
+    public boolean exists(final String key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS, Boolean.class, key));
+    }
+
+    /**
+     * @param keys Schlüssel der Nachrichten
+     * @return Die bereits verarbeiteten Schlüssel
+     */
+    public Set<String> findExisting(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+            FIND_EXISTING,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", keys.toArray())),
+            (rs, _) -> rs.getString(1)
+        ));
+    }
+
+    /**
+     * Trägt eine Nachricht als verarbeitet ein. Ist der Schlüssel von einer parallelen, noch offenen Transaktion
+     * eingetragen, wartet das Statement auf deren Ende.
+     *
+     * @param key Schlüssel der Nachricht
+     * @return {@code false}, falls die Nachricht bereits eingetragen ist
+     */
+    public boolean claim(final String key) {
+        return jdbcTemplate.update(CLAIM, key) == 1;
+    }
+
+    /**
+     * Trägt mehrere Nachrichten mit einem Statement als verarbeitet ein.
+     *
+     * @param keys Schlüssel der Nachrichten
+     * @return Die neu eingetragenen Schlüssel; bereits eingetragene fehlen
+     */
+    public List<String> claimAll(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            CLAIM_ALL,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", keys.toArray())),
+            (rs, _) -> rs.getString(1)
+        );
+    }
+
+    /**
+     * Liest die Schlüssel der Nachrichten, die innerhalb des Zeitraums verarbeitet wurden. In einer Transaktion
+     * liest der Treiber blockweise über einen serverseitigen Cursor.
+     *
+     * @param age    Zeitraum bis jetzt
+     * @param action wird je Schlüssel aufgerufen
+     */
+    public void forEachSince(final Duration age, final Consumer<String> action) {
+        jdbcTemplate.query(
+            connection -> {
+                final var statement = connection.prepareStatement(FIND_SINCE);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, age.toSeconds());
+                return statement;
+            },
+            (RowCallbackHandler) rs -> action.accept(rs.getString(1))
+        );
+    }
+
+    /**
+     * Löscht höchstens {@code limit} Einträge, die älter als {@code ttl} sind.
+     *
+     * @param ttl   Aufbewahrungsdauer
+     * @param limit maximale Anzahl
+     * @return Anzahl der gelöschten Einträge
+     */
+    public int deleteExpired(final Duration ttl, final int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED, ttl.toSeconds(), limit);
+    }
+}
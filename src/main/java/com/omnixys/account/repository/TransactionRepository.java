@@ -0,0 +1,48 @@
+package com.omnixys.account.repository;
+
+import com.omnixys.account.models.entities.Transaction;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+
+    /**
+     * Liest die Buchungen eines Kontos in einem Zeitraum, sortiert nach Buchungszeitpunkt.
+     * <p>
+     * Die Abfrage nutzt die Indexe auf {@code (sender, transaction_date)} und {@code (recipient, transaction_date)}.
+     * </p>
+     *
+     * @param account ID des Kontos (Sender oder Empfänger)
+     * @param from    Beginn des Zeitraums (inklusive)
+     * @param to      Ende des Zeitraums (exklusive)
+     * @param limit   maximale Anzahl der Einträge
+     * @return Die gefundenen Buchungen
+     */
+    @NonNull
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT t FROM Transaction t
+        WHERE (t.sender = :account OR t.recipient = :account)
+          AND t.transactionDate >= :from AND t.transactionDate < :to
+        ORDER BY t.transactionDate, t.id
+        """)
+    List<Transaction> findByAccountAndPeriod(
+        @Param("account") UUID account,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        Limit limit
+    );
+}
@@ -0,0 +1,61 @@
+package com.omnixys.account.resolvers;
+
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.security.CustomUserDetails;
+import com.omnixys.account.service.AccountReadService;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.federation.EntityMapping;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Löst Federation-Referenzen auf {@code Account} für das Gateway auf ({@code _entities}).
+ * <p>
+ * Alle Referenzen einer Ausführung werden über einen {@link DataLoader} gesammelt und gemeinsam mit einer
+ * einzigen Abfrage geladen. Doppelte IDs werden nur einmal geladen; die Reihenfolge der Ergebnisse entspricht
+ * der Reihenfolge der Referenzen. Nicht gefundene Konten meldet Spring GraphQL je Referenz als Fehler.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Controller
+public class AccountEntityResolver {
+    private final AccountReadService accountReadService;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    public AccountEntityResolver(
+        final AccountReadService accountReadService,
+        final BatchLoaderRegistry registry,
+        final LoggerPlusFactory factory
+    ) {
+        this.accountReadService = accountReadService;
+        this.factory = factory;
+        registry.forTypePair(UUID.class, Account.class).registerMappedBatchLoader((ids, _) -> {
+            logger().debug("batchLoad: ids={}", ids.size());
+            return Mono.fromCallable(() -> accountReadService.findAllById(ids));
+        });
+    }
+
+    @EntityMapping("Account")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
+    Mono<Account> account(
+        @Argument final UUID id,
+        final DataLoader<UUID, Account> loader,
+        final Authentication authentication
+    ) {
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        return Mono.fromFuture(loader.load(id))
+            .doOnNext(account -> accountReadService.checkAccess(account, user));
+    }
+}
@@ -1,12 +1,18 @@
 package com.omnixys.account.resolvers;
 
 import com.omnixys.account.exceptions.AccessForbiddenException;
+import com.omnixys.account.exceptions.InsufficientFundsException;
 import com.omnixys.account.exceptions.NotFoundException;
 import com.omnixys.account.exceptions.VersionAheadException;
 import com.omnixys.account.exceptions.VersionOutdatedException;
+import com.omnixys.account.messaging.DeadLetterReplayService;
 import com.omnixys.account.messaging.KafkaPublisherService;
+import com.omnixys.account.models.dto.PostingResultDTO;
+import com.omnixys.account.models.dto.TransferDTO;
 import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.enums.PostingMode;
 import com.omnixys.account.models.inputs.CreateAccountInput;
+import com.omnixys.account.models.inputs.PostingInput;
 import com.omnixys.account.models.inputs.UpdateAccountInput;
 import com.omnixys.account.models.mapper.AccountMapper;
 import com.omnixys.account.security.CustomUserDetails;
@@ -21,13 +27,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import static com.omnixys.account.exceptions.CustomErrorType.PRECONDITION_FAILED;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
 import static org.springframework.graphql.execution.ErrorType.FORBIDDEN;
 import static org.springframework.graphql.execution.ErrorType.NOT_FOUND;
 
@@ -38,6 +47,7 @@ public class AccountMutationResolver {
   private final AccountWriteService accountWriteService;
   private final AccountMapper accountMapper;
   private final KafkaPublisherService kafkaPublisherService;
+  private final DeadLetterReplayService deadLetterReplayService;
   private final LoggerPlusFactory factory;
   private LoggerPlus logger() {
     return factory.getLogger(getClass());
@@ -93,12 +103,66 @@ public class AccountMutationResolver {
       @Argument final UUID id,
       @Argument final BigDecimal balance
   ) {
-    logger().debug("deleteAccount: id={}, balance={}", id, balance);
+    logger().debug("updateBalance: id={}, balance={}", id, balance);
     final var newBalance = accountWriteService.updateBalance(id, balance);
     logger().debug("updateBalance: balance={}", newBalance);
     return newBalance;
   }
 
+  @MutationMapping("transfer")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public TransferDTO transfer(
+      @Argument final UUID from,
+      @Argument final UUID to,
+      @Argument final BigDecimal amount,
+      final Authentication authentication
+  ) {
+    logger().debug("transfer: from={}, to={}, amount={}", from, to, amount);
+    final var user = (CustomUserDetails) authentication.getPrincipal();
+    final var result = accountWriteService.transfer(from, to, amount, user);
+    logger().debug("transfer: result={}", result);
+    return result;
+  }
+
+  /**
+   * Bucht einen Stapel von Buchungen auf beliebigen Konten, z.B. für Gehalts- und Abrechnungsläufe. Da die
+   * Buchungen fremde Konten belasten können, ist die Mutation Admins vorbehalten.
+   *
+   * @param postings die Buchungen
+   * @param mode     Verhalten bei abgelehnten Konten
+   * @return Das Ergebnis je Buchung in der Reihenfolge der Eingabe
+   */
+  @MutationMapping("applyPostings")
+  @PreAuthorize("hasRole('ADMIN')")
+  public List<PostingResultDTO> applyPostings(
+      @Argument("input") final List<PostingInput> postings,
+      @Argument final PostingMode mode
+  ) {
+    logger().debug("applyPostings: count={}, mode={}", postings.size(), mode);
+    final var results = accountWriteService.applyPostings(postings, mode);
+    logger().debug("applyPostings: results={}", results.size());
+    return results;
+  }
+
+  /**
+   * Sendet Records aus einem Dead-Letter-Topic erneut an ihr Haupt-Topic.
+   *
+   * @param topic Haupt-Topic, z.B. {@code account.create.person}
+   * @param limit maximale Anzahl der Records
+   * @return Anzahl der erneut gesendeten Records
+   */
+  @MutationMapping("replayDeadLetters")
+  @PreAuthorize("hasRole('ADMIN')")
+  public int replayDeadLetters(
+      @Argument final String topic,
+      @Argument final int limit
+  ) {
+    logger().info("replayDeadLetters: topic={}, limit={}", topic, limit);
+    final var replayed = deadLetterReplayService.replay(topic, limit);
+    logger().info("replayDeadLetters: replayed={}", replayed);
+    return replayed;
+  }
+
 //  @MutationMapping("deleteAccount")
 //  boolean deleteAccount(
 //      @Argument final UUID id,
@@ -158,6 +222,42 @@ public class AccountMutationResolver {
         .build();
   }
 
+  /**
+   * Behandelt eine `InsufficientFundsException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
+   *
+   * @param ex Die ausgelöste Ausnahme.
+   * @param env Das GraphQL-Umfeld für Fehlerinformationen.
+   * @return Ein `GraphQLError` mit der Fehlerbeschreibung.
+   */
+  @GraphQlExceptionHandler
+  GraphQLError onInsufficientFunds(final InsufficientFundsException ex, DataFetchingEnvironment env) {
+    logger().warn("onInsufficientFunds: {}", ex.getMessage());
+    return GraphQLError.newError()
+        .errorType(BAD_REQUEST)
+        .message(ex.getMessage())
+        .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+        .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+        .build();
+  }
+
+  /**
+   * Behandelt eine `IllegalArgumentException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
+   *
+   * @param ex Die ausgelöste Ausnahme.
+   * @param env Das GraphQL-Umfeld für Fehlerinformationen.
+   * @return Ein `GraphQLError` mit der Fehlerbeschreibung.
+   */
+  @GraphQlExceptionHandler
+  GraphQLError onIllegalArgument(final IllegalArgumentException ex, DataFetchingEnvironment env) {
+    logger().warn("onIllegalArgument: {}", ex.getMessage());
+    return GraphQLError.newError()
+        .errorType(BAD_REQUEST)
+        .message(ex.getMessage())
+        .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+        .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+        .build();
+  }
+
   /**
    * Behandelt eine `NotFoundException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
    *
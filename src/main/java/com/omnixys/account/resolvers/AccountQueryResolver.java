@@ -1,20 +1,27 @@
 package com.omnixys.account.resolvers;
 
 import com.omnixys.account.messaging.KafkaPublisherService;
+import com.omnixys.account.models.dto.AccountView;
 import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.inputs.AccountFilterInput;
 import com.omnixys.account.security.CustomUserDetails;
 import com.omnixys.account.service.AccountReadService;
 import com.omnixys.account.tracing.LoggerPlus;
 import com.omnixys.account.tracing.LoggerPlusFactory;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
 import java.util.Collection;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
@@ -53,14 +60,32 @@ public class AccountQueryResolver {
 
     @QueryMapping("accounts")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    Collection<Account> getAccounts(
+    Collection<AccountView> getAccounts(
+        final DataFetchingFieldSelectionSet selectionSet,
         final Authentication authentication
     ) {
         logger().debug("getAccounts:");
         final var user = (CustomUserDetails) authentication.getPrincipal();
-        final var Account = accountReadService.find(user);
+        final var attributes = selectionSet.getImmediateFields()
+            .stream()
+            .map(SelectedField::getName)
+            .collect(Collectors.toSet());
+        final var Account = accountReadService.find(attributes, user);
         logger().debug("getAccounts: Accounts={}", Account);
         return Account;
     }
 
+    @QueryMapping("accountsConnection")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    Window<Account> getAccountsConnection(
+        @Argument final AccountFilterInput filter,
+        final ScrollSubrange subrange,
+        final Authentication authentication
+    ) {
+        logger().debug("getAccountsConnection: filter={}", filter);
+        final var user = (CustomUserDetails) authentication.getPrincipal();
+        final var window = accountReadService.findWindow(filter, subrange, user);
+        logger().debug("getAccountsConnection: size={}, hasNext={}", window.size(), window.hasNext());
+        return window;
+    }
 }
@@ -0,0 +1,246 @@
+package com.omnixys.account.service;
+
+import com.omnixys.account.cache.AccountCache;
+import com.omnixys.account.exceptions.InsufficientFundsException;
+import com.omnixys.account.exceptions.NotFoundException;
+import com.omnixys.account.models.dto.PostingResultDTO;
+import com.omnixys.account.models.dto.TransferDTO;
+import com.omnixys.account.models.enums.PostingMode;
+import com.omnixys.account.models.enums.PostingStatus;
+import com.omnixys.account.models.inputs.PostingInput;
+import com.omnixys.account.repository.AccountRepository;
+import com.omnixys.account.repository.AccountRepositoryCustom.LockedBalance;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.omnixys.account.models.enums.PostingMode.ALL_OR_NOTHING;
+import static com.omnixys.account.models.enums.PostingStatus.APPLIED;
+import static com.omnixys.account.models.enums.PostingStatus.INSUFFICIENT_FUNDS;
+import static com.omnixys.account.models.enums.PostingStatus.NOT_FOUND;
+import static com.omnixys.account.models.enums.PostingStatus.ROLLED_BACK;
+
+/**
+ * Buchungs-Engine für Kontosalden.
+ * <p>
+ * Salden werden ausschließlich per {@code UPDATE} direkt in der Datenbank verändert, ohne die Entity zu laden.
+ * Dadurch entfallen zusätzliche Roundtrips, das Dirty-Checking und Optimistic-Locking-Konflikte bei parallelen
+ * Buchungen auf dasselbe Konto. Jede Buchung wird in derselben Transaktion im Buchungsjournal festgehalten.
+ * </p>
+ * <p>
+ * Werden in einer Transaktion mehrere Konten verändert, erfolgen die Updates in der Reihenfolge
+ * {@link #LOCK_ORDER}. Da alle Transaktionen die Zeilensperren in derselben Reihenfolge anfordern, können
+ * keine Deadlocks entstehen.
+ * </p>
+ * <p>
+ * Da die Entity nicht geladen wird, werden gebuchte Konten nach dem Commit aus dem {@link AccountCache} entfernt.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class AccountBalanceService {
+
+  /**
+   * Sperrreihenfolge für Konten. Entspricht der Sortierung von {@code uuid} in PostgreSQL (vorzeichenloser
+   * Vergleich der 16 Bytes) und damit auch einem {@code ORDER BY id} in der Datenbank.
+   */
+  public static final Comparator<UUID> LOCK_ORDER = (a, b) -> {
+    final var msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  };
+
+  private final AccountRepository accountRepository;
+  private final LedgerService ledgerService;
+  private final AccountCache accountCache;
+  private final Tracer tracer;
+  private final LoggerPlusFactory factory;
+  private LoggerPlus logger() {
+    return factory.getLogger(getClass());
+  }
+
+  /**
+   * Bucht einen Betrag auf ein Konto.
+   *
+   * @param id     ID des Kontos
+   * @param amount zu buchender Betrag (negativ für Abbuchungen)
+   * @return Der neue Saldo
+   * @throws NotFoundException Falls kein Konto mit der ID existiert
+   * @throws InsufficientFundsException Falls die Buchung das Dispolimit überschreiten würde
+   */
+  public BigDecimal apply(final UUID id, @NonNull final BigDecimal amount) {
+    logger().debug("apply: id={}, amount={}", id, amount);
+    final var newBalance = book(id, amount);
+    accountCache.evict(id);
+    ledgerService.record(LedgerService.posting(id, amount));
+    logger().debug("apply: newBalance={}", newBalance);
+    return newBalance;
+  }
+
+  /**
+   * Überweist einen Betrag atomar von einem Konto auf ein anderes.
+   * <p>
+   * Beide Konten werden in einer Transaktion in der Reihenfolge {@link #LOCK_ORDER} gebucht. Schlägt die
+   * Abbuchung fehl, wird die gesamte Überweisung zurückgerollt.
+   * </p>
+   *
+   * @param from   ID des belasteten Kontos
+   * @param to     ID des begünstigten Kontos
+   * @param amount positiver Überweisungsbetrag
+   * @return Die neuen Salden beider Konten und die ID des Journaleintrags
+   * @throws IllegalArgumentException Falls beide Konten identisch sind oder der Betrag nicht positiv ist
+   * @throws NotFoundException Falls eines der Konten nicht existiert
+   * @throws InsufficientFundsException Falls die Abbuchung das Dispolimit überschreiten würde
+   */
+  public TransferDTO transfer(@NonNull final UUID from, @NonNull final UUID to, @NonNull final BigDecimal amount) {
+    logger().debug("transfer: from={}, to={}, amount={}", from, to, amount);
+    if (from.equals(to)) {
+      throw new IllegalArgumentException("Sender- und Empfängerkonto müssen verschieden sein.");
+    }
+    if (amount.signum() <= 0) {
+      throw new IllegalArgumentException("Der Überweisungsbetrag muss positiv sein.");
+    }
+
+    final BigDecimal fromBalance;
+    final BigDecimal toBalance;
+    if (LOCK_ORDER.compare(from, to) < 0) {
+      fromBalance = book(from, amount.negate());
+      toBalance = book(to, amount);
+    } else {
+      toBalance = book(to, amount);
+      fromBalance = book(from, amount.negate());
+    }
+
+    accountCache.evict(from);
+    accountCache.evict(to);
+    final var transaction = LedgerService.transfer(from, to, amount);
+    ledgerService.record(transaction);
+    logger().debug("transfer: transactionId={}, fromBalance={}, toBalance={}", transaction.getId(), fromBalance, toBalance);
+    return new TransferDTO(transaction.getId(), fromBalance, toBalance);
+  }
+
+  /**
+   * Bucht einen Stapel von Buchungen mit einem Nettobetrag je Konto.
+   * <p>
+   * Die betroffenen Konten werden mit einer Abfrage in der Reihenfolge {@link #LOCK_ORDER} gesperrt und
+   * geprüft, anschließend werden die Nettobeträge als ein JDBC-Batch gebucht. Da je Konto nur der Nettobetrag
+   * gebucht wird, werden bei einer Ablehnung alle Buchungen dieses Kontos abgelehnt.
+   * </p>
+   *
+   * @param postings die Buchungen
+   * @param mode     Verhalten bei abgelehnten Konten
+   * @return Das Ergebnis je Buchung in der Reihenfolge der Eingabe
+   */
+  public List<PostingResultDTO> applyPostings(@NonNull final List<PostingInput> postings, @NonNull final PostingMode mode) {
+    logger().debug("applyPostings: count={}, mode={}", postings.size(), mode);
+    final var deltas = new TreeMap<UUID, BigDecimal>(LOCK_ORDER);
+    postings.forEach(posting -> deltas.merge(posting.accountId(), posting.amount(), BigDecimal::add));
+
+    final List<LockedBalance> lockedBalances;
+    Span lockSpan = tracer.spanBuilder("account-repository.lock-balances").startSpan();
+    try (Scope lockScope = lockSpan.makeCurrent()) {
+      assert lockScope != null;
+      lockedBalances = accountRepository.lockBalances(deltas.keySet());
+    } catch (Exception e) {
+      lockSpan.recordException(e);
+      lockSpan.setStatus(StatusCode.ERROR, "Sperren fehlgeschlagen");
+      throw e;
+    } finally {
+      lockSpan.end();
+    }
+
+    final var statusByAccount = new HashMap<UUID, PostingStatus>(deltas.size());
+    final var balanceByAccount = new HashMap<UUID, BigDecimal>(deltas.size());
+    for (final var locked : lockedBalances) {
+      final var delta = deltas.get(locked.id());
+      final var newBalance = locked.balance().add(delta);
+      if (delta.signum() >= 0 || newBalance.compareTo(locked.overdraftLimit().negate()) >= 0) {
+        statusByAccount.put(locked.id(), APPLIED);
+        balanceByAccount.put(locked.id(), newBalance);
+      } else {
+        statusByAccount.put(locked.id(), INSUFFICIENT_FUNDS);
+      }
+    }
+    deltas.keySet().forEach(id -> statusByAccount.putIfAbsent(id, NOT_FOUND));
+
+    final var rejected = statusByAccount.values().stream().anyMatch(status -> status != APPLIED);
+    if (rejected && mode == ALL_OR_NOTHING) {
+      statusByAccount.replaceAll((_, status) -> status == APPLIED ? ROLLED_BACK : status);
+      balanceByAccount.clear();
+    } else {
+      deltas.keySet().retainAll(balanceByAccount.keySet());
+      Span updateSpan = tracer.spanBuilder("account-repository.add-to-balances").startSpan();
+      try (Scope updateScope = updateSpan.makeCurrent()) {
+        assert updateScope != null;
+        accountRepository.addToBalances(deltas);
+        deltas.keySet().forEach(accountCache::evict);
+      } catch (Exception e) {
+        updateSpan.recordException(e);
+        updateSpan.setStatus(StatusCode.ERROR, "Buchung fehlgeschlagen");
+        throw e;
+      } finally {
+        updateSpan.end();
+      }
+      ledgerService.recordAll(postings.stream()
+          .filter(posting -> balanceByAccount.containsKey(posting.accountId()))
+          .map(posting -> LedgerService.posting(posting.accountId(), posting.amount()))
+          .toList());
+    }
+
+    final var results = new ArrayList<PostingResultDTO>(postings.size());
+    for (int i = 0; i < postings.size(); i++) {
+      final var posting = postings.get(i);
+      results.add(new PostingResultDTO(
+          i,
+          posting.accountId(),
+          posting.amount(),
+          posting.reference(),
+          statusByAccount.get(posting.accountId()),
+          balanceByAccount.get(posting.accountId())
+      ));
+    }
+    logger().debug("applyPostings: accounts={}, applied={}", statusByAccount.size(), balanceByAccount.size());
+    return results;
+  }
+
+  private BigDecimal book(final UUID id, final BigDecimal amount) {
+    Span repositorySpan = tracer.spanBuilder("account-repository.add-to-balance").startSpan();
+    try (Scope repositoryScope = repositorySpan.makeCurrent()) {
+      assert repositoryScope != null;
+      return accountRepository.addToBalance(id, amount).orElseThrow(() -> rejection(id));
+    } catch (Exception e) {
+      repositorySpan.recordException(e);
+      repositorySpan.setStatus(StatusCode.ERROR, "Buchung abgelehnt");
+      throw e;
+    } finally {
+      repositorySpan.end();
+    }
+  }
+
+  /**
+   * Ermittelt den Grund einer abgelehnten Buchung. Wird nur im Fehlerfall aufgerufen, so dass der
+   * Normalfall mit einem einzigen Roundtrip auskommt.
+   */
+  private RuntimeException rejection(final UUID id) {
+    return accountRepository.existsById(id)
+        ? new InsufficientFundsException(id)
+        : new NotFoundException(id);
+  }
+}
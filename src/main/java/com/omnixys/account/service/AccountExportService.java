@@ -0,0 +1,228 @@
+package com.omnixys.account.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.enums.ExportFormat;
+import com.omnixys.account.repository.AccountRepository;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.persistence.EntityManager;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Exportiert alle Konten als NDJSON oder CSV, ohne die Ergebnismenge im Speicher aufzubauen.
+ * <p>
+ * Die Konten werden über einen serverseitigen Cursor gelesen, sofort geschrieben und danach aus dem
+ * Persistenzkontext gelöst. Der Speicherbedarf hängt damit nur von der Fetch-Size und dem Ausgabepuffer ab,
+ * nicht von der Anzahl der Konten. Die Anzahl der exportierten Zeilen und der Durchsatz je Export werden als
+ * Metriken {@code account.export.rows} und {@code account.export.throughput} veröffentlicht.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+        "id,version,balance,rateOfInterest,category,state,overdraftLimit,transactionLimit,created,updated,userId,username\n";
+
+    private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Schreibt alle Konten im gewünschten Format in den Ausgabestrom.
+     * <p>
+     * Die Methode öffnet ihre eigene lesende Transaktion, weil sie typischerweise asynchron nach der Rückkehr
+     * des Controllers in einem anderen Thread ausgeführt wird.
+     * </p>
+     *
+     * @param format Ausgabeformat
+     * @param out    Ausgabestrom; wird nicht geschlossen
+     * @return Anzahl der exportierten Konten
+     */
+    public long export(@NonNull final ExportFormat format, @NonNull final OutputStream out) {
+        final var rows = Counter.builder("account.export.rows")
+            .description("Anzahl der exportierten Konten")
+            .tag("format", format.name())
+            .register(meterRegistry);
+        final var sample = Timer.start(meterRegistry);
+
+        Span serviceSpan = tracer.spanBuilder("account-service.export").startSpan();
+        serviceSpan.setAttribute("export.format", format.name());
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().info("export: format={}", format);
+
+            final var template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            final var count = Objects.requireNonNull(template.execute(_ -> {
+                try (var accounts = accountRepository.streamAll()) {
+                    return switch (format) {
+                        case NDJSON -> writeNdjson(accounts.iterator(), out, rows);
+                        case CSV -> writeCsv(accounts.iterator(), out, rows);
+                    };
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+
+            final var nanos = sample.stop(Timer.builder("account.export")
+                .description("Dauer eines Kontoexports")
+                .tag("format", format.name())
+                .register(meterRegistry));
+            final var perSecond = nanos > 0 ? count * 1e9 / nanos : 0;
+            DistributionSummary.builder("account.export.throughput")
+                .description("Exportierte Konten pro Sekunde je Export")
+                .baseUnit("rows/s")
+                .tag("format", format.name())
+                .register(meterRegistry)
+                .record(perSecond);
+            serviceSpan.setAttribute("export.rows", count);
+            logger().info("export: format={}, rows={}, rowsPerSecond={}", format, count, Math.round(perSecond));
+            return count;
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setStatus(StatusCode.ERROR, "Export fehlgeschlagen");
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
+    private long writeNdjson(final Iterator<Account> accounts, final OutputStream out, final Counter rows)
+        throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory()
+            .createGenerator(nonClosing(out), JsonEncoding.UTF8)) {
+            while (accounts.hasNext()) {
+                final var account = accounts.next();
+                generator.writeStartObject();
+                generator.writeStringField("id", Objects.toString(account.getId(), null));
+                generator.writeNumberField("version", account.getVersion());
+                generator.writeNumberField("balance", account.getBalance());
+                generator.writeNumberField("rateOfInterest", account.getRateOfInterest());
+                generator.writeStringField("category", Objects.toString(account.getCategory(), null));
+                generator.writeStringField("state", Objects.toString(account.getState(), null));
+                generator.writeNumberField("overdraftLimit", account.getOverdraftLimit());
+                generator.writeNumberField("transactionLimit", account.getTransactionLimit());
+                generator.writeStringField("created", Objects.toString(account.getCreated(), null));
+                generator.writeStringField("updated", Objects.toString(account.getUpdated(), null));
+                generator.writeStringField("userId", Objects.toString(account.getUserId(), null));
+                generator.writeStringField("username", account.getUsername());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                entityManager.detach(account);
+                rows.increment();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(final Iterator<Account> accounts, final OutputStream out, final Counter rows)
+        throws IOException {
+        long count = 0;
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(nonClosing(out), UTF_8), BUFFER_SIZE);
+        try (writer) {
+            writer.write(CSV_HEADER);
+            while (accounts.hasNext()) {
+                final var account = accounts.next();
+                writer.write(csv(account.getId()));
+                writer.write(',');
+                writer.write(Integer.toString(account.getVersion()));
+                writer.write(',');
+                writer.write(csv(account.getBalance()));
+                writer.write(',');
+                writer.write(Double.toString(account.getRateOfInterest()));
+                writer.write(',');
+                writer.write(csv(account.getCategory()));
+                writer.write(',');
+                writer.write(csv(account.getState()));
+                writer.write(',');
+                writer.write(csv(account.getOverdraftLimit()));
+                writer.write(',');
+                writer.write(Integer.toString(account.getTransactionLimit()));
+                writer.write(',');
+                writer.write(csv(account.getCreated()));
+                writer.write(',');
+                writer.write(csv(account.getUpdated()));
+                writer.write(',');
+                writer.write(csv(account.getUserId()));
+                writer.write(',');
+                writer.write(csv(account.getUsername()));
+                writer.write('\n');
+                entityManager.detach(account);
+                rows.increment();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Formatiert einen Wert als CSV-Feld nach RFC 4180. {@code null} wird als leeres Feld geschrieben.
+     */
+    private static String csv(final Object value) {
+        if (value == null) {
+            return "";
+        }
+        final var text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Verhindert, dass das Schließen von Writer bzw. Generator den Ausgabestrom des Aufrufers schließt.
+     */
+    private static OutputStream nonClosing(final OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -1,10 +1,15 @@
 package com.omnixys.account.service;
 
+import com.omnixys.account.cache.AccountCache;
+import com.omnixys.account.cache.UsernameAccountsCache;
 import com.omnixys.account.exceptions.AccessForbiddenException;
 import com.omnixys.account.exceptions.NotFoundException;
 import com.omnixys.account.messaging.KafkaPublisherService;
+import com.omnixys.account.models.dto.AccountView;
 import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.inputs.AccountFilterInput;
 import com.omnixys.account.repository.AccountRepository;
+import com.omnixys.account.repository.AccountSpecifications;
 import com.omnixys.account.security.CustomUserDetails;
 import com.omnixys.account.security.enums.RoleType;
 import com.omnixys.account.tracing.LoggerPlus;
@@ -15,29 +20,52 @@ import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.omnixys.account.security.enums.RoleType.ADMIN;
 import static com.omnixys.account.security.enums.RoleType.USER;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class AccountReadService {
     private final AccountRepository AccountRepository;
+    private final AccountCache accountCache;
+    private final UsernameAccountsCache usernameAccountsCache;
     private final Tracer tracer;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
     }
 
+    /**
+     * Sortierung für die seitenweise Suche. Eindeutig durch die ID und durch den Index
+     * {@code idx_account_created_id} abgedeckt.
+     */
+    private static final Sort KEYSET_SORT = Sort.by("created", "id");
+
+    @Value("${app.accounts.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.accounts.max-page-size:500}")
+    private int maxPageSize;
+
     @Observed(name = "account-service.read.find-by-id")
     public @NonNull Account findById(final UUID id, final UserDetails user) {
         Span serviceSpan = tracer.spanBuilder("account-service.read.find-by-id").startSpan();
@@ -50,7 +78,7 @@ public class AccountReadService {
             Span repositorySpan = tracer.spanBuilder("repository.find-by-id").startSpan();
             try (Scope mongoScope = repositorySpan.makeCurrent()) {
                 assert mongoScope != null;
-                account = AccountRepository.findById(id).orElseThrow(NotFoundException::new);
+                account = accountCache.get(id, AccountRepository::findById).orElseThrow(NotFoundException::new);
             } catch (Exception e) {
                 repositorySpan.recordException(e);
                 repositorySpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -59,10 +87,96 @@ public class AccountReadService {
                 repositorySpan.end();
             }
 
-            if (Objects.equals(account.getUsername(), user.getUsername())) {
-                //eigene Kunden Daten
-                return account;
-            }
+            checkAccess(account, user);
+            logger().debug("findById: Account={}", account);
+            return account;
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
+    /**
+     * Konten zu mehreren IDs mit einer einzigen Abfrage suchen, z.B. für das Auflösen von Federation-Referenzen.
+     * <p>
+     * Konten aus dem {@link AccountCache} werden nicht erneut gelesen, alle übrigen werden gemeinsam mit
+     * {@code findAllById} ({@code WHERE id IN (...)}) geladen. Die Berechtigung muss der Aufrufer je Konto mit
+     * {@link #checkAccess(Account, UserDetails)} prüfen.
+     * </p>
+     *
+     * @param ids IDs der Konten
+     * @return Die gefundenen Konten je ID; nicht existierende Konten fehlen
+     */
+    @Observed(name = "account-service.read.find-all-by-id")
+    public @NonNull Map<UUID, Account> findAllById(final Collection<UUID> ids) {
+        Span serviceSpan = tracer.spanBuilder("account-service.read.find-all-by-id").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
+            logger().debug("findAllById: ids={}", ids);
+            serviceSpan.setAttribute("account.ids", ids.size());
+
+            final var accounts = accountCache.getAll(ids, AccountRepository::findAllById)
+                .stream()
+                .collect(toMap(Account::getId, identity()));
+            logger().debug("findAllById: found={}", accounts.size());
+            return accounts;
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            serviceSpan.end();
+        }
+    }
+
+    /**
+     * Prüft, ob ein Benutzer ein Konto lesen darf: das eigene Konto oder mit der Rolle ADMIN bzw. USER.
+     *
+     * @param account das Konto
+     * @param user    der angemeldete Benutzer
+     * @throws AccessForbiddenException Falls der Benutzer das Konto nicht lesen darf
+     */
+    public void checkAccess(final Account account, final UserDetails user) {
+        if (Objects.equals(account.getUsername(), user.getUsername())) {
+            //eigene Kunden Daten
+            return;
+        }
+
+        final var roles = user
+            .getAuthorities()
+            .stream()
+            .map(GrantedAuthority::getAuthority)
+            .map(str -> str.substring(RoleType.ROLE_PREFIX.length()))
+            .map(RoleType::valueOf)
+            .toList();
+
+        if (!roles.contains(ADMIN) && !roles.contains(USER)) {
+            throw new AccessForbiddenException(user.getUsername(), roles);
+        }
+    }
+
+    /**
+     * Kunden anhand von Suchkriterien als Collection suchen.
+     *
+//     * @param searchCriteria Die Suchkriterien
+     * <p>
+     * Es werden nur die angeforderten Attribute gelesen, siehe
+     * {@link com.omnixys.account.repository.AccountRepositoryCustom#findViews}.
+     * </p>
+     *
+     * @param attributes die in der GraphQL-Query angeforderten Felder von {@code Account}
+     * @param user       der angemeldete Benutzer
+     * @return Die gefundenen Kunden oder eine leere Liste
+     * @throws NotFoundException Falls keine Kunden gefunden wurden
+     */
+    @Observed(name = "person-service.read.find")
+    public @NonNull Collection<AccountView> find(final Set<String> attributes, final UserDetails user) {
+        Span serviceSpan = tracer.spanBuilder("account-service.read.find").startSpan();
+        try (Scope serviceScope = serviceSpan.makeCurrent()) {
+            assert serviceScope != null;
 
             final var roles = user
                 .getAuthorities()
@@ -76,8 +190,8 @@ public class AccountReadService {
                 throw new AccessForbiddenException(user.getUsername(), roles);
             }
 
-            logger().debug("findById: Account={}", account);
-            return account;
+            logger().debug("find: attributes={}", attributes);
+            return AccountRepository.findViews(attributes, AccountSpecifications.from(null));
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -88,17 +202,29 @@ public class AccountReadService {
     }
 
     /**
-     * Kunden anhand von Suchkriterien als Collection suchen.
+     * Eine Seite von Konten mit Keyset-Pagination auf {@code (created, id)} suchen.
+     * <p>
+     * Es werden höchstens so viele Konten geladen, wie die Seite groß ist, unabhängig von der Größe der Tabelle.
+     * Der Cursor enthält nur die Schlüsselwerte des letzten Kontos, so dass auch tiefe Seiten ohne
+     * {@code OFFSET} gelesen werden.
+     * </p>
      *
-//     * @param searchCriteria Die Suchkriterien
-     * @return Die gefundenen Kunden oder eine leere Liste
-     * @throws NotFoundException Falls keine Kunden gefunden wurden
+     * @param filter   optionale Filterkriterien
+     * @param subrange Position und Größe der Seite aus {@code first} und {@code after}
+     * @param user     der angemeldete Benutzer
+     * @return Die gefundenen Konten und ob weitere folgen
+     * @throws AccessForbiddenException Falls der Benutzer weder ADMIN noch USER ist
      */
-    @Observed(name = "person-service.read.find")
-    public @NonNull Collection<Account> find(final UserDetails user) {
-        Span serviceSpan = tracer.spanBuilder("account-service.read.find").startSpan();
+    @Observed(name = "account-service.read.find-window")
+    public @NonNull Window<Account> findWindow(
+        final AccountFilterInput filter,
+        final ScrollSubrange subrange,
+        final UserDetails user
+    ) {
+        Span serviceSpan = tracer.spanBuilder("account-service.read.find-window").startSpan();
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
+            logger().debug("findWindow: filter={}, subrange={}", filter, subrange);
 
             final var roles = user
                 .getAuthorities()
@@ -112,7 +238,27 @@ public class AccountReadService {
                 throw new AccessForbiddenException(user.getUsername(), roles);
             }
 
-            return AccountRepository.findAll();
+            final var pageSize = Math.clamp(subrange.count().orElse(defaultPageSize), 1, maxPageSize);
+            final var position = subrange.position().orElse(ScrollPosition.keyset());
+
+            final Window<Account> window;
+            Span repositorySpan = tracer.spanBuilder("repository.find-window").startSpan();
+            try (Scope repositoryScope = repositorySpan.makeCurrent()) {
+                assert repositoryScope != null;
+                window = AccountRepository.findBy(
+                    AccountSpecifications.from(filter),
+                    query -> query.sortBy(KEYSET_SORT).limit(pageSize).scroll(position)
+                );
+            } catch (Exception e) {
+                repositorySpan.recordException(e);
+                repositorySpan.setAttribute("exception.class", e.getClass().getSimpleName());
+                throw e;
+            } finally {
+                repositorySpan.end();
+            }
+
+            logger().debug("findWindow: size={}, hasNext={}", window.size(), window.hasNext());
+            return window;
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -129,11 +275,11 @@ public class AccountReadService {
             assert serviceScope != null;
 
             logger().debug("findByUsername: username={}", user.getUsername());
-            final var accounts = AccountRepository.findByUsername(user.getUsername());
-            if (accounts.isEmpty()) {
+            final var ids = usernameAccountsCache.get(user.getUsername(), AccountRepository::findIdsByUsername);
+            if (ids.isEmpty()) {
                 throw new AccessForbiddenException(user.getUsername(), null);
             }
-            return accounts;
+            return accountCache.getAll(ids, AccountRepository::findAllById);
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -1,11 +1,17 @@
 package com.omnixys.account.service;
 
+import com.omnixys.account.cache.AccountCache;
+import com.omnixys.account.cache.UsernameAccountsCache;
 import com.omnixys.account.exceptions.AccessForbiddenException;
-import com.omnixys.account.exceptions.InsufficientFundsException;
 import com.omnixys.account.exceptions.NotFoundException;
 import com.omnixys.account.messaging.KafkaPublisherService;
+import com.omnixys.account.models.dto.PostingResultDTO;
+import com.omnixys.account.models.dto.TransferDTO;
 import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.models.enums.PostingMode;
+import com.omnixys.account.models.inputs.PostingInput;
 import com.omnixys.account.repository.AccountRepository;
+import com.omnixys.account.repository.AccountRepositoryCustom.DeletedAccount;
 import com.omnixys.account.security.CustomUserDetails;
 import com.omnixys.account.security.enums.RoleType;
 import com.omnixys.account.tracing.LoggerPlus;
@@ -16,18 +22,23 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 
 import static com.omnixys.account.models.enums.StatusType.ACTIVE;
 import static com.omnixys.account.security.enums.RoleType.ADMIN;
+import static com.omnixys.account.security.enums.RoleType.USER;
 
 @Service
 @Transactional
@@ -35,9 +46,21 @@ import static com.omnixys.account.security.enums.RoleType.ADMIN;
 public class AccountWriteService {
 
   private final AccountRepository accountRepository;
+  private final AccountBalanceService accountBalanceService;
+  private final AccountCache accountCache;
+  private final UsernameAccountsCache usernameAccountsCache;
+  private final KafkaPublisherService kafkaPublisherService;
   private final ValidationService validationService;
   private final Tracer tracer;
   private final LoggerPlusFactory factory;
+  private final EntityManager entityManager;
+
+  @Value("${app.postings.mode:ALL_OR_NOTHING}")
+  private PostingMode defaultPostingMode;
+
+  @Value("${app.postings.max-size:10000}")
+  private int maxPostings;
+
   private LoggerPlus logger() {
     return factory.getLogger(getClass());
   }
@@ -53,16 +76,7 @@ public class AccountWriteService {
 //    final var customer = readService.findCustomerById(customerId, token);
 //    final var existingAccounts = readService.findByCustomerId(customerId,jwt);
 
-      final var initialTransactionLimit = account.getTransactionLimit();
-      // Standardwerte setzen basierend auf der Kategorie
-      initializeDefaults(account);
-
-      if (initialTransactionLimit != 0) {
-        account.setTransactionLimit(initialTransactionLimit);
-      }
-
-      account.setState(ACTIVE);
-      account.setBalance(BigDecimal.ZERO);
+      prepareNew(account);
       logger().debug("create: account={}", account);
 
       final Account accountDb;
@@ -78,6 +92,10 @@ public class AccountWriteService {
         repositorySpan.end();
       }
 
+      kafkaPublisherService.accountCreated(accountDb);
+      kafkaPublisherService.sendMail(accountDb, USER.name());
+      accountCache.refresh(accountDb);
+      usernameAccountsCache.evict(accountDb.getUsername());
       logger().trace("create: Thread-ID={}", Thread.currentThread().threadId());
       logger().debug("create: accountDb={}", accountDb);
       return accountDb;
@@ -90,6 +108,49 @@ public class AccountWriteService {
     }
   }
 
+  /**
+   * Legt mehrere Konten in einer Transaktion an, z.B. beim Massen-Onboarding über Kafka.
+   * <p>
+   * Die INSERTs werden beim Flush als ein JDBC-Batch mit der Größe des Stapels gesendet, den der Treiber zu
+   * mehrzeiligen Statements zusammenfasst. Schlägt ein Konto fehl, wird die gesamte Transaktion zurückgerollt.
+   * Die Konten werden nicht in den {@link AccountCache} übernommen, ihre Events schreibt dieselbe Transaktion in die
+   * Outbox.
+   * </p>
+   *
+   * @param accounts die neuen Konten
+   * @return Die gespeicherten Konten in der Reihenfolge der Eingabe
+   */
+  @Observed(name = "account-service.write.create-all")
+  public List<Account> createAll(final List<Account> accounts) {
+    Span serviceSpan = tracer.spanBuilder("account-service.write.create-all").startSpan();
+    serviceSpan.setAttribute("accounts.count", accounts.size());
+    try (Scope serviceScope = serviceSpan.makeCurrent()) {
+      assert serviceScope != null;
+
+      logger().debug("createAll: count={}", accounts.size());
+      accounts.forEach(this::prepareNew);
+      entityManager.unwrap(Session.class).setJdbcBatchSize(Math.max(accounts.size(), 1));
+      final var accountsDb = accountRepository.saveAll(accounts);
+      accountRepository.flush();
+      accountsDb.forEach(accountDb -> {
+        kafkaPublisherService.accountCreated(accountDb);
+        kafkaPublisherService.sendMail(accountDb, USER.name());
+      });
+
+      accountsDb.stream()
+          .map(Account::getUsername)
+          .distinct()
+          .forEach(usernameAccountsCache::evict);
+      return accountsDb;
+    } catch (Exception e) {
+      serviceSpan.recordException(e);
+      serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+      throw e;
+    } finally {
+      serviceSpan.end();
+    }
+  }
+
   @Observed(name = "account-service.write.update")
   public Account update(final Account accountInput, UUID id, int version, final CustomUserDetails user) {
     Span serviceSpan = tracer.spanBuilder("account-service.write.update").startSpan();
@@ -111,7 +172,12 @@ public class AccountWriteService {
     }
 
     logger().trace("updateAccount: No conflict with the email address");
+    final var previousUsername = accountDb.getUsername();
     accountDb.set(accountInput);
+    if (!previousUsername.equals(accountDb.getUsername())) {
+      usernameAccountsCache.evict(previousUsername);
+      usernameAccountsCache.evict(accountDb.getUsername());
+    }
 
       final Account updatedCustomerDb;
       Span repositorySpan = tracer.spanBuilder("account-repository.safe").startSpan();
@@ -126,6 +192,8 @@ public class AccountWriteService {
         repositorySpan.end();
       }
 
+    kafkaPublisherService.accountUpdated(updatedCustomerDb);
+    accountCache.refresh(updatedCustomerDb);
     logger().debug("updateAccount: updatedCustomerDB={}", accountDb);
     return updatedCustomerDb;
     } catch (Exception e) {
@@ -157,6 +225,9 @@ public class AccountWriteService {
       }
       validationService.validateVersion(version, accountDb);
       accountRepository.delete(accountDb);
+      kafkaPublisherService.accountDeleted(id, accountDb.getUsername());
+      accountCache.evict(id);
+      usernameAccountsCache.evict(accountDb.getUsername());
     } catch (Exception e) {
       serviceSpan.recordException(e);
       serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -173,11 +244,8 @@ public class AccountWriteService {
       assert serviceScope != null;
 
       logger().debug("updateBalance: id={}, balance={}", id, balance);
-      final var accountDb = accountRepository.findById(id).orElseThrow(() -> new NotFoundException(id));
-      final var newBalance = balance.add(accountDb.getBalance());
-      accountDb.setBalance(newBalance);
-      accountRepository.save(accountDb);
-      logger().debug("updateBalance: account={}", accountDb);
+      final var newBalance = accountBalanceService.apply(id, balance);
+      logger().debug("updateBalance: newBalance={}", newBalance);
       return newBalance;
     } catch (Exception e) {
       serviceSpan.recordException(e);
@@ -188,6 +256,75 @@ public class AccountWriteService {
     }
   }
 
+  /**
+   * Überweist einen Betrag atomar von einem Konto auf ein anderes.
+   *
+   * Nur ein Admin oder der Inhaber des belasteten Kontos darf überweisen.
+   *
+   * @param from   ID des belasteten Kontos
+   * @param to     ID des begünstigten Kontos
+   * @param amount positiver Überweisungsbetrag
+   * @param user   der angemeldete Benutzer
+   * @return Die neuen Salden beider Konten und die ID des Journaleintrags
+   * @throws NotFoundException Falls das belastete Konto nicht existiert
+   * @throws AccessForbiddenException Falls der Benutzer weder Admin noch Inhaber des belasteten Kontos ist
+   */
+  @Observed(name = "account-service.write.transfer")
+  public TransferDTO transfer(final UUID from, final UUID to, final BigDecimal amount, final CustomUserDetails user) {
+    Span serviceSpan = tracer.spanBuilder("account-service.write.transfer").startSpan();
+    try (Scope serviceScope = serviceSpan.makeCurrent()) {
+      assert serviceScope != null;
+
+      logger().debug("transfer: from={}, to={}, amount={}", from, to, amount);
+      final var roles = roles(user);
+      if (!roles.contains(ADMIN)) {
+        final var owner = accountRepository.findUsernameById(from).orElseThrow(() -> new NotFoundException(from));
+        if (!owner.equals(user.getUsername())) {
+          throw new AccessForbiddenException(user.getUsername(), roles);
+        }
+      }
+      final var result = accountBalanceService.transfer(from, to, amount);
+      logger().debug("transfer: result={}", result);
+      return result;
+    } catch (Exception e) {
+      serviceSpan.recordException(e);
+      serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+      throw e;
+    } finally {
+      serviceSpan.end();
+    }
+  }
+
+  /**
+   * Bucht einen Stapel von Buchungen in einer Transaktion.
+   *
+   * @param postings die Buchungen
+   * @param mode     Verhalten bei abgelehnten Konten; ohne Angabe gilt {@code app.postings.mode}
+   * @return Das Ergebnis je Buchung in der Reihenfolge der Eingabe
+   */
+  @Observed(name = "account-service.write.apply-postings")
+  public List<PostingResultDTO> applyPostings(final List<PostingInput> postings, final PostingMode mode) {
+    Span serviceSpan = tracer.spanBuilder("account-service.write.apply-postings").startSpan();
+    try (Scope serviceScope = serviceSpan.makeCurrent()) {
+      assert serviceScope != null;
+
+      logger().debug("applyPostings: count={}, mode={}", postings.size(), mode);
+      if (postings.size() > maxPostings) {
+        throw new IllegalArgumentException(String.format(
+            "Ein Buchungsstapel darf höchstens %d Buchungen enthalten.", maxPostings));
+      }
+      final var results = accountBalanceService.applyPostings(postings, mode != null ? mode : defaultPostingMode);
+      serviceSpan.setAttribute("postings.count", postings.size());
+      return results;
+    } catch (Exception e) {
+      serviceSpan.recordException(e);
+      serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+      throw e;
+    } finally {
+      serviceSpan.end();
+    }
+  }
+
   @Observed(name = "account-service.write.delete-account-by-id")
   public void deleteAccountById(UUID id, int version, CustomUserDetails user) {
     Span serviceSpan = tracer.spanBuilder("account-service.write.delete-account-by-id").startSpan();
@@ -209,6 +346,9 @@ public class AccountWriteService {
 
       validationService.validateVersion(version, accountDb);
       accountRepository.delete(accountDb);
+      kafkaPublisherService.accountDeleted(id, accountDb.getUsername());
+      accountCache.evict(id);
+      usernameAccountsCache.evict(accountDb.getUsername());
       logger().debug("deleteAccountById: account={}", accountDb);
     } catch (Exception e) {
       serviceSpan.recordException(e);
@@ -223,36 +363,69 @@ public class AccountWriteService {
    * Löscht Accounts anhand der übergebenen Benutzer-ID oder des Benutzernamens.
    *
    * <p>
-   * Wird sowohl eine ID als auch ein Benutzername übergeben, so hat die ID Vorrang.
+   * Wird sowohl eine ID als auch ein Benutzername übergeben, so hat der Benutzername Vorrang.
    * Ist weder ID noch Benutzername gesetzt, wird kein Konto gelöscht.
    * </p>
    *
    * @param customerId  die optionale ID des Benutzers
    * @param username    der optionale Benutzername
+   * @return Die gelöschten Konten
    */
   @Observed(name = "account-service.write.delete-account-by-username-or-customerId")
-  public void deleteAccountByUsernameOrCustomerId(final UUID customerId, final String username) {
+  public List<DeletedAccount> deleteAccountByUsernameOrCustomerId(final UUID customerId, final String username) {
     Span serviceSpan = tracer.spanBuilder("account-service.write.delete-account-by-username-or-customerId").startSpan();
     try (Scope serviceScope = serviceSpan.makeCurrent()) {
       assert serviceScope != null;
 
       logger().debug("deleteAccountByUsernameOrCustomerId: id={}, username={}", customerId, username);
-      List<Account> accountsToDelete = Collections.emptyList();
+      final var deleted = username != null
+          ? deleteAllByUserIdsOrUsernames(List.of(), List.of(username))
+          : deleteAllByUserIdsOrUsernames(customerId != null ? List.of(customerId) : List.of(), List.of());
 
-      if (customerId != null) {
-        accountsToDelete = accountRepository.findByUserId(customerId);
-      }
-
-      if (username != null) {
-        accountsToDelete = accountRepository.findByUsername(username);
-      }
-
-      if (!accountsToDelete.isEmpty()) {
-        accountRepository.deleteAll(accountsToDelete);
-        logger().debug("✅ Accounts gelöscht: {}", accountsToDelete);
+      if (!deleted.isEmpty()) {
+        logger().debug("✅ {} Accounts gelöscht", deleted.size());
       } else {
         logger().warn("⚠️ Kein Konto gefunden zum Löschen für ID={} oder Benutzername={}", customerId, username);
       }
+      return deleted;
+    } catch (Exception e) {
+      serviceSpan.recordException(e);
+      serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
+      throw e;
+    } finally {
+      serviceSpan.end();
+    }
+  }
+
+  /**
+   * Löscht alle Konten der angegebenen Benutzer mengenbasiert, z.B. bei Massenlöschungen über Kafka.
+   * <p>
+   * Die Konten werden mit einem einzigen {@code DELETE ... RETURNING} über die Indexe auf {@code user_id} und
+   * {@code username} gelöscht, ohne sie zu laden und ohne Prüfung der Version. Nach dem Commit werden die
+   * gelöschten Konten und Benutzernamen aus den Caches entfernt; die Events zu den gelöschten Konten schreibt dieselbe
+   * Transaktion in die Outbox.
+   * </p>
+   *
+   * @param userIds   IDs der Benutzer
+   * @param usernames Benutzernamen
+   * @return ID und Benutzername der gelöschten Konten, z.B. für Folge-Events
+   */
+  @Observed(name = "account-service.write.delete-all-by-user-ids-or-usernames")
+  public List<DeletedAccount> deleteAllByUserIdsOrUsernames(final Collection<UUID> userIds, final Collection<String> usernames) {
+    Span serviceSpan = tracer.spanBuilder("account-service.write.delete-all-by-user-ids-or-usernames").startSpan();
+    try (Scope serviceScope = serviceSpan.makeCurrent()) {
+      assert serviceScope != null;
+
+      logger().debug("deleteAllByUserIdsOrUsernames: userIds={}, usernames={}", userIds.size(), usernames.size());
+      final var deleted = accountRepository.deleteByUserIdsOrUsernames(userIds, usernames);
+      deleted.forEach(account -> kafkaPublisherService.accountDeleted(account.id(), account.username()));
+      accountCache.evictAll(deleted.stream().map(DeletedAccount::id).toList());
+      final var deletedUsernames = new HashSet<>(usernames);
+      deleted.forEach(account -> deletedUsernames.add(account.username()));
+      usernameAccountsCache.evictAll(deletedUsernames);
+
+      serviceSpan.setAttribute("accounts.deleted", deleted.size());
+      return deleted;
     } catch (Exception e) {
       serviceSpan.recordException(e);
       serviceSpan.setAttribute("exception.class", e.getClass().getSimpleName());
@@ -262,18 +435,17 @@ public class AccountWriteService {
     }
   }
 
-  private Account adjustBalance(final BigDecimal balance, final Account account) {
-    logger().debug("adjustBalance: balance={}", balance);
-    final var currentBalance = account.getBalance();
-    final var newBalance = currentBalance.add(balance);
-    logger().debug("adjustBalance: newBalance={}", newBalance);
-    if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
-      throw new InsufficientFundsException();
+  private void prepareNew(final Account account) {
+    final var initialTransactionLimit = account.getTransactionLimit();
+    // Standardwerte setzen basierend auf der Kategorie
+    initializeDefaults(account);
+
+    if (initialTransactionLimit != 0) {
+      account.setTransactionLimit(initialTransactionLimit);
     }
-    account.setBalance(newBalance);
-    accountRepository.save(account);
-    logger().debug("adjustBalance: account={}", account);
-    return account;
+
+    account.setState(ACTIVE);
+    account.setBalance(BigDecimal.ZERO);
   }
 
   private void initializeDefaults(Account account) {
@@ -325,4 +497,12 @@ public class AccountWriteService {
       default -> throw new IllegalStateException("Unexpected account type: " + account.getCategory());
     }
   }
+
+  private static List<RoleType> roles(final CustomUserDetails user) {
+    return user.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .map(str -> str.substring(RoleType.ROLE_PREFIX.length()))
+        .map(RoleType::valueOf)
+        .toList();
+  }
 }
@@ -0,0 +1,96 @@
+package com.omnixys.account.service;
+
+import com.omnixys.account.models.entities.Transaction;
+import com.omnixys.account.repository.TransactionRepository;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import com.omnixys.account.utils.TimeOrderedUuid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.UUID;
+
+import static com.omnixys.account.models.enums.TransactionType.DEPOSIT;
+import static com.omnixys.account.models.enums.TransactionType.TRANSFER;
+import static com.omnixys.account.models.enums.TransactionType.WITHDRAW;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+/**
+ * Schreibt das Buchungsjournal (append-only).
+ * <p>
+ * Die Einträge werden immer in der Transaktion der zugehörigen Saldoänderung geschrieben, daher verlangt der
+ * Service eine laufende Transaktion. Das eigentliche INSERT erfolgt beim Flush als JDBC-Batch.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Service
+@Transactional(propagation = MANDATORY)
+@RequiredArgsConstructor
+public class LedgerService {
+
+  private final TransactionRepository transactionRepository;
+  private final LoggerPlusFactory factory;
+  private LoggerPlus logger() {
+    return factory.getLogger(getClass());
+  }
+
+  /**
+   * Erstellt einen Journaleintrag für eine Ein- oder Auszahlung auf einem einzelnen Konto.
+   *
+   * @param accountId ID des Kontos
+   * @param amount    gebuchter Betrag, negativ für Auszahlungen
+   * @return Der noch nicht gespeicherte Journaleintrag
+   */
+  public static Transaction posting(final UUID accountId, final BigDecimal amount) {
+    final var withdrawal = amount.signum() < 0;
+    return Transaction.builder()
+        .id(TimeOrderedUuid.next())
+        .transactionType(withdrawal ? WITHDRAW : DEPOSIT)
+        .amount(amount.abs())
+        .sender(withdrawal ? accountId : null)
+        .recipient(withdrawal ? null : accountId)
+        .build();
+  }
+
+  /**
+   * Erstellt einen Journaleintrag für eine Überweisung zwischen zwei Konten.
+   *
+   * @param from   ID des belasteten Kontos
+   * @param to     ID des begünstigten Kontos
+   * @param amount überwiesener Betrag
+   * @return Der noch nicht gespeicherte Journaleintrag
+   */
+  public static Transaction transfer(final UUID from, final UUID to, final BigDecimal amount) {
+    return Transaction.builder()
+        .id(TimeOrderedUuid.next())
+        .transactionType(TRANSFER)
+        .amount(amount)
+        .sender(from)
+        .recipient(to)
+        .build();
+  }
+
+  /**
+   * Fügt einen Journaleintrag hinzu.
+   *
+   * @param transaction der neue Eintrag
+   */
+  public void record(final Transaction transaction) {
+    logger().trace("record: transaction={}", transaction);
+    transactionRepository.save(transaction);
+  }
+
+  /**
+   * Fügt mehrere Journaleinträge hinzu. Sie werden beim Flush gemeinsam als JDBC-Batch eingefügt.
+   *
+   * @param transactions die neuen Einträge
+   */
+  public void recordAll(final Collection<Transaction> transactions) {
+    logger().debug("recordAll: count={}", transactions.size());
+    transactionRepository.saveAll(transactions);
+  }
+}
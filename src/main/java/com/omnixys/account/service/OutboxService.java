@@ -0,0 +1,53 @@
+package com.omnixys.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.account.models.entities.OutboxEvent;
+import com.omnixys.account.repository.OutboxRepository;
+import com.omnixys.account.utils.TimeOrderedUuid;
+import io.opentelemetry.api.trace.Span;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+/**
+ * Schreibt Events in die Outbox statt sie direkt an Kafka zu senden.
+ * <p>
+ * Die Events werden in der Transaktion der fachlichen Änderung geschrieben, daher verlangt der Service eine
+ * laufende Transaktion: bei einem Rollback wird auch das Event verworfen, nach dem Commit versendet es der
+ * {@link com.omnixys.account.messaging.OutboxRelay} auch dann, wenn der Pod vorher abstürzt.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+@Service
+@Transactional(propagation = MANDATORY)
+@RequiredArgsConstructor
+public class OutboxService {
+
+  private final OutboxRepository outboxRepository;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Stellt ein Event für den Versand ein. Der aktuelle Span wird für den Header {@code traceparent} übernommen.
+   *
+   * @param topic     Ziel-Topic
+   * @param operation Name der Aktion für den Header {@code x-event-type}
+   * @param payload   Event-Inhalt
+   */
+  public void append(final String topic, final String operation, final Object payload) {
+    final var spanContext = Span.current().getSpanContext();
+    final var valid = spanContext.isValid();
+    outboxRepository.save(OutboxEvent.builder()
+        .id(TimeOrderedUuid.next())
+        .topic(topic)
+        .operation(operation)
+        .type(payload.getClass().getName())
+        .payload(objectMapper.valueToTree(payload).toString())
+        .traceId(valid ? spanContext.getTraceId() : null)
+        .spanId(valid ? spanContext.getSpanId() : null)
+        .sampled(valid && spanContext.isSampled())
+        .build());
+  }
+}
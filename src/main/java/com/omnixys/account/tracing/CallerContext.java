@@ -0,0 +1,110 @@
+package com.omnixys.account.tracing;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ermittelt den Aufrufer-Kontext {@code Klasse#methode} für {@link LoggerPlus}.
+ * <p>
+ * Beim Anlegen wird der Bytecode der Klasse einmal gelesen und für jede String-Konstante vermerkt, in welcher
+ * Methode sie vorkommt. Ein Template, das als Konstante in genau einer Methode steht, kann nur von dort geloggt
+ * werden; sein Kontext steht damit fest und kostet bei der Auflösung nur einen Map-Zugriff. Templates, die in
+ * mehreren Methoden vorkommen oder zur Laufzeit zusammengesetzt werden, werden bei jedem Aufruf per
+ * {@link StackWalker} aufgelöst, so dass {@code LogDTO.context} immer stimmt.
+ * </p>
+ * <p>
+ * Lambdas liegen als synthetische Methoden in derselben Klasse ({@code lambda$methode$0}) und werden unter
+ * diesem Namen aufgelöst, wie es auch {@link #walk()} tut. Kann der Bytecode nicht gelesen werden, wird jede
+ * Nachricht per {@link StackWalker} aufgelöst.
+ * </p>
+ */
+public final class CallerContext {
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final Class<?> clazz;
+    private final String simpleName;
+    private final Map<String, String> contextByTemplate;
+
+    public CallerContext(final Class<?> clazz) {
+        this.clazz = clazz;
+        this.simpleName = clazz.getSimpleName();
+        this.contextByTemplate = scan(clazz, simpleName);
+    }
+
+    /**
+     * Liefert den Kontext der Aufrufstelle, die das Template loggt.
+     *
+     * @param template das unformatierte Template der Log-Nachricht
+     * @return {@code Klasse#methode} oder der einfache Klassenname, falls die Klasse nicht auf dem Stack liegt
+     */
+    public String resolve(final String template) {
+        final var context = template == null ? null : contextByTemplate.get(template);
+        return context != null ? context : walk();
+    }
+
+    /**
+     * Durchläuft den Stack bis zum ersten Frame der Klasse.
+     *
+     * @return {@code Klasse#methode} oder der einfache Klassenname
+     */
+    public String walk() {
+        return WALKER.walk(frames -> frames
+            .filter(f -> f.getDeclaringClass().equals(clazz))
+            .findFirst()
+            .map(frame -> simpleName + '#' + frame.getMethodName())
+            .orElse(simpleName));
+    }
+
+    /**
+     * Liest die String-Konstanten aus dem Bytecode der Klasse.
+     *
+     * @return Kontext je String-Konstante, die in genau einer Methode vorkommt; leer, falls der Bytecode nicht
+     *     lesbar ist
+     */
+    private static Map<String, String> scan(final Class<?> clazz, final String simpleName) {
+        final var loader = clazz.getClassLoader() != null ? clazz.getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (var in = loader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+            if (in == null) {
+                return Map.of();
+            }
+            // Methode je Konstante; leer, sobald die Konstante in einer zweiten Methode vorkommt
+            final var methodByConstant = new HashMap<String, String>();
+            new ClassReader(in).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(
+                    final int access,
+                    final String name,
+                    final String descriptor,
+                    final String signature,
+                    final String[] exceptions
+                ) {
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visitLdcInsn(final Object value) {
+                            if (value instanceof String constant) {
+                                methodByConstant.merge(constant, name, (first, _) -> first.equals(name) ? first : "");
+                            }
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            final var contextByTemplate = new HashMap<String, String>(methodByConstant.size());
+            methodByConstant.forEach((constant, method) -> {
+                if (!method.isEmpty()) {
+                    contextByTemplate.put(constant, simpleName + '#' + method);
+                }
+            });
+            return Map.copyOf(contextByTemplate);
+        } catch (IOException | IllegalArgumentException _) {
+            return Map.of();
+        }
+    }
+}
@@ -1,69 +1,179 @@
 package com.omnixys.account.tracing;
 
 import com.omnixys.account.messaging.KafkaPublisherService;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import static org.slf4j.event.Level.ERROR;
+import static org.slf4j.event.Level.INFO;
+import static org.slf4j.event.Level.WARN;
 
 /**
  * Erweiterter Logger mit Kafka-Unterstützung.
  * <p>
  * Loggt gleichzeitig in die Konsole (Slf4j) und an einen zentralen Logging-Service via Kafka.
  * </p>
+ * <p>
+ * Die Platzhalter {@code {}} werden wie bei Slf4j ersetzt; ist das letzte Argument ein {@link Throwable}, wird
+ * dessen Stacktrace mitgeloggt. {@code trace} und {@code debug} formatieren die Nachricht nur, wenn der Level
+ * aktiviert ist. Für bis zu drei Argumente gibt es eigene Überladungen, so dass bei deaktiviertem Level auch kein
+ * Array für die Varargs angelegt wird. {@code info}, {@code warn} und {@code error} werden unabhängig vom
+ * Konsolen-Level immer an Kafka gesendet und daher immer formatiert.
+ * </p>
+ * <p>
+ * Der Kontext {@code Klasse#methode} für Kafka wird über {@link CallerContext} aus den Templates im Bytecode der
+ * Klasse ermittelt, statt bei jeder Nachricht den Stack zu durchlaufen.
+ * </p>
  */
-@RequiredArgsConstructor
 public class LoggerPlus {
 
     private final Logger logger;
     private final String serviceName;
     private final KafkaPublisherService kafkaPublisherService;
-    private final Class<?> clazz;
+    private final CallerContext callerContext;
+
+    public LoggerPlus(
+        final Logger logger,
+        final String serviceName,
+        final KafkaPublisherService kafkaPublisherService,
+        final Class<?> clazz
+    ) {
+        this.logger = logger;
+        this.serviceName = serviceName;
+        this.kafkaPublisherService = kafkaPublisherService;
+        this.callerContext = new CallerContext(clazz);
+    }
 
     public static LoggerPlus of(Class<?> clazz, final KafkaPublisherService publisher, final String serviceName) {
         return new LoggerPlus(LoggerFactory.getLogger(clazz), serviceName, publisher, clazz);
     }
 
-    private String getCallerContext() {
-        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
-            .walk(frames -> frames
-                .filter(f -> f.getDeclaringClass().equals(clazz))
-                .findFirst()
-                .map(frame -> String.format("%s#%s",clazz.getSimpleName(), frame.getMethodName()))
-                .orElse(clazz.getSimpleName()));
+    private void sendLog(String level, String template, String message) {
+        var context = callerContext.resolve(template);
+        kafkaPublisherService.log(level, template, message, serviceName, context);
+    }
+
+    public boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // TRACE und DEBUG: nur Konsole, Slf4j formatiert erst nach der Level-Prüfung
+    // ----------------------------------------------------------------------------------------------------------------
+
+    public void trace(String format) {
+        logger.trace(format);
+    }
+
+    public void trace(String format, Object arg) {
+        logger.trace(format, arg);
     }
 
-    private void sendLog(String level, String message) {
-        var context = getCallerContext();
-        kafkaPublisherService.log(level, message, serviceName, context);
+    public void trace(String format, Object arg1, Object arg2) {
+        logger.trace(format, arg1, arg2);
+    }
+
+    public void trace(String format, Object arg1, Object arg2, Object arg3) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format, arg1, arg2, arg3);
+        }
+    }
+
+    public void trace(String format, Object... args) {
+        logger.trace(format, args);
+    }
+
+    public void debug(String format) {
+        logger.debug(format);
+    }
+
+    public void debug(String format, Object arg) {
+        logger.debug(format, arg);
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        logger.debug(format, arg1, arg2);
+    }
+
+    public void debug(String format, Object arg1, Object arg2, Object arg3) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg1, arg2, arg3);
+        }
     }
 
     public void debug(String format, Object... args) {
-        String msg = String.format(format.replace("{}", "%s"), args);
-        logger.debug(msg);
-//        sendLog("DEBUG", msg);
+        logger.debug(format, args);
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // INFO, WARN und ERROR: Konsole und Kafka
+    // ----------------------------------------------------------------------------------------------------------------
+
+    public void info(String format) {
+        emit(INFO, format, format, null);
+    }
+
+    public void info(String format, Object arg) {
+        emit(INFO, format, MessageFormatter.format(format, arg));
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        emit(INFO, format, MessageFormatter.format(format, arg1, arg2));
     }
 
     public void info(String format, Object... args) {
-        String msg = String.format(format.replace("{}", "%s"), args);
-        logger.info(msg);
-        sendLog("INFO", msg);
+        emit(INFO, format, MessageFormatter.arrayFormat(format, args));
+    }
+
+    public void warn(String format) {
+        emit(WARN, format, format, null);
+    }
+
+    public void warn(String format, Object arg) {
+        emit(WARN, format, MessageFormatter.format(format, arg));
+    }
+
+    public void warn(String format, Object arg1, Object arg2) {
+        emit(WARN, format, MessageFormatter.format(format, arg1, arg2));
     }
 
     public void warn(String format, Object... args) {
-        String msg = String.format(format.replace("{}", "%s"), args);
-        logger.warn(msg);
-        sendLog("WARN", msg);
+        emit(WARN, format, MessageFormatter.arrayFormat(format, args));
+    }
+
+    public void error(String format) {
+        emit(ERROR, format, format, null);
+    }
+
+    public void error(String format, Object arg) {
+        emit(ERROR, format, MessageFormatter.format(format, arg));
+    }
+
+    public void error(String format, Object arg1, Object arg2) {
+        emit(ERROR, format, MessageFormatter.format(format, arg1, arg2));
     }
 
     public void error(String format, Object... args) {
-        String msg = String.format(format.replace("{}", "%s"), args);
-        logger.error(msg);
-        sendLog("ERROR", msg);
+        emit(ERROR, format, MessageFormatter.arrayFormat(format, args));
     }
 
-    public void trace(String format, Object... args) {
-        String msg = String.format(format.replace("{}", "%s"), args);
-        logger.trace(msg);
-//        sendLog("TRACE", msg);
+    private void emit(Level level, String template, FormattingTuple tuple) {
+        emit(level, template, tuple.getMessage(), tuple.getThrowable());
+    }
+
+    private void emit(Level level, String template, String msg, Throwable throwable) {
+        switch (level) {
+            case INFO -> logger.info(msg, throwable);
+            case WARN -> logger.warn(msg, throwable);
+            default -> logger.error(msg, throwable);
+        }
+        sendLog(level.name(), template, msg);
     }
 }
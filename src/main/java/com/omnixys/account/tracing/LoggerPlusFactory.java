@@ -6,6 +6,10 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Erzeugt {@link LoggerPlus}-Instanzen. Je Klasse wird genau eine Instanz angelegt und wiederverwendet, so dass
+ * {@code logger()} in den Services ohne Allokation auskommt.
+ */
 @Component
 @RequiredArgsConstructor
 public class LoggerPlusFactory {
@@ -13,12 +17,19 @@ public class LoggerPlusFactory {
     private final KafkaPublisherService kafkaPublisherService;
     private final AppProperties appProperties;
 
+    private final ClassValue<LoggerPlus> loggers = new ClassValue<>() {
+        @Override
+        protected LoggerPlus computeValue(final Class<?> clazz) {
+            return new LoggerPlus(
+                LoggerFactory.getLogger(clazz),
+                appProperties.getName(),
+                kafkaPublisherService,
+                clazz
+            );
+        }
+    };
+
     public LoggerPlus getLogger(Class<?> clazz) {
-        return new LoggerPlus(
-            LoggerFactory.getLogger(clazz),
-            appProperties.getName(),
-            kafkaPublisherService,
-            clazz
-        );
+        return loggers.get(clazz);
     }
 }
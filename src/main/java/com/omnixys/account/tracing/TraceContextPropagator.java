@@ -0,0 +1,328 @@
+package com.omnixys.account.tracing;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Liest und schreibt den Trace-Kontext in Kafka-Headern direkt auf den Bytes der Header-Werte.
+ * <p>
+ * Unterstützt W3C Trace Context ({@code traceparent}, {@code tracestate}) und B3, sowohl als Single-Header
+ * {@code b3} als auch mit {@code X-B3-TraceId}, {@code X-B3-SpanId}, {@code X-B3-Sampled} und {@code X-B3-Flags}.
+ * Beim Lesen hat {@code traceparent} Vorrang. Es entstehen keine Zwischen-Strings, kein {@code split()} und kein
+ * {@code String.format}: Allokiert werden nur die beiden IDs des {@link SpanContext} bzw. der Header-Wert.
+ * </p>
+ *
+ * @since 17.10.2026
+ */
+public final class TraceContextPropagator {
+
+    public static final String TRACEPARENT = "traceparent";
+    public static final String TRACESTATE = "tracestate";
+    public static final String B3 = "b3";
+    public static final String B3_TRACE_ID = "X-B3-TraceId";
+    public static final String B3_SPAN_ID = "X-B3-SpanId";
+    public static final String B3_SAMPLED = "X-B3-Sampled";
+    public static final String B3_FLAGS = "X-B3-Flags";
+
+    private static final int TRACE_ID_LENGTH = 32;
+    private static final int SPAN_ID_LENGTH = 16;
+    /** {@code 00-<trace-id>-<span-id>-<flags>} */
+    private static final int TRACEPARENT_LENGTH = 3 + TRACE_ID_LENGTH + 1 + SPAN_ID_LENGTH + 1 + 2;
+    /** {@code <trace-id>-<span-id>-<sampled>} */
+    private static final int B3_LENGTH = TRACE_ID_LENGTH + 1 + SPAN_ID_LENGTH + 2;
+    private static final int MAX_TRACESTATE_ENTRIES = 32;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private TraceContextPropagator() {
+    }
+
+    /**
+     * Liest den Trace-Kontext aus {@code traceparent} und {@code tracestate}, sonst aus den B3-Headern.
+     *
+     * @param headers Header des Records
+     * @return Der entfernte SpanContext oder {@code null}, falls kein gültiger Kontext enthalten ist
+     */
+    public static SpanContext extract(final Headers headers) {
+        final var traceparent = headers.lastHeader(TRACEPARENT);
+        if (traceparent != null) {
+            final var context = parseTraceparent(traceparent.value(), headers.lastHeader(TRACESTATE));
+            if (context != null) {
+                return context;
+            }
+        }
+        final var b3 = headers.lastHeader(B3);
+        if (b3 != null) {
+            return parseB3(b3.value());
+        }
+        return parseB3Multi(headers);
+    }
+
+    /**
+     * Schreibt {@code traceparent}, bei Bedarf {@code tracestate} und optional {@code b3}.
+     *
+     * @param spanContext der Kontext; ungültige Kontexte werden ignoriert
+     * @param headers     Ziel
+     * @param b3          zusätzlich den B3-Single-Header schreiben
+     */
+    public static void inject(final SpanContext spanContext, final Headers headers, final boolean b3) {
+        if (spanContext == null || !spanContext.isValid()) {
+            return;
+        }
+        headers.add(new RecordHeader(TRACEPARENT, traceparent(spanContext)));
+        final var traceState = spanContext.getTraceState();
+        if (!traceState.isEmpty()) {
+            headers.add(new RecordHeader(TRACESTATE, tracestate(traceState)));
+        }
+        if (b3) {
+            headers.add(new RecordHeader(B3, b3(spanContext)));
+        }
+    }
+
+    /**
+     * @param spanContext ein gültiger Kontext
+     * @return Der Wert für {@code traceparent}
+     */
+    public static byte[] traceparent(final SpanContext spanContext) {
+        final var value = new byte[TRACEPARENT_LENGTH];
+        value[0] = '0';
+        value[1] = '0';
+        value[2] = '-';
+        writeAscii(spanContext.getTraceId(), value, 3);
+        value[3 + TRACE_ID_LENGTH] = '-';
+        writeAscii(spanContext.getSpanId(), value, 4 + TRACE_ID_LENGTH);
+        value[4 + TRACE_ID_LENGTH + SPAN_ID_LENGTH] = '-';
+        final var flags = spanContext.getTraceFlags().asByte();
+        value[TRACEPARENT_LENGTH - 2] = HEX[(flags >> 4) & 0xF];
+        value[TRACEPARENT_LENGTH - 1] = HEX[flags & 0xF];
+        return value;
+    }
+
+    /**
+     * @param spanContext ein gültiger Kontext
+     * @return Der Wert für {@code b3}
+     */
+    public static byte[] b3(final SpanContext spanContext) {
+        final var value = new byte[B3_LENGTH];
+        writeAscii(spanContext.getTraceId(), value, 0);
+        value[TRACE_ID_LENGTH] = '-';
+        writeAscii(spanContext.getSpanId(), value, TRACE_ID_LENGTH + 1);
+        value[B3_LENGTH - 2] = '-';
+        value[B3_LENGTH - 1] = (byte) (spanContext.isSampled() ? '1' : '0');
+        return value;
+    }
+
+    /**
+     * @param traceState ein nicht leerer TraceState
+     * @return Der Wert für {@code tracestate}
+     */
+    public static byte[] tracestate(final TraceState traceState) {
+        final var length = new int[] {-1};
+        traceState.forEach((key, value) -> length[0] += key.length() + value.length() + 2);
+        final var bytes = new byte[length[0]];
+        final var position = new int[] {0};
+        traceState.forEach((key, value) -> {
+            if (position[0] > 0) {
+                bytes[position[0]++] = ',';
+            }
+            writeAscii(key, bytes, position[0]);
+            position[0] += key.length();
+            bytes[position[0]++] = '=';
+            writeAscii(value, bytes, position[0]);
+            position[0] += value.length();
+        });
+        return bytes;
+    }
+
+    private static SpanContext parseTraceparent(final byte[] value, final Header tracestate) {
+        if (value == null || value.length < TRACEPARENT_LENGTH) {
+            return null;
+        }
+        final var version = hexByte(value, 0);
+        // Version 00 hat genau diese Länge, spätere Versionen dürfen Felder anhängen
+        if (version < 0 || version == 0xFF || (version == 0 && value.length != TRACEPARENT_LENGTH)
+            || (value.length > TRACEPARENT_LENGTH && value[TRACEPARENT_LENGTH] != '-')) {
+            return null;
+        }
+        if (value[2] != '-' || value[3 + TRACE_ID_LENGTH] != '-' || value[4 + TRACE_ID_LENGTH + SPAN_ID_LENGTH] != '-') {
+            return null;
+        }
+        final var flags = hexByte(value, TRACEPARENT_LENGTH - 2);
+        if (flags < 0) {
+            return null;
+        }
+        return remoteContext(
+            ascii(value, 3, TRACE_ID_LENGTH),
+            ascii(value, 4 + TRACE_ID_LENGTH, SPAN_ID_LENGTH),
+            TraceFlags.fromByte((byte) flags),
+            tracestate == null ? TraceState.getDefault() : parseTracestate(tracestate.value())
+        );
+    }
+
+    /**
+     * Liest {@code <trace-id>-<span-id>[-<sampled>[-<parent-span-id>]]}; ein einzelnes Sampling-Flag ohne IDs
+     * ergibt keinen Kontext.
+     */
+    private static SpanContext parseB3(final byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        final var traceIdEnd = indexOf(value, '-', 0);
+        if (traceIdEnd != SPAN_ID_LENGTH && traceIdEnd != TRACE_ID_LENGTH) {
+            return null;
+        }
+        final var spanIdEnd = traceIdEnd + 1 + SPAN_ID_LENGTH;
+        if (value.length < spanIdEnd || (value.length > spanIdEnd && value[spanIdEnd] != '-')) {
+            return null;
+        }
+        final var sampled = value.length > spanIdEnd + 1 && (value[spanIdEnd + 1] == '1' || value[spanIdEnd + 1] == 'd');
+        return remoteContext(
+            traceId(value, 0, traceIdEnd),
+            ascii(value, traceIdEnd + 1, SPAN_ID_LENGTH),
+            sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+            TraceState.getDefault()
+        );
+    }
+
+    private static SpanContext parseB3Multi(final Headers headers) {
+        final var traceId = headers.lastHeader(B3_TRACE_ID);
+        final var spanId = headers.lastHeader(B3_SPAN_ID);
+        if (traceId == null || spanId == null) {
+            return null;
+        }
+        final var traceIdValue = traceId.value();
+        final var spanIdValue = spanId.value();
+        if (traceIdValue == null || spanIdValue == null || spanIdValue.length != SPAN_ID_LENGTH
+            || (traceIdValue.length != SPAN_ID_LENGTH && traceIdValue.length != TRACE_ID_LENGTH)) {
+            return null;
+        }
+        final var sampled = isOne(headers.lastHeader(B3_FLAGS)) || isSampled(headers.lastHeader(B3_SAMPLED));
+        return remoteContext(
+            traceId(traceIdValue, 0, traceIdValue.length),
+            ascii(spanIdValue, 0, SPAN_ID_LENGTH),
+            sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+            TraceState.getDefault()
+        );
+    }
+
+    /**
+     * Liest {@code key=value,...}. Die Einträge werden von rechts eingefügt, weil der Builder vorn einfügt;
+     * ungültige Einträge verwirft der Builder.
+     */
+    private static TraceState parseTracestate(final byte[] value) {
+        if (value == null || value.length == 0) {
+            return TraceState.getDefault();
+        }
+        final var builder = TraceState.builder();
+        var entries = 0;
+        var end = value.length;
+        while (end > 0 && entries < MAX_TRACESTATE_ENTRIES) {
+            final var separator = lastIndexOf(value, ',', end - 1);
+            var start = separator + 1;
+            var stop = end;
+            while (start < stop && isWhitespace(value[start])) {
+                start++;
+            }
+            while (stop > start && isWhitespace(value[stop - 1])) {
+                stop--;
+            }
+            final var equals = indexOf(value, '=', start);
+            if (equals > start && equals < stop - 1) {
+                builder.put(ascii(value, start, equals - start), ascii(value, equals + 1, stop - equals - 1));
+                entries++;
+            }
+            end = separator;
+        }
+        return builder.build();
+    }
+
+    private static SpanContext remoteContext(
+        final String traceId,
+        final String spanId,
+        final TraceFlags traceFlags,
+        final TraceState traceState
+    ) {
+        final var context = SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, traceState);
+        return context.isValid() ? context : null;
+    }
+
+    /**
+     * Liest eine 64- oder 128-Bit-Trace-ID; 64-Bit-IDs werden links mit Nullen aufgefüllt.
+     */
+    private static String traceId(final byte[] value, final int offset, final int length) {
+        if (length == TRACE_ID_LENGTH) {
+            return ascii(value, offset, length);
+        }
+        final var padded = new byte[TRACE_ID_LENGTH];
+        Arrays.fill(padded, 0, TRACE_ID_LENGTH - length, (byte) '0');
+        System.arraycopy(value, offset, padded, TRACE_ID_LENGTH - length, length);
+        return new String(padded, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isSampled(final Header header) {
+        if (header == null || header.value() == null) {
+            return false;
+        }
+        final var value = header.value();
+        return isOne(header) || (value.length == 4 && value[0] == 't' && value[1] == 'r' && value[2] == 'u' && value[3] == 'e');
+    }
+
+    private static boolean isOne(final Header header) {
+        return header != null && header.value() != null && header.value().length == 1 && header.value()[0] == '1';
+    }
+
+    /** ISO-8859-1 wird ohne Dekodierung in einen kompakten String kopiert. */
+    private static String ascii(final byte[] value, final int offset, final int length) {
+        return new String(value, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writeAscii(final String value, final byte[] target, final int offset) {
+        for (int i = 0; i < value.length(); i++) {
+            target[offset + i] = (byte) value.charAt(i);
+        }
+    }
+
+    private static int hexByte(final byte[] value, final int offset) {
+        final var high = hexDigit(value[offset]);
+        final var low = hexDigit(value[offset + 1]);
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    private static int hexDigit(final byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static int indexOf(final byte[] value, final char c, final int from) {
+        for (int i = from; i < value.length; i++) {
+            if (value[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(final byte[] value, final char c, final int from) {
+        for (int i = from; i >= 0; i--) {
+            if (value[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
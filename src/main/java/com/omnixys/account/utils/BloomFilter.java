@@ -0,0 +1,94 @@
+package com.omnixys.account.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-freier Bloom-Filter für Zeichenketten.
+ * <p>
+ * Größe und Anzahl der Hashfunktionen werden aus der erwarteten Anzahl der Einträge und der gewünschten
+ * Falsch-Positiv-Rate berechnet. Die Bitpositionen ergeben sich per Double-Hashing aus zwei 64-Bit-Hashes
+ * (FNV-1a, nachgemischt mit SplitMix64). Einträge können nicht entfernt werden; ältere Einträge verwirft man,
+ * indem man den Filter durch einen neuen ersetzt.
+ * </p>
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    /**
+     * @param expectedEntries          erwartete Anzahl der Einträge
+     * @param falsePositiveProbability gewünschte Falsch-Positiv-Rate bei {@code expectedEntries} Einträgen
+     */
+    public BloomFilter(final long expectedEntries, final double falsePositiveProbability) {
+        if (expectedEntries <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Ungültige Parameter für den Bloom-Filter");
+        }
+        final var optimalBits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        final var wordCount = Math.toIntExact(Math.max(1, (optimalBits + 63) >>> 6));
+        words = new AtomicLongArray(wordCount);
+        bits = (long) wordCount << 6;
+        hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+    }
+
+    /**
+     * Nimmt einen Eintrag auf.
+     *
+     * @param key der Eintrag
+     */
+    public void put(final String key) {
+        final var h1 = hash(key);
+        final var h2 = mix(h1 ^ 0x9E37_79B9_7F4A_7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            final var bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            final var index = (int) (bit >>> 6);
+            final var mask = 1L << bit;
+            if ((words.getAndUpdate(index, word -> word | mask) & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @param key der Eintrag
+     * @return {@code false}, falls der Eintrag sicher nicht enthalten ist; {@code true}, falls er vermutlich
+     *         enthalten ist
+     */
+    public boolean mightContain(final String key) {
+        final var h1 = hash(key);
+        final var h2 = mix(h1 ^ 0x9E37_79B9_7F4A_7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            final var bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Die aus dem Füllgrad geschätzte aktuelle Falsch-Positiv-Rate
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) bitsSet.get() / bits, hashes);
+    }
+
+    private static long hash(final String key) {
+        var hash = 0xCBF2_9CE4_8422_2325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x0100_0000_01B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(final long value) {
+        var z = value + 0x9E37_79B9_7F4A_7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
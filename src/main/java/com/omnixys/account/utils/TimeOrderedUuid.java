@@ -0,0 +1,40 @@
+package com.omnixys.account.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Erzeugt zeitlich sortierbare UUIDs nach RFC 9562 (Version 7).
+ * <p>
+ * Die oberen 48 Bit enthalten den Zeitstempel in Millisekunden, die folgenden 12 Bit einen Zähler, der
+ * innerhalb derselben Millisekunde hochgezählt wird. Damit sind die IDs innerhalb einer JVM streng monoton
+ * und neue Datensätze landen im B-Baum des Primärschlüssels immer am rechten Rand.
+ * </p>
+ */
+public final class TimeOrderedUuid {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    /** Zuletzt vergebener Wert aus Zeitstempel (48 Bit) und Zähler (12 Bit). */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    /**
+     * Liefert die nächste zeitlich sortierbare UUID.
+     *
+     * @return eine neue UUID der Version 7
+     */
+    public static UUID next() {
+        final var now = System.currentTimeMillis() << 12;
+        final var timeAndCounter = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        final var msb = (timeAndCounter >>> 12) << 16 | VERSION_7 | (timeAndCounter & 0xFFFL);
+        final var lsb = ThreadLocalRandom.current().nextLong() & VARIANT_MASK | VARIANT;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,13 @@
+-- Append-only Buchungsjournal: ein Eintrag pro Saldobewegung
+CREATE TABLE transaction (
+                             id               uuid PRIMARY KEY USING INDEX TABLESPACE accountspace,
+                             transaction_type VARCHAR(20) NOT NULL,
+                             amount           DECIMAL(10, 2) NOT NULL,
+                             sender           uuid,
+                             recipient        uuid,
+                             transaction_date timestamp NOT NULL
+) TABLESPACE accountspace;
+
+-- Bereichsabfragen je Konto und Zeitraum
+CREATE INDEX idx_transaction_sender_date ON transaction (sender, transaction_date) TABLESPACE accountspace WHERE sender IS NOT NULL;
+CREATE INDEX idx_transaction_recipient_date ON transaction (recipient, transaction_date) TABLESPACE accountspace WHERE recipient IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Keyset-Pagination von accountsConnection: ORDER BY created, id
+CREATE INDEX idx_account_created_id ON account (created, id) TABLESPACE accountspace;
@@ -0,0 +1,13 @@
+-- Transactional Outbox: Events werden in der Transaktion der fachlichen Änderung geschrieben, der OutboxRelay
+-- sendet sie in ID-Reihenfolge (zeitlich sortierbare UUIDs) an Kafka und löscht sie danach
+CREATE TABLE outbox (
+                        id        uuid PRIMARY KEY USING INDEX TABLESPACE accountspace,
+                        topic     VARCHAR(255) NOT NULL,
+                        operation VARCHAR(64) NOT NULL,
+                        type      VARCHAR(255) NOT NULL,
+                        payload   jsonb NOT NULL,
+                        trace_id  VARCHAR(32),
+                        span_id   VARCHAR(16),
+                        sampled   boolean NOT NULL DEFAULT false,
+                        created   timestamp NOT NULL
+) TABLESPACE accountspace;
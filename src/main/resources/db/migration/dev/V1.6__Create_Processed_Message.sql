@@ -0,0 +1,7 @@
+-- Idempotente Kafka-Consumer: bereits verarbeitete Nachrichten, werden nach app.kafka.idempotency.ttl gelöscht
+CREATE TABLE processed_message (
+                                   message_key VARCHAR(255) PRIMARY KEY USING INDEX TABLESPACE accountspace,
+                                   processed   timestamp NOT NULL
+) TABLESPACE accountspace;
+
+CREATE INDEX idx_processed_message_processed ON processed_message (processed) TABLESPACE accountspace;
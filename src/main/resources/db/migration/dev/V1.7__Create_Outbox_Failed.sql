@@ -0,0 +1,15 @@
+-- Nicht lesbare Outbox-Events (Typ oder Payload nicht deserialisierbar): der OutboxRelay verschiebt sie hierher,
+-- damit sie die Outbox nicht blockieren; nach der Korrektur können sie zurück in die Outbox kopiert werden
+CREATE TABLE outbox_failed (
+                               id        uuid PRIMARY KEY USING INDEX TABLESPACE accountspace,
+                               topic     VARCHAR(255) NOT NULL,
+                               operation VARCHAR(64) NOT NULL,
+                               type      VARCHAR(255) NOT NULL,
+                               payload   jsonb NOT NULL,
+                               trace_id  VARCHAR(32),
+                               span_id   VARCHAR(16),
+                               sampled   boolean NOT NULL DEFAULT false,
+                               created   timestamp NOT NULL,
+                               error     TEXT NOT NULL,
+                               failed    timestamp NOT NULL
+) TABLESPACE accountspace;
@@ -0,0 +1,2 @@
+-- accountsByUsername: Index-Only-Scan für SELECT id ... WHERE username = ?
+CREATE INDEX idx_account_username ON account (username) INCLUDE (id);
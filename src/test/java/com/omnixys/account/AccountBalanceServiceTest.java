@@ -0,0 +1,233 @@
+package com.omnixys.account;
+
+import com.omnixys.account.cache.AccountCache;
+import com.omnixys.account.exceptions.InsufficientFundsException;
+import com.omnixys.account.exceptions.NotFoundException;
+import com.omnixys.account.messaging.KafkaPublisherService;
+import com.omnixys.account.models.dto.PostingResultDTO;
+import com.omnixys.account.models.entities.Transaction;
+import com.omnixys.account.models.inputs.PostingInput;
+import com.omnixys.account.repository.AccountRepository;
+import com.omnixys.account.repository.AccountRepositoryCustom.LockedBalance;
+import com.omnixys.account.service.AccountBalanceService;
+import com.omnixys.account.service.LedgerService;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+
+import static com.omnixys.account.models.enums.PostingMode.ALL_OR_NOTHING;
+import static com.omnixys.account.models.enums.PostingMode.BEST_EFFORT;
+import static com.omnixys.account.models.enums.PostingStatus.APPLIED;
+import static com.omnixys.account.models.enums.PostingStatus.INSUFFICIENT_FUNDS;
+import static com.omnixys.account.models.enums.PostingStatus.NOT_FOUND;
+import static com.omnixys.account.models.enums.PostingStatus.ROLLED_BACK;
+import static com.omnixys.account.models.enums.TransactionType.DEPOSIT;
+import static com.omnixys.account.models.enums.TransactionType.TRANSFER;
+import static com.omnixys.account.models.enums.TransactionType.WITHDRAW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests für die Buchungs-Engine: Einzelbuchungen, Überweisungen und Buchungsstapel mit Nettobeträgen je Konto,
+ * Ablehnungen und den Modi {@code ALL_OR_NOTHING} und {@code BEST_EFFORT} samt der Einträge im Buchungsjournal.
+ */
+class AccountBalanceServiceTest {
+
+	private static final UUID RICH = UUID.fromString("00000000-0000-0000-0000-000000000001");
+	private static final UUID POOR = UUID.fromString("00000000-0000-0000-0000-000000000002");
+	private static final UUID MISSING = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+	private AccountRepository accountRepository;
+	private LedgerService ledgerService;
+	private AccountCache accountCache;
+	private AccountBalanceService accountBalanceService;
+
+	@BeforeEach
+	void setUp() {
+		accountRepository = mock(AccountRepository.class);
+		ledgerService = mock(LedgerService.class);
+		accountCache = mock(AccountCache.class);
+		final var factory = mock(LoggerPlusFactory.class);
+		when(factory.getLogger(any())).thenReturn(LoggerPlus.of(AccountBalanceService.class, mock(KafkaPublisherService.class), "account"));
+		accountBalanceService = new AccountBalanceService(
+			accountRepository, ledgerService, accountCache, OpenTelemetry.noop().getTracer("test"), factory
+		);
+		when(accountRepository.lockBalances(any())).thenAnswer(invocation -> {
+			final Collection<UUID> ids = invocation.getArgument(0);
+			return List.of(
+				new LockedBalance(RICH, amount("1000.00"), amount("0.00")),
+				new LockedBalance(POOR, amount("10.00"), amount("50.00"))
+			).stream().filter(locked -> ids.contains(locked.id())).toList();
+		});
+	}
+
+	@Test
+	void appliesSinglePostingAndRecordsIt() {
+		when(accountRepository.addToBalance(RICH, amount("-40.00"))).thenReturn(Optional.of(amount("960.00")));
+
+		assertThat(accountBalanceService.apply(RICH, amount("-40.00"))).isEqualTo(amount("960.00"));
+
+		verify(accountCache).evict(RICH);
+		final var transaction = recorded();
+		assertThat(transaction.getTransactionType()).isEqualTo(WITHDRAW);
+		assertThat(transaction.getAmount()).isEqualTo(amount("40.00"));
+		assertThat(transaction.getSender()).isEqualTo(RICH);
+		assertThat(transaction.getRecipient()).isNull();
+	}
+
+	@Test
+	void recordsDepositForPositiveAmount() {
+		when(accountRepository.addToBalance(POOR, amount("5.00"))).thenReturn(Optional.of(amount("15.00")));
+
+		accountBalanceService.apply(POOR, amount("5.00"));
+
+		final var transaction = recorded();
+		assertThat(transaction.getTransactionType()).isEqualTo(DEPOSIT);
+		assertThat(transaction.getRecipient()).isEqualTo(POOR);
+	}
+
+	@Test
+	void rejectsPostingBeyondOverdraftLimit() {
+		when(accountRepository.addToBalance(POOR, amount("-100.00"))).thenReturn(Optional.empty());
+		when(accountRepository.existsById(POOR)).thenReturn(true);
+
+		assertThatThrownBy(() -> accountBalanceService.apply(POOR, amount("-100.00")))
+			.isInstanceOf(InsufficientFundsException.class);
+		verify(ledgerService, never()).record(any());
+	}
+
+	@Test
+	void rejectsPostingOnMissingAccount() {
+		when(accountRepository.addToBalance(MISSING, amount("1.00"))).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> accountBalanceService.apply(MISSING, amount("1.00")))
+			.isInstanceOf(NotFoundException.class);
+		verify(ledgerService, never()).record(any());
+	}
+
+	@Test
+	void transfersInLockOrderAndRecordsOneEntry() {
+		when(accountRepository.addToBalance(POOR, amount("-20.00"))).thenReturn(Optional.of(amount("-10.00")));
+		when(accountRepository.addToBalance(RICH, amount("20.00"))).thenReturn(Optional.of(amount("1020.00")));
+
+		final var result = accountBalanceService.transfer(POOR, RICH, amount("20.00"));
+
+		assertThat(result.fromBalance()).isEqualTo(amount("-10.00"));
+		assertThat(result.toBalance()).isEqualTo(amount("1020.00"));
+		final var order = inOrder(accountRepository);
+		order.verify(accountRepository).addToBalance(RICH, amount("20.00"));
+		order.verify(accountRepository).addToBalance(POOR, amount("-20.00"));
+		final var transaction = recorded();
+		assertThat(transaction.getId()).isEqualTo(result.transactionId());
+		assertThat(transaction.getTransactionType()).isEqualTo(TRANSFER);
+		assertThat(transaction.getSender()).isEqualTo(POOR);
+		assertThat(transaction.getRecipient()).isEqualTo(RICH);
+	}
+
+	@Test
+	void booksNetAmountPerAccount() {
+		final var results = accountBalanceService.applyPostings(List.of(
+			posting(RICH, "100.00", "a"),
+			posting(POOR, "-50.00", "b"),
+			posting(RICH, "-30.00", "c"),
+			posting(POOR, "45.00", "d")
+		), ALL_OR_NOTHING);
+
+		assertThat(results).extracting(PostingResultDTO::status).containsOnly(APPLIED);
+		assertThat(results).extracting(PostingResultDTO::reference).containsExactly("a", "b", "c", "d");
+		assertThat(results).extracting(PostingResultDTO::balance)
+			.containsExactly(amount("1070.00"), amount("5.00"), amount("1070.00"), amount("5.00"));
+		final var deltas = bookedDeltas();
+		assertThat(deltas.keySet()).containsExactly(RICH, POOR);
+		assertThat(deltas.get(RICH)).isEqualTo(amount("70.00"));
+		assertThat(deltas.get(POOR)).isEqualTo(amount("-5.00"));
+		assertThat(recordedAll()).hasSize(4);
+		verify(accountCache).evict(RICH);
+		verify(accountCache).evict(POOR);
+	}
+
+	@Test
+	void rollsBackWholeBatchOnRejection() {
+		final var results = accountBalanceService.applyPostings(List.of(
+			posting(RICH, "-100.00", "a"),
+			posting(POOR, "-61.00", "b"),
+			posting(MISSING, "1.00", "c")
+		), ALL_OR_NOTHING);
+
+		assertThat(results).extracting(PostingResultDTO::status).containsExactly(ROLLED_BACK, INSUFFICIENT_FUNDS, NOT_FOUND);
+		assertThat(results).extracting(PostingResultDTO::balance).containsOnlyNulls();
+		verify(accountRepository, never()).addToBalances(any());
+		verify(ledgerService, never()).recordAll(any());
+		verify(accountCache, never()).evict(any());
+	}
+
+	@Test
+	void appliesAcceptedAccountsInBestEffortMode() {
+		final var results = accountBalanceService.applyPostings(List.of(
+			posting(RICH, "-100.00", "a"),
+			posting(POOR, "-61.00", "b"),
+			posting(MISSING, "1.00", "c"),
+			posting(RICH, "-50.00", "d")
+		), BEST_EFFORT);
+
+		assertThat(results).extracting(PostingResultDTO::status).containsExactly(APPLIED, INSUFFICIENT_FUNDS, NOT_FOUND, APPLIED);
+		assertThat(results).extracting(PostingResultDTO::balance).containsExactly(amount("850.00"), null, null, amount("850.00"));
+		final var deltas = bookedDeltas();
+		assertThat(deltas).containsOnlyKeys(RICH);
+		assertThat(deltas.get(RICH)).isEqualTo(amount("-150.00"));
+		assertThat(recordedAll()).extracting(Transaction::getSender).containsOnly(RICH);
+		verify(accountCache, never()).evict(POOR);
+	}
+
+	@Test
+	void allowsDebitDownToOverdraftLimit() {
+		final var results = accountBalanceService.applyPostings(List.of(posting(POOR, "-60.00", "a")), ALL_OR_NOTHING);
+
+		assertThat(results).extracting(PostingResultDTO::status).containsExactly(APPLIED);
+		assertThat(results.getFirst().balance()).isEqualTo(amount("-50.00"));
+	}
+
+	private Transaction recorded() {
+		final var captor = ArgumentCaptor.forClass(Transaction.class);
+		verify(ledgerService).record(captor.capture());
+		return captor.getValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<Transaction> recordedAll() {
+		final ArgumentCaptor<Collection<Transaction>> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(ledgerService).recordAll(captor.capture());
+		return captor.getValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private SortedMap<UUID, BigDecimal> bookedDeltas() {
+		final ArgumentCaptor<SortedMap<UUID, BigDecimal>> captor = ArgumentCaptor.forClass(SortedMap.class);
+		verify(accountRepository).addToBalances(captor.capture());
+		return captor.getValue();
+	}
+
+	private static PostingInput posting(final UUID accountId, final String amount, final String reference) {
+		return new PostingInput(accountId, amount(amount), reference);
+	}
+
+	private static BigDecimal amount(final String value) {
+		return new BigDecimal(value);
+	}
+}
@@ -0,0 +1,121 @@
+package com.omnixys.account;
+
+import com.omnixys.account.cache.AccountCache;
+import com.omnixys.account.cache.UsernameAccountsCache;
+import com.omnixys.account.exceptions.AccessForbiddenException;
+import com.omnixys.account.messaging.KafkaPublisherService;
+import com.omnixys.account.models.dto.TransferDTO;
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.repository.AccountRepository;
+import com.omnixys.account.repository.AccountRepositoryCustom.DeletedAccount;
+import com.omnixys.account.security.CustomUserDetails;
+import com.omnixys.account.service.AccountBalanceService;
+import com.omnixys.account.service.AccountWriteService;
+import com.omnixys.account.tracing.LoggerPlus;
+import com.omnixys.account.tracing.LoggerPlusFactory;
+import com.omnixys.account.utils.ValidationService;
+import io.opentelemetry.api.OpenTelemetry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.omnixys.account.models.enums.AccountType.SAVINGS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests für die Berechtigungsprüfung bei Überweisungen und die Events der Schreiboperationen.
+ */
+class AccountWriteServiceTest {
+
+	private static final UUID FROM = UUID.randomUUID();
+	private static final UUID TO = UUID.randomUUID();
+	private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+	private AccountRepository accountRepository;
+	private AccountBalanceService accountBalanceService;
+	private KafkaPublisherService kafkaPublisherService;
+	private AccountWriteService accountWriteService;
+
+	@BeforeEach
+	void setUp() {
+		accountRepository = mock(AccountRepository.class);
+		accountBalanceService = mock(AccountBalanceService.class);
+		kafkaPublisherService = mock(KafkaPublisherService.class);
+		final var factory = mock(LoggerPlusFactory.class);
+		when(factory.getLogger(any())).thenReturn(LoggerPlus.of(AccountWriteService.class, mock(KafkaPublisherService.class), "account"));
+		accountWriteService = new AccountWriteService(
+			accountRepository, accountBalanceService, mock(AccountCache.class), mock(UsernameAccountsCache.class),
+			kafkaPublisherService, mock(ValidationService.class), OpenTelemetry.noop().getTracer("test"), factory, mock(EntityManager.class)
+		);
+		when(accountRepository.findUsernameById(FROM)).thenReturn(Optional.of("owner"));
+		when(accountBalanceService.transfer(FROM, TO, AMOUNT)).thenReturn(new TransferDTO(UUID.randomUUID(), BigDecimal.ZERO, AMOUNT));
+	}
+
+	@Test
+	void rejectsTransferFromForeignAccount() {
+		assertThatThrownBy(() -> accountWriteService.transfer(FROM, TO, AMOUNT, user("intruder", "ROLE_USER")))
+			.isInstanceOf(AccessForbiddenException.class);
+		verify(accountBalanceService, never()).transfer(any(), any(), any());
+	}
+
+	@Test
+	void allowsTransferByOwner() {
+		assertThat(accountWriteService.transfer(FROM, TO, AMOUNT, user("owner", "ROLE_USER")).toBalance()).isEqualTo(AMOUNT);
+	}
+
+	@Test
+	void allowsTransferByAdmin() {
+		assertThat(accountWriteService.transfer(FROM, TO, AMOUNT, user("admin", "ROLE_ADMIN")).toBalance()).isEqualTo(AMOUNT);
+		verify(accountRepository, never()).findUsernameById(any());
+	}
+
+	@Test
+	void writesCreatedEventAndMail() {
+		final var account = Account.builder().category(SAVINGS).username("owner").build();
+		when(accountRepository.save(account)).thenReturn(account);
+
+		accountWriteService.create(account);
+
+		verify(kafkaPublisherService).accountCreated(account);
+		verify(kafkaPublisherService).sendMail(account, "USER");
+	}
+
+	@Test
+	void writesNoEventForForbiddenUpdate() {
+		when(accountRepository.findById(FROM)).thenReturn(Optional.of(Account.builder().id(FROM).username("owner").build()));
+
+		assertThatThrownBy(() -> accountWriteService.update(new Account(), FROM, 0, user("intruder", "ROLE_USER")))
+			.isInstanceOf(AccessForbiddenException.class);
+		verify(kafkaPublisherService, never()).accountUpdated(any());
+	}
+
+	@Test
+	void writesDeletedEventPerDeletedAccount() {
+		final var deleted = List.of(new DeletedAccount(FROM, "owner"), new DeletedAccount(TO, "owner"));
+		when(accountRepository.deleteByUserIdsOrUsernames(List.of(), List.of("owner"))).thenReturn(deleted);
+
+		accountWriteService.deleteAllByUserIdsOrUsernames(List.of(), List.of("owner"));
+
+		verify(kafkaPublisherService).accountDeleted(FROM, "owner");
+		verify(kafkaPublisherService).accountDeleted(TO, "owner");
+		verify(kafkaPublisherService, never()).accountCreated(any());
+		verify(kafkaPublisherService, never()).sendMail(any(), anyString());
+	}
+
+	private static CustomUserDetails user(final String username, final String role) {
+		return new CustomUserDetails(username, List.of(new SimpleGrantedAuthority(role)), null);
+	}
+}
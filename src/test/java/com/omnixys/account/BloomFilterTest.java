@@ -0,0 +1,35 @@
+package com.omnixys.account;
+
+import com.omnixys.account.utils.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für den Bloom-Filter des idempotenten Consumers.
+ */
+class BloomFilterTest {
+
+	private static final int ENTRIES = 100_000;
+	private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+	@Test
+	void findsAllEntriesAndKeepsFalsePositiveRate() {
+		final var filter = new BloomFilter(ENTRIES, FALSE_POSITIVE_PROBABILITY);
+		for (int i = 0; i < ENTRIES; i++) {
+			filter.put("account.create.person-0@" + i);
+		}
+
+		for (int i = 0; i < ENTRIES; i++) {
+			assertThat(filter.mightContain("account.create.person-0@" + i)).isTrue();
+		}
+		var falsePositives = 0;
+		for (int i = 0; i < ENTRIES; i++) {
+			if (filter.mightContain("account.create.person-1@" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat((double) falsePositives / ENTRIES).isLessThan(FALSE_POSITIVE_PROBABILITY * 1.5);
+		assertThat(filter.expectedFalsePositiveProbability()).isLessThan(FALSE_POSITIVE_PROBABILITY * 1.5);
+	}
+}
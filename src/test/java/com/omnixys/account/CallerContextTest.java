@@ -0,0 +1,43 @@
+package com.omnixys.account;
+
+import com.omnixys.account.tracing.CallerContext;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für die Ermittlung des Aufrufer-Kontexts von {@code LoggerPlus}.
+ */
+class CallerContextTest {
+
+	private static final String SHARED = "📥 Empfangene Nachricht auf '{}': {}";
+
+	private final CallerContext callerContext = new CallerContext(CallerContextTest.class);
+
+	@Test
+	void resolvesTemplateOfSingleMethod() {
+		assertThat(callerContext.resolve("✅ Konto erstellt: {}")).isEqualTo("CallerContextTest#resolvesTemplateOfSingleMethod");
+	}
+
+	@Test
+	void resolvesSharedTemplateToActualCaller() {
+		for (int i = 0; i < 100; i++) {
+			assertThat(created()).isEqualTo("CallerContextTest#created");
+			assertThat(deleted()).isEqualTo("CallerContextTest#deleted");
+		}
+	}
+
+	@Test
+	void resolvesDynamicTemplateToActualCaller() {
+		final var template = "Dynamisch " + System.nanoTime();
+		assertThat(callerContext.resolve(template)).isEqualTo("CallerContextTest#resolvesDynamicTemplateToActualCaller");
+	}
+
+	private String created() {
+		return callerContext.resolve(SHARED);
+	}
+
+	private String deleted() {
+		return callerContext.resolve(SHARED);
+	}
+}
@@ -0,0 +1,163 @@
+package com.omnixys.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.omnixys.account.messaging.EventSpool;
+import com.omnixys.account.messaging.KafkaUtilService;
+import com.omnixys.account.messaging.SpoolingSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests für den lokalen Spool ausgehender Events, u.a. mit einem Embedded-Kafka-Broker, der gestoppt und
+ * wieder gestartet wird.
+ */
+class EventSpoolTest {
+
+	private static final String TOPIC = "spool-test";
+
+	record TestEvent(int sequence) {
+	}
+
+	@Test
+	void keepsOrderAcrossSegmentsAndRestarts(@TempDir final Path directory) throws IOException {
+		try (var spool = new EventSpool(directory, 64, 10)) {
+			for (int i = 0; i < 20; i++) {
+				assertThat(spool.append(bytes("event-" + i))).isTrue();
+			}
+			assertThat(spool.segmentCount()).isGreaterThan(1);
+			assertThat(strings(spool.peek(3))).containsExactly("event-0", "event-1", "event-2");
+			spool.commit(3);
+		}
+
+		try (var spool = new EventSpool(directory, 64, 10)) {
+			final var remaining = strings(spool.peek(100));
+			assertThat(remaining).hasSize(17).first().isEqualTo("event-3");
+			assertThat(remaining).last().isEqualTo("event-19");
+			spool.commit(17);
+			assertThat(spool.isEmpty()).isTrue();
+			assertThat(spool.segmentCount()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void rejectsAppendsWhenFull(@TempDir final Path directory) throws IOException {
+		try (var spool = new EventSpool(directory, 64, 2)) {
+			var accepted = 0;
+			while (spool.append(bytes("event-" + accepted))) {
+				accepted++;
+			}
+			assertThat(accepted).isPositive();
+			assertThat(spool.segmentCount()).isEqualTo(2);
+			spool.commit(accepted);
+			assertThat(spool.append(bytes("next"))).isTrue();
+		}
+	}
+
+	@Test
+	void spoolsWhileBrokerIsDownAndReplaysAfterRestart(@TempDir final Path directory) throws Exception {
+		final var broker = new EmbeddedKafkaZKBroker(1, true, 1, TOPIC).kafkaPorts(freePort());
+		broker.afterPropertiesSet();
+		final var template = template(broker.getBrokersAsString());
+		final var kafkaUtilService = new KafkaUtilService("account", "test", false);
+		final var sender = new SpoolingSender(
+			directory, 1 << 20, 4, 0.8, Duration.ofMillis(50), Duration.ofMillis(500), 100, Duration.ofSeconds(5),
+			template, kafkaUtilService, new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry()
+		);
+		sender.start();
+		try {
+			template.send(TOPIC, new TestEvent(-1)).get();
+
+			broker.getKafkaServer(0).shutdown();
+			broker.getKafkaServer(0).awaitShutdown();
+			for (int i = 0; i < 10; i++) {
+				sender.send(TOPIC, "test", new TestEvent(i), null);
+			}
+			await().atMost(Duration.ofSeconds(30)).until(sender::isSpooling);
+			for (int i = 10; i < 20; i++) {
+				sender.send(TOPIC, "test", new TestEvent(i), null);
+			}
+
+			broker.restart(0);
+			await().atMost(Duration.ofSeconds(60)).until(() -> !sender.isSpooling());
+
+			final var received = consume(broker.getBrokersAsString(), 20).stream()
+				.map(value -> Integer.parseInt(value.replaceAll("[^-0-9]", "")))
+				.distinct()
+				.toList();
+			assertThat(received).containsAll(IntStream.range(0, 20).boxed().toList());
+			assertThat(received.stream().filter(sequence -> sequence >= 10).toList())
+				.containsExactlyElementsOf(IntStream.range(10, 20).boxed().toList());
+		} finally {
+			sender.stop();
+			broker.destroy();
+		}
+	}
+
+	private static KafkaTemplate<String, Object> template(final String bootstrapServers) {
+		return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of(
+			ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+			ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+			ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+			ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000,
+			ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 1000,
+			ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 3000,
+			ProducerConfig.LINGER_MS_CONFIG, 0
+		)));
+	}
+
+	private static List<String> consume(final String bootstrapServers, final int expected) {
+		final var received = new ArrayList<String>();
+		try (var consumer = new KafkaConsumer<String, String>(Map.of(
+			ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+			ConsumerConfig.GROUP_ID_CONFIG, "spool-test",
+			ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+			ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+			ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class
+		))) {
+			consumer.subscribe(List.of(TOPIC));
+			final var deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+			while (received.size() < expected && System.nanoTime() < deadline) {
+				consumer.poll(Duration.ofMillis(500)).forEach(consumerRecord -> received.add(consumerRecord.value()));
+			}
+		}
+		return received;
+	}
+
+	private static int freePort() throws IOException {
+		try (var socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static byte[] bytes(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static List<String> strings(final List<byte[]> values) {
+		return values.stream().map(value -> new String(value, StandardCharsets.UTF_8)).toList();
+	}
+}
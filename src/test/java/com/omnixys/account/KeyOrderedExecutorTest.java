@@ -0,0 +1,201 @@
+package com.omnixys.account;
+
+import com.omnixys.account.messaging.KeyOrderedExecutor;
+import com.omnixys.account.models.enums.WorkerType;
+import com.omnixys.account.messaging.RetryTopicRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests für die parallele, je Schlüssel geordnete Verarbeitung von Kafka-Records und das Bestätigen erst nach
+ * erfolgreicher Verarbeitung oder Weiterleitung.
+ */
+class KeyOrderedExecutorTest {
+
+	private static final int KEYS = 20;
+	private static final int RECORDS_PER_KEY = 50;
+	private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(10);
+	private static final Duration RETRY_BACKOFF = Duration.ofMillis(10);
+	private static final String TOPIC = "account.create.person";
+
+	@ParameterizedTest
+	@EnumSource(WorkerType.class)
+	void keepsOrderPerKeyAndRunsKeysConcurrently(final WorkerType workers) throws InterruptedException {
+		final var maxInFlight = 16;
+		final var executor = new KeyOrderedExecutor(
+			maxInFlight, workers, 8, Duration.ofSeconds(10), ACQUIRE_TIMEOUT, RETRY_BACKOFF, RETRY_BACKOFF, new SimpleMeterRegistry()
+		);
+		executor.start();
+		final Map<Integer, List<Integer>> processed = new ConcurrentHashMap<>();
+		final var running = new AtomicInteger();
+		final var maxRunning = new AtomicInteger();
+		final var acknowledged = new CountDownLatch(KEYS * RECORDS_PER_KEY);
+
+		for (int sequence = 0; sequence < RECORDS_PER_KEY; sequence++) {
+			for (int key = 0; key < KEYS; key++) {
+				final var currentKey = key;
+				final var currentSequence = sequence;
+				executor.submit(currentKey, () -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					processed.computeIfAbsent(currentKey, _ -> new CopyOnWriteArrayList<>()).add(currentSequence);
+					sleep();
+					running.decrementAndGet();
+				}, acknowledged::countDown);
+			}
+		}
+
+		assertThat(acknowledged.await(30, TimeUnit.SECONDS)).isTrue();
+		executor.stop();
+		final var expected = IntStream.range(0, RECORDS_PER_KEY).boxed().toList();
+		assertThat(processed).hasSize(KEYS);
+		processed.values().forEach(sequences -> assertThat(sequences).containsExactlyElementsOf(expected));
+		assertThat(maxRunning.get()).isGreaterThan(1).isLessThanOrEqualTo(maxInFlight);
+	}
+
+	@Test
+	void acknowledgesOnlyAfterTheFailingRouterForwardedTheRecord() throws InterruptedException {
+		final var kafkaTemplate = kafkaTemplate();
+		when(kafkaTemplate.send(any(ProducerRecord.class)))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar")))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar")))
+			.thenReturn(CompletableFuture.completedFuture(null));
+		final var router = router(kafkaTemplate);
+		final var meterRegistry = new SimpleMeterRegistry();
+		final var executor = new KeyOrderedExecutor(16, WorkerType.VIRTUAL, 8, Duration.ofSeconds(10), ACQUIRE_TIMEOUT, RETRY_BACKOFF, RETRY_BACKOFF, meterRegistry);
+		executor.start();
+		final var acknowledged = new CopyOnWriteArrayList<Integer>();
+		final var done = new CountDownLatch(2);
+
+		executor.submit("user", failingConsumer(router), () -> {
+			acknowledged.add(0);
+			done.countDown();
+		});
+		executor.submit("user", () -> { }, () -> {
+			acknowledged.add(1);
+			done.countDown();
+		});
+
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+		executor.stop();
+		verify(kafkaTemplate, times(3)).send(any(ProducerRecord.class));
+		assertThat(acknowledged).containsExactly(0, 1);
+		assertThat(meterRegistry.counter("kafka.parallel.failed").count()).isEqualTo(2);
+	}
+
+	@Test
+	void leavesTheRecordUnacknowledgedWhenStoppedWhileTheRouterFails() {
+		final var kafkaTemplate = kafkaTemplate();
+		when(kafkaTemplate.send(any(ProducerRecord.class)))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar")));
+		final var meterRegistry = new SimpleMeterRegistry();
+		final var executor = new KeyOrderedExecutor(16, WorkerType.VIRTUAL, 8, Duration.ofSeconds(10), ACQUIRE_TIMEOUT, RETRY_BACKOFF, RETRY_BACKOFF, meterRegistry);
+		executor.start();
+		final var acknowledged = new AtomicInteger();
+
+		executor.submit("user", failingConsumer(router(kafkaTemplate)), acknowledged::incrementAndGet);
+		verify(kafkaTemplate, timeout(5_000).atLeast(2)).send(any(ProducerRecord.class));
+		executor.stop();
+
+		assertThat(acknowledged).hasValue(0);
+		assertThat(meterRegistry.counter("kafka.parallel.abandoned").count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsInsteadOfBlockingWhenNoSlotIsFree() throws InterruptedException {
+		final var meterRegistry = new SimpleMeterRegistry();
+		final var executor = new KeyOrderedExecutor(1, WorkerType.VIRTUAL, 8, Duration.ofSeconds(10), Duration.ofMillis(50), RETRY_BACKOFF, RETRY_BACKOFF, meterRegistry);
+		executor.start();
+		final var release = new CountDownLatch(1);
+		final var first = new CountDownLatch(1);
+		final var second = new CountDownLatch(1);
+		executor.submit("a", () -> await(release), first::countDown);
+
+		final var started = System.nanoTime();
+		assertThatThrownBy(() -> executor.submit("b", () -> { }, second::countDown))
+			.isInstanceOf(RejectedExecutionException.class);
+		assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+		assertThat(meterRegistry.counter("kafka.parallel.rejected").count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(first.await(5, TimeUnit.SECONDS)).isTrue();
+		executor.submit("b", () -> { }, second::countDown);
+		assertThat(second.await(5, TimeUnit.SECONDS)).isTrue();
+		executor.stop();
+	}
+
+	@Test
+	void rejectsImmediatelyAfterStop() {
+		final var executor = new KeyOrderedExecutor(16, WorkerType.VIRTUAL, 8, Duration.ofSeconds(10), ACQUIRE_TIMEOUT, RETRY_BACKOFF, RETRY_BACKOFF, new SimpleMeterRegistry());
+		executor.start();
+		executor.stop();
+
+		final var started = System.nanoTime();
+		assertThatThrownBy(() -> executor.submit("user", () -> { }, () -> { }))
+			.isInstanceOf(RejectedExecutionException.class);
+		assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(ACQUIRE_TIMEOUT);
+	}
+
+	/**
+	 * Nachbildung eines Listeners, dessen Verarbeitung scheitert und der den Record an den Router übergibt.
+	 */
+	private static Runnable failingConsumer(final RetryTopicRouter router) {
+		final var record = new ConsumerRecord<String, Object>(TOPIC, 0, 42, "user", "payload");
+		return () -> router.retry(record, new IllegalStateException("Datenbank nicht erreichbar"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static KafkaTemplate<String, Object> kafkaTemplate() {
+		return mock(KafkaTemplate.class);
+	}
+
+	private static RetryTopicRouter router(final KafkaTemplate<String, Object> kafkaTemplate) {
+		return new RetryTopicRouter(
+			3, Duration.ofSeconds(1), 10, Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMinutes(1),
+			kafkaTemplate, mock(KafkaListenerEndpointRegistry.class), new SimpleMeterRegistry()
+		);
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(1);
+		} catch (InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
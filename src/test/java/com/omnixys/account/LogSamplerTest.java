@@ -0,0 +1,90 @@
+package com.omnixys.account;
+
+import com.omnixys.account.config.LogSamplerProperties;
+import com.omnixys.account.messaging.LogSampler;
+import com.omnixys.account.messaging.LogShipper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests für das Zusammenfassen und Begrenzen von Log-Events vor dem Versand.
+ */
+class LogSamplerTest {
+
+	private static final String TEMPLATE = "❌ Fehler beim Erstellen des Kontos: {}";
+
+	private final ConcurrentLinkedQueue<LogShipper.Entry> shipped = new ConcurrentLinkedQueue<>();
+	private final LogSamplerProperties properties = new LogSamplerProperties();
+	private LogShipper logShipper;
+
+	@BeforeEach
+	void setUp() {
+		logShipper = mock(LogShipper.class);
+		when(logShipper.offer(any())).thenAnswer(invocation -> shipped.add(invocation.getArgument(0)));
+		properties.getLimit().setRate(0);
+		properties.getLimit().setBurst(1);
+	}
+
+	@Test
+	void passesFirstEventAndSummarizesRepetitionsAtEndOfWindow() {
+		final var sampler = new LogSampler(logShipper, properties, new SimpleMeterRegistry());
+		for (int i = 1; i <= 5; i++) {
+			sampler.offer(TEMPLATE, entry("Konto " + i));
+		}
+		assertThat(shipped).extracting(LogShipper.Entry::message).containsExactly("Konto 1");
+
+		sampler.stop();
+
+		assertThat(shipped).extracting(LogShipper.Entry::message, LogShipper.Entry::count)
+			.containsExactly(
+				tuple("Konto 1", 1L),
+				tuple("Konto 5", 4L)
+			);
+	}
+
+	@Test
+	void countsEveryEventWhileWindowsCloseConcurrently() throws InterruptedException, ExecutionException {
+		properties.setWindow(Duration.ofMillis(1));
+		final var sampler = new LogSampler(logShipper, properties, new SimpleMeterRegistry());
+		final var threads = 8;
+		final var eventsPerThread = 50_000;
+
+		sampler.start();
+		final var producers = new ArrayList<Future<?>>(threads);
+		try (var executor = Executors.newFixedThreadPool(threads)) {
+			for (int t = 0; t < threads; t++) {
+				producers.add(executor.submit(() -> {
+					for (int i = 0; i < eventsPerThread; i++) {
+						sampler.offer(TEMPLATE, entry("Konto " + i));
+					}
+				}));
+			}
+		}
+		for (final var producer : producers) {
+			producer.get();
+		}
+		sampler.stop();
+
+		assertThat(shipped.stream().mapToLong(LogShipper.Entry::count).sum()).isEqualTo((long) threads * eventsPerThread);
+		assertThat(shipped.size()).isGreaterThan(1);
+	}
+
+	private static LogShipper.Entry entry(final String message) {
+		return new LogShipper.Entry(Instant.now(), "ERROR", message, "account", "AccountWriteService#create", null, null, "test", 1);
+	}
+}
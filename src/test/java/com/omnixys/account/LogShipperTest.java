@@ -0,0 +1,90 @@
+package com.omnixys.account;
+
+import com.omnixys.account.messaging.LogShipper;
+import com.omnixys.account.messaging.SpoolingSender;
+import com.omnixys.account.models.enums.LogOverflowPolicy;
+import com.omnixys.account.models.event.LogDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests für den asynchronen Versand von Log-Events über den Ringpuffer.
+ */
+class LogShipperTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void deliversEventsOfConcurrentProducersOnceAndInOrder() throws InterruptedException, ExecutionException {
+		final var sent = new ConcurrentLinkedQueue<String>();
+		final var spoolingSender = mock(SpoolingSender.class, withSettings().stubOnly());
+		doAnswer(invocation -> sent.add(invocation.<LogDTO>getArgument(2).message()))
+			.when(spoolingSender).send(anyString(), anyString(), any(), any());
+		final var shipper = new LogShipper(
+			1024, 100, Duration.ofMillis(1), LogOverflowPolicy.BLOCK, Duration.ofSeconds(5),
+			mock(KafkaTemplate.class), spoolingSender, new SimpleMeterRegistry()
+		);
+		final var producers = 8;
+		final var eventsPerProducer = 20_000;
+
+		shipper.start();
+		final var futures = new ArrayList<Future<?>>(producers);
+		try (var executor = Executors.newFixedThreadPool(producers)) {
+			for (int p = 0; p < producers; p++) {
+				final var producer = p;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < eventsPerProducer; i++) {
+						assertThat(shipper.offer(entry(producer + ":" + i))).isTrue();
+					}
+				}));
+			}
+		}
+		for (final var future : futures) {
+			future.get();
+		}
+		shipper.stop();
+
+		assertThat(sent).hasSize(producers * eventsPerProducer);
+		final var lastByProducer = new HashMap<String, Integer>();
+		for (final var message : sent) {
+			final var separator = message.indexOf(':');
+			final var producer = message.substring(0, separator);
+			final var sequence = Integer.parseInt(message.substring(separator + 1));
+			assertThat(sequence).isEqualTo(lastByProducer.getOrDefault(producer, -1) + 1);
+			lastByProducer.put(producer, sequence);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void dropsEventsWhenBufferIsFull() {
+		final var shipper = new LogShipper(
+			4, 100, Duration.ofMillis(1), LogOverflowPolicy.DROP, Duration.ofMillis(1),
+			mock(KafkaTemplate.class), mock(SpoolingSender.class), new SimpleMeterRegistry()
+		);
+		for (int i = 0; i < 4; i++) {
+			assertThat(shipper.offer(entry("Event " + i))).isTrue();
+		}
+		assertThat(shipper.offer(entry("Event 4"))).isFalse();
+	}
+
+	private static LogShipper.Entry entry(final String message) {
+		return new LogShipper.Entry(Instant.now(), "INFO", message, "account", "LogShipperTest", null, null, "test", 1);
+	}
+}
@@ -0,0 +1,123 @@
+package com.omnixys.account;
+
+import ch.qos.logback.classic.Level;
+import com.omnixys.account.tracing.CallerContext;
+import com.omnixys.account.tracing.LoggerPlus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark für {@link LoggerPlus}.
+ * <p>
+ * Vergleicht die frühere Implementierung von {@link LoggerPlus#debug} ({@code String.format} vor der Level-Prüfung)
+ * mit der aktuellen, die Erzeugung eines {@link LoggerPlus} je Aufruf mit dem Cache der Factory und die
+ * Ermittlung des Aufrufer-Kontexts per {@link StackWalker} mit der Zuordnung der Templates in {@link CallerContext}.
+ * Mit {@code -prof gc} zeigt {@code gc.alloc.rate.norm} die Allokation je Aufruf.
+ * </p>
+ * <p>
+ * Ausführen z.B. mit {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.omnixys.account.LoggerPlusBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerPlusBenchmark {
+
+	private final UUID id = UUID.randomUUID();
+	private final BigDecimal amount = new BigDecimal("42.00");
+
+	private Logger slf4j;
+	private LoggerPlus loggerPlus;
+	private ClassValue<LoggerPlus> loggers;
+	private CallerContext callerContext;
+
+	@Setup
+	public void setup() {
+		slf4j = LoggerFactory.getLogger(LoggerPlusBenchmark.class);
+		((ch.qos.logback.classic.Logger) slf4j).setLevel(Level.INFO);
+		loggerPlus = newLogger(LoggerPlusBenchmark.class);
+		callerContext = new CallerContext(LoggerPlusBenchmark.class);
+		loggers = new ClassValue<>() {
+			@Override
+			protected LoggerPlus computeValue(final Class<?> clazz) {
+				return newLogger(clazz);
+			}
+		};
+	}
+
+	@Benchmark
+	public void debugLegacyFormat() {
+		legacyDebug("apply: id={}, amount={}", id, amount);
+	}
+
+	@Benchmark
+	public void debugDeferred() {
+		loggerPlus.debug("apply: id={}, amount={}", id, amount);
+	}
+
+	@Benchmark
+	public void debugDeferredThreeArgs() {
+		loggerPlus.debug("transfer: from={}, to={}, amount={}", id, id, amount);
+	}
+
+	@Benchmark
+	public void getLoggerNewInstance(final Blackhole blackhole) {
+		blackhole.consume(newLogger(LoggerPlusBenchmark.class));
+	}
+
+	@Benchmark
+	public void getLoggerCached(final Blackhole blackhole) {
+		blackhole.consume(loggers.get(LoggerPlusBenchmark.class));
+	}
+
+	@Benchmark
+	public String callerContextWalk() {
+		return callerContext.walk();
+	}
+
+	@Benchmark
+	public String callerContextCached() {
+		return callerContext.resolve("❌ Fehler beim Aktualisieren: {}");
+	}
+
+	/**
+	 * Nachbildung der früheren Implementierung: die Nachricht wird formatiert, bevor Slf4j den Level prüft.
+	 */
+	private void legacyDebug(final String format, final Object... args) {
+		slf4j.debug(String.format(format.replace("{}", "%s"), args));
+	}
+
+	private static LoggerPlus newLogger(final Class<?> clazz) {
+		return new LoggerPlus(LoggerFactory.getLogger(clazz), "account", null, clazz);
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+			.include(LoggerPlusBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()).run();
+	}
+}
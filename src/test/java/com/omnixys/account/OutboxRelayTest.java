@@ -0,0 +1,160 @@
+package com.omnixys.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.account.messaging.KafkaUtilService;
+import com.omnixys.account.messaging.OutboxRelay;
+import com.omnixys.account.models.entities.OutboxEvent;
+import com.omnixys.account.models.event.SendMailEvent;
+import com.omnixys.account.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_CREATE_ACCOUNT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests für den Versand der Outbox-Events: Sperren eines Stapels, Senden, gemeinsames Löschen der bestätigten
+ * Events und Verschieben nicht lesbarer Events.
+ */
+class OutboxRelayTest {
+
+	private static final int BATCH_SIZE = 10;
+
+	private OutboxRepository outboxRepository;
+	private KafkaTemplate<String, Object> kafkaTemplate;
+	private OutboxRelay relay;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		outboxRepository = mock(OutboxRepository.class);
+		kafkaTemplate = mock(KafkaTemplate.class);
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+		when(outboxRepository.moveToFailed(any(), anyString())).thenReturn(1);
+		when(outboxRepository.lockNext(BATCH_SIZE)).thenReturn(List.of());
+		relay = new OutboxRelay(
+			BATCH_SIZE, Duration.ofMillis(10), Duration.ofSeconds(1),
+			outboxRepository, mock(PlatformTransactionManager.class), kafkaTemplate,
+			new KafkaUtilService("account", "1.0.0", false), new ObjectMapper(), new SimpleMeterRegistry()
+		);
+	}
+
+	@Test
+	void sendsLockedEventsAndDeletesThemInOneStatement() {
+		final var events = List.of(event(), event(), event());
+		when(outboxRepository.lockNext(BATCH_SIZE)).thenReturn(events, List.of());
+
+		relayOnce();
+
+		final var records = sentRecords(3);
+		assertThat(records).extracting(ProducerRecord::topic).containsOnly(TOPIC_NOTIFICATION_CREATE_ACCOUNT);
+		assertThat(records).extracting(ProducerRecord::value)
+			.containsExactly(events.stream().map(OutboxRelayTest::payload).toArray());
+		assertThat(deletedIds()).containsExactlyElementsOf(ids(events));
+	}
+
+	@Test
+	void keepsUnconfirmedEventsForTheNextRun() {
+		final var events = List.of(event(), event(), event());
+		when(outboxRepository.lockNext(BATCH_SIZE)).thenReturn(events, List.of());
+		when(kafkaTemplate.send(any(ProducerRecord.class)))
+			.thenReturn(CompletableFuture.completedFuture(null))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar")))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		relayOnce();
+
+		assertThat(deletedIds()).containsExactly(events.get(0).getId(), events.get(2).getId());
+		verify(outboxRepository, never()).moveToFailed(any(), anyString());
+	}
+
+	@Test
+	void movesUnreadableEventsOutOfTheOutbox() {
+		final var unreadable = event();
+		unreadable.setType("com.omnixys.account.models.event.Removed");
+		final var events = List.of(event(), unreadable, event());
+		when(outboxRepository.lockNext(BATCH_SIZE)).thenReturn(events, List.of());
+
+		relayOnce();
+
+		sentRecords(2);
+		verify(outboxRepository).moveToFailed(eq(unreadable.getId()), anyString());
+		assertThat(deletedIds()).containsExactly(events.get(0).getId(), events.get(2).getId());
+	}
+
+	@Test
+	void doesNothingWithoutEvents() {
+		relayOnce();
+
+		verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+		verify(outboxRepository, never()).deleteByIds(anyCollection());
+	}
+
+	/**
+	 * Startet den Relay, bis er den ersten Stapel und einen leeren zweiten gelesen hat.
+	 */
+	private void relayOnce() {
+		relay.start();
+		try {
+			verify(outboxRepository, timeout(5_000).atLeast(2)).lockNext(BATCH_SIZE);
+		} finally {
+			relay.stop();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ProducerRecord<String, Object>> sentRecords(final int count) {
+		final ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate, times(count)).send(captor.capture());
+		return captor.getAllValues();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<UUID> deletedIds() {
+		final ArgumentCaptor<List<UUID>> captor = ArgumentCaptor.forClass(List.class);
+		verify(outboxRepository).deleteByIds(captor.capture());
+		return captor.getValue();
+	}
+
+	private static List<UUID> ids(final List<OutboxEvent> events) {
+		return events.stream().map(OutboxEvent::getId).toList();
+	}
+
+	private static SendMailEvent payload(final OutboxEvent event) {
+		return new SendMailEvent(event.getId());
+	}
+
+	private static OutboxEvent event() {
+		final var id = UUID.randomUUID();
+		return OutboxEvent.builder()
+			.id(id)
+			.topic(TOPIC_NOTIFICATION_CREATE_ACCOUNT)
+			.operation("sendMail")
+			.type(SendMailEvent.class.getName())
+			.payload("{\"id\":\"" + id + "\"}")
+			.created(LocalDateTime.now())
+			.build();
+	}
+}
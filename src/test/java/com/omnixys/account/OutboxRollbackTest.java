@@ -0,0 +1,66 @@
+package com.omnixys.account;
+
+import com.omnixys.account.models.entities.Account;
+import com.omnixys.account.service.AccountWriteService;
+import com.omnixys.account.utils.Env;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.omnixys.account.models.enums.AccountType.CHECKING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integrationstest für die Outbox: die Events einer Schreiboperation teilen sich die Transaktion mit dem Konto.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class OutboxRollbackTest {
+
+	@Autowired
+	private AccountWriteService accountWriteService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeAll
+	protected static void setup() {
+		new Env();
+	}
+
+	@Test
+	void rollbackLeavesNoOutboxRow() {
+		final var accountId = new AtomicReference<UUID>();
+
+		assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(_ -> {
+			final var account = accountWriteService.create(Account.builder().category(CHECKING).username("outbox").build());
+			accountId.set(account.getId());
+			entityManager.flush();
+			assertThat(outboxRows(account.getId())).isEqualTo(2);
+			throw new IllegalStateException("Rollback");
+		})).isInstanceOf(IllegalStateException.class).hasMessage("Rollback");
+
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM account WHERE id = ?", Long.class, accountId.get()))
+			.isZero();
+		assertThat(outboxRows(accountId.get())).isZero();
+	}
+
+	private long outboxRows(final UUID accountId) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM outbox WHERE payload LIKE ?", Long.class, "%" + accountId + "%");
+	}
+}
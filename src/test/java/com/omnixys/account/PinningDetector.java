@@ -0,0 +1,62 @@
+package com.omnixys.account;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Zeichnet per JFR auf, wann ein virtueller Thread seinen Carrier-Thread blockiert ({@code jdk.VirtualThreadPinned}).
+ * <p>
+ * Verwendung: {@code try (var detector = new PinningDetector()) { ... }} und anschließend
+ * {@link #pinnedStacks()} prüfen.
+ * </p>
+ */
+final class PinningDetector implements AutoCloseable {
+
+	private static final String PINNED = "jdk.VirtualThreadPinned";
+	private static final int FRAMES = 12;
+
+	private final RecordingStream stream = new RecordingStream();
+	private final List<String> pinnedStacks = new CopyOnWriteArrayList<>();
+
+	PinningDetector() {
+		stream.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+		stream.onEvent(PINNED, event -> pinnedStacks.add(describe(event)));
+		stream.startAsync();
+	}
+
+	/**
+	 * @return Die Stacktraces aller bisher aufgezeichneten Pinning-Ereignisse
+	 */
+	List<String> pinnedStacks() {
+		return List.copyOf(pinnedStacks);
+	}
+
+	@Override
+	public void close() {
+		// stop() wartet, bis alle bereits aufgezeichneten Ereignisse verarbeitet sind
+		stream.stop();
+		stream.close();
+	}
+
+	private static String describe(final RecordedEvent event) {
+		final var stackTrace = event.getStackTrace();
+		if (stackTrace == null) {
+			return "pinned for " + event.getDuration();
+		}
+		return "pinned for " + event.getDuration() + stackTrace.getFrames()
+			.stream()
+			.limit(FRAMES)
+			.map(PinningDetector::frame)
+			.collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+	}
+
+	private static String frame(final RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + '.' + frame.getMethod().getName() + ':' + frame.getLineNumber();
+	}
+}
@@ -0,0 +1,199 @@
+package com.omnixys.account;
+
+import com.omnixys.account.messaging.IdempotentConsumer;
+import com.omnixys.account.messaging.RetryTopicRouter;
+import com.omnixys.account.models.event.CreateAccountDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests für das Weiterleiten fehlgeschlagener Kafka-Records in Retry- und Dead-Letter-Topics.
+ */
+class RetryTopicRouterTest {
+
+	private static final String TOPIC = "account.create.person";
+	private static final String TRACEPARENT = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+
+	private KafkaTemplate<String, Object> kafkaTemplate;
+	private RetryTopicRouter router;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		kafkaTemplate = mock(KafkaTemplate.class);
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+		router = new RetryTopicRouter(
+			3, Duration.ofSeconds(1), 10, Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMinutes(1),
+			kafkaTemplate, mock(KafkaListenerEndpointRegistry.class), new SimpleMeterRegistry()
+		);
+	}
+
+	@Test
+	void routesThroughRetryTopicsIntoDeadLetterTopic() {
+		var record = new ConsumerRecord<String, Object>(TOPIC, 2, 42, "key", "payload");
+		record.headers().add(new RecordHeader("traceparent", TRACEPARENT.getBytes(StandardCharsets.UTF_8)));
+		final var messageKey = IdempotentConsumer.messageKey(record);
+
+		for (int attempt = 1; attempt <= 3; attempt++) {
+			final var sent = retry(record, new IllegalStateException("Datenbank nicht erreichbar"));
+			assertThat(sent.topic()).isEqualTo(TOPIC + ".retry-" + attempt);
+			assertThat(header(sent, RetryTopicRouter.ATTEMPT_HEADER)).isEqualTo(Integer.toString(attempt));
+			assertThat(header(sent, "traceparent")).isEqualTo(TRACEPARENT);
+			assertThat(header(sent, RetryTopicRouter.ORIGINAL_OFFSET_HEADER)).isEqualTo("42");
+			record = received(sent, attempt);
+			assertThat(IdempotentConsumer.messageKey(record)).isEqualTo(messageKey);
+		}
+
+		final var deadLetter = retry(record, new IllegalStateException("Datenbank nicht erreichbar"));
+		assertThat(deadLetter.topic()).isEqualTo(TOPIC + ".dlt");
+		assertThat(header(deadLetter, RetryTopicRouter.ORIGINAL_TOPIC_HEADER)).isEqualTo(TOPIC);
+		assertThat(header(deadLetter, RetryTopicRouter.EXCEPTION_HEADER)).isEqualTo(IllegalStateException.class.getName());
+		assertThat(RetryTopicRouter.replayHeaders(received(deadLetter, 4)).lastHeader(RetryTopicRouter.ATTEMPT_HEADER)).isNull();
+	}
+
+	@Test
+	void sendsNotRetryableFailuresDirectlyToDeadLetterTopic() {
+		final var record = new ConsumerRecord<String, Object>(TOPIC, 0, 7, "key", "payload");
+		final var sent = retry(record, new IllegalArgumentException("Unbekannte Kategorie"));
+		assertThat(sent.topic()).isEqualTo(TOPIC + ".dlt");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void forwardsUnreadableRecordsWithRawValueAndHeaders() {
+		final var raw = "{\"userId\": kaputt".getBytes(StandardCharsets.UTF_8);
+		final var headers = new RecordHeaders();
+		headers.add(new RecordHeader("traceparent", TRACEPARENT.getBytes(StandardCharsets.UTF_8)));
+		headers.add(new RecordHeader("__TypeId__", CreateAccountDTO.class.getName().getBytes(StandardCharsets.UTF_8)));
+		final var jsonDeserializer = new JsonDeserializer<>(CreateAccountDTO.class);
+		jsonDeserializer.setRemoveTypeHeaders(false);
+		try (var deserializer = new ErrorHandlingDeserializer<>(jsonDeserializer)) {
+			assertThat(deserializer.deserialize(TOPIC, headers, raw)).isNull();
+		}
+		final var record = new ConsumerRecord<String, Object>(
+			TOPIC, 1, 9, 0L, TimestampType.CREATE_TIME, -1, raw.length, "key", null, headers, Optional.empty()
+		);
+		final var producer = new MockProducer<>(true, null, new StringSerializer(), new ByteArraySerializer());
+		final var producerFactory = mock(ProducerFactory.class);
+		when(kafkaTemplate.getProducerFactory()).thenReturn(producerFactory);
+		when(producerFactory.copyWithConfigurationOverride(any())).thenReturn(new MockProducerFactory<>(() -> producer));
+
+		router.recover(record, new IllegalArgumentException("Nicht lesbare Nachricht"));
+
+		verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+		assertThat(producer.history()).hasSize(1);
+		final var sent = producer.history().getFirst();
+		assertThat(sent.topic()).isEqualTo(TOPIC + ".dlt");
+		assertThat(sent.key()).isEqualTo("key");
+		assertThat(sent.value()).isEqualTo(raw);
+		assertThat(header(sent.headers(), "traceparent")).isEqualTo(TRACEPARENT);
+		assertThat(header(sent.headers(), "__TypeId__")).isEqualTo(CreateAccountDTO.class.getName());
+		assertThat(header(sent.headers(), RetryTopicRouter.ORIGINAL_OFFSET_HEADER)).isEqualTo("9");
+		assertThat(header(sent.headers(), RetryTopicRouter.EXCEPTION_HEADER)).isNotEqualTo(IllegalArgumentException.class.getName());
+		assertThat(sent.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER)).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void deadLettersReadableRecordsInRecoverer() {
+		final var record = new ConsumerRecord<String, Object>(TOPIC, 0, 7, "key", "payload");
+		router.recover(record, new IllegalStateException("Datenbank nicht erreichbar"));
+
+		final ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate).send(captor.capture());
+		assertThat(captor.getValue().topic()).isEqualTo(TOPIC + ".dlt");
+		assertThat(captor.getValue().value()).isEqualTo("payload");
+	}
+
+	@Test
+	void redeliversRecordsWhoseForwardingFailed() {
+		when(kafkaTemplate.send(any(ProducerRecord.class)))
+			.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar")));
+		final var record = new ConsumerRecord<String, Object>(TOPIC, 0, 7, "key", "payload");
+
+		final var failure = catchException(() -> router.retry(record, new IllegalStateException("Datenbank nicht erreichbar")));
+		assertThat(failure).isInstanceOf(RetryTopicRouter.ForwardingException.class);
+
+		final var containerFailure = new ListenerExecutionFailedException("Listener fehlgeschlagen", failure);
+		assertThat(RetryTopicRouter.isForwardingFailure(containerFailure)).isTrue();
+		assertThatThrownBy(() -> router.recover(record, containerFailure))
+			.isInstanceOf(RetryTopicRouter.ForwardingException.class);
+		verify(kafkaTemplate).send(any(ProducerRecord.class));
+	}
+
+	@Test
+	void retriesFailedForwardingWithoutLimit() {
+		final var execution = router.forwardingBackOff().start();
+		var interval = 0L;
+		for (int attempt = 0; attempt < 1_000; attempt++) {
+			interval = execution.nextBackOff();
+			assertThat(interval).isNotEqualTo(BackOffExecution.STOP);
+		}
+		assertThat(interval).isEqualTo(Duration.ofMinutes(1).toMillis());
+	}
+
+	@Test
+	void growsDelayExponentiallyUpToMaximum() {
+		assertThat(router.delay(1)).isEqualTo(Duration.ofSeconds(1));
+		assertThat(router.delay(2)).isEqualTo(Duration.ofSeconds(10));
+		assertThat(router.delay(3)).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@SuppressWarnings("unchecked")
+	private ProducerRecord<String, Object> retry(final ConsumerRecord<String, Object> record, final Exception cause) {
+		router.retry(record, cause);
+		final ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate, atLeastOnce()).send(captor.capture());
+		return captor.getValue();
+	}
+
+	private static ConsumerRecord<String, Object> received(final ProducerRecord<String, Object> sent, final long offset) {
+		return new ConsumerRecord<>(
+			sent.topic(), 0, offset, 0L, TimestampType.CREATE_TIME, -1, -1,
+			sent.key(), sent.value(), sent.headers(), Optional.empty()
+		);
+	}
+
+	private static String header(final ProducerRecord<String, Object> record, final String key) {
+		return header(record.headers(), key);
+	}
+
+	private static String header(final Headers headers, final String key) {
+		return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,302 @@
+package com.omnixys.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.account.models.event.CreateAccountDTO;
+import com.omnixys.account.utils.Env;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.omnixys.account.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_CREATE_PERSON;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Vergleicht den Durchsatz der Einstiegspunkte bei 2.000 parallelen Clients mit Plattform-Threads und mit
+ * virtuellen Threads.
+ * <p>
+ * Je Modus wird die Anwendung mit eigenem Port und eigenen Containern gestartet. Gemessen werden Überweisungen
+ * über {@code POST /graphql} (Tomcat-Request-Thread und GraphQL-Datafetcher) und angelegte Konten über
+ * {@code account.create.person} (Kafka-Listener im Modus {@code PARALLEL}). Der Plattform-Modus bildet den
+ * Tomcat-Standard mit 200 Worker-Threads und einen Pool mit 200 Threads für die Kafka-Records nach, der
+ * virtuelle Modus verwendet für beides virtuelle Threads. In beiden Fällen begrenzt der Hikari-Pool die Anzahl
+ * gleichzeitiger DB-Zugriffe. Im virtuellen Modus darf dabei kein Carrier-Thread gepinnt werden.
+ * </p>
+ * <p>
+ * Die Clients senden als Bearer-Token den Benutzernamen des belasteten Kontos; ein Test-{@link JwtDecoder}
+ * macht daraus ein JWT mit der Rolle {@code USER}.
+ * </p>
+ * <p>
+ * Wird nur mit {@code -Dload=true} ausgeführt, z.B. {@code ./mvnw test -Dtest=ThreadModeLoadTest -Dload=true}.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class ThreadModeLoadTest {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final int CLIENTS = 2_000;
+	private static final int PLATFORM_THREADS = 200;
+	private static final int EVENTS = 20_000;
+	private static final Duration DURATION = Duration.ofSeconds(20);
+	private static final Duration KAFKA_TIMEOUT = Duration.ofMinutes(2);
+
+	private static final String TRANSFER = """
+		mutation ($from: ID!, $to: ID!, $amount: Float!) {
+		  transfer(from: $from, to: $to, amount: $amount) { transactionId }
+		}""";
+
+	@BeforeAll
+	protected static void setup() {
+		new Env();
+	}
+
+	@Nested
+	@TestPropertySource(properties = {
+		"app.threads.virtual=false",
+		"server.tomcat.threads.max=" + PLATFORM_THREADS,
+		"app.kafka.parallel.workers=POOL",
+		"app.kafka.parallel.pool-size=" + PLATFORM_THREADS
+	})
+	class PlatformThreads extends LoadScenario {
+		PlatformThreads() {
+			super("Plattform-Threads (" + PLATFORM_THREADS + ")", false);
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = {
+		"app.threads.virtual=true",
+		"app.kafka.parallel.workers=VIRTUAL"
+	})
+	class VirtualThreads extends LoadScenario {
+		VirtualThreads() {
+			super("Virtuelle Threads", true);
+		}
+	}
+
+	@Import({TestcontainersConfiguration.class, LoadTestSecurity.class})
+	@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+		"app.kafka.create-person.mode=PARALLEL",
+		"app.kafka.parallel.max-in-flight=" + CLIENTS
+	})
+	@DirtiesContext
+	abstract static class LoadScenario {
+
+		private final String mode;
+		private final boolean virtual;
+		private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+		@LocalServerPort
+		private int port;
+
+		@Value("${spring.datasource.hikari.maximum-pool-size}")
+		private int poolSize;
+
+		@Autowired
+		private JdbcTemplate jdbcTemplate;
+
+		@Autowired
+		private KafkaTemplate<String, Object> kafkaTemplate;
+
+		@Autowired
+		private ObjectMapper objectMapper;
+
+		LoadScenario(final String mode, final boolean virtual) {
+			this.mode = mode;
+			this.virtual = virtual;
+		}
+
+		@Test
+		void graphQlTransfers() throws InterruptedException, ExecutionException {
+			final var ids = createAccounts();
+			final var sumBefore = totalBalance();
+			final var completed = new AtomicLong();
+			final var rejected = new AtomicLong();
+			final var failed = new AtomicLong();
+			final var uri = URI.create("http://localhost:" + port + "/graphql");
+			final var deadline = System.nanoTime() + DURATION.toNanos();
+
+			final List<String> pinned;
+			final var clients = new ArrayList<Future<?>>(CLIENTS);
+			try (var detector = new PinningDetector()) {
+				try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+					for (int i = 0; i < CLIENTS; i++) {
+						clients.add(executor.submit(() -> {
+							final var random = ThreadLocalRandom.current();
+							while (System.nanoTime() < deadline) {
+								final var from = random.nextInt(ACCOUNTS);
+								final var to = random.nextInt(ACCOUNTS);
+								if (from == to) {
+									continue;
+								}
+								switch (transfer(uri, from, ids.get(from), ids.get(to), random.nextInt(1, 100))) {
+									case COMPLETED -> completed.incrementAndGet();
+									case REJECTED -> rejected.incrementAndGet();
+									case FAILED -> failed.incrementAndGet();
+								}
+							}
+							return null;
+						}));
+					}
+				}
+				pinned = detector.pinnedStacks();
+			}
+			for (final var client : clients) {
+				client.get();
+			}
+
+			System.out.printf("%s, GraphQL: %d Clients, Pool=%d, Überweisungen=%d (%.0f/s), abgelehnt=%d, Fehler=%d%n",
+				mode, CLIENTS, poolSize, completed.get(), completed.get() / (double) DURATION.toSeconds(),
+				rejected.get(), failed.get());
+
+			assertThat(completed.get()).isPositive();
+			assertThat(totalBalance()).isEqualByComparingTo(sumBefore);
+			if (virtual) {
+				assertThat(pinned).as("gepinnte virtuelle Threads").isEmpty();
+			}
+		}
+
+		@Test
+		void kafkaCreatedAccounts() throws InterruptedException {
+			final var prefix = "kafka-" + UUID.randomUUID() + "-";
+			final List<String> pinned;
+			final long elapsed;
+			final long created;
+			try (var detector = new PinningDetector()) {
+				final var start = System.nanoTime();
+				for (int i = 0; i < EVENTS; i++) {
+					final var userId = UUID.randomUUID();
+					kafkaTemplate.send(TOPIC_ACCOUNT_CREATE_PERSON, userId.toString(), new CreateAccountDTO(
+						BigDecimal.ZERO, "CHECKING", 1, 500, 50, userId, 50, prefix + i
+					));
+				}
+				kafkaTemplate.flush();
+
+				final var deadline = start + KAFKA_TIMEOUT.toNanos();
+				long count;
+				while ((count = countAccounts(prefix)) < EVENTS && System.nanoTime() < deadline) {
+					Thread.sleep(50);
+				}
+				elapsed = System.nanoTime() - start;
+				created = count;
+				pinned = detector.pinnedStacks();
+			}
+
+			System.out.printf("%s, Kafka: %d Nachrichten, max. %d parallel, Pool=%d, angelegt=%d (%.0f/s)%n",
+				mode, EVENTS, CLIENTS, poolSize, created, created / (elapsed / 1e9));
+
+			assertThat(created).isEqualTo(EVENTS);
+			if (virtual) {
+				assertThat(pinned).as("gepinnte virtuelle Threads").isEmpty();
+			}
+		}
+
+		private Outcome transfer(final URI uri, final int fromIndex, final UUID from, final UUID to, final int amount)
+			throws IOException, InterruptedException {
+			final var body = objectMapper.writeValueAsString(Map.of(
+				"query", TRANSFER,
+				"variables", Map.of("from", from, "to", to, "amount", amount)
+			));
+			final var request = HttpRequest.newBuilder(uri)
+				.header("Content-Type", "application/json")
+				.header("Authorization", "Bearer " + username(fromIndex))
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+			final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() != 200) {
+				return Outcome.FAILED;
+			}
+			final var errors = objectMapper.readTree(response.body()).path("errors");
+			if (errors.isEmpty()) {
+				return Outcome.COMPLETED;
+			}
+			// Ablehnung wegen Dispolimit (InsufficientFundsException), alles andere ist ein Fehler
+			return "BAD_REQUEST".equals(errors.path(0).path("extensions").path("classification").asText())
+				? Outcome.REJECTED
+				: Outcome.FAILED;
+		}
+
+		private List<UUID> createAccounts() {
+			final var ids = new ArrayList<UUID>(ACCOUNTS);
+			final var now = Timestamp.valueOf(LocalDateTime.now());
+			final var rows = new ArrayList<Object[]>(ACCOUNTS);
+			for (int i = 0; i < ACCOUNTS; i++) {
+				final var id = UUID.randomUUID();
+				ids.add(id);
+				rows.add(new Object[]{id, new BigDecimal("1000.00"), now, now, UUID.randomUUID(), username(i)});
+			}
+			jdbcTemplate.batchUpdate("""
+				INSERT INTO account (id, version, balance, rate_of_interest, category, state, overdraft_limit,
+				                     transaction_limit, created, updated, user_id, username)
+				VALUES (?, 1, ?, 0.1, 'CHECKING', 'ACTIVE', 500, 50, ?, ?, ?, ?)
+				""", rows);
+			return ids;
+		}
+
+		private static String username(final int index) {
+			return "vt" + index;
+		}
+
+		private long countAccounts(final String usernamePrefix) {
+			return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM account WHERE username LIKE ?", Long.class, usernamePrefix + "%");
+		}
+
+		private BigDecimal totalBalance() {
+			return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM account", BigDecimal.class);
+		}
+	}
+
+	private enum Outcome {
+		COMPLETED, REJECTED, FAILED
+	}
+
+	/**
+	 * Ersetzt die Prüfung gegen Keycloak: das Token ist der Benutzername, die Rolle ist immer {@code USER}.
+	 */
+	@TestConfiguration(proxyBeanMethods = false)
+	static class LoadTestSecurity {
+
+		@Bean
+		JwtDecoder jwtDecoder() {
+			return token -> Jwt.withTokenValue(token)
+				.header("alg", "none")
+				.claim("preferred_username", token)
+				.claim("realm_access", Map.of("roles", List.of("user")))
+				.build();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.omnixys.account;
+
+import com.omnixys.account.messaging.KafkaUtilService;
+import com.omnixys.account.tracing.TraceContextPropagator;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark für {@link TraceContextPropagator} und {@link KafkaUtilService#buildStandardHeaders}.
+ * <p>
+ * Vergleicht das frühere Lesen von {@code traceparent} ({@code new String}, {@code split("-")}) und das frühere
+ * Erstellen der Header ({@code String.format}, Kodieren aller Header je Aufruf) mit der aktuellen
+ * Implementierung. Mit {@code -prof gc} zeigt {@code gc.alloc.rate.norm} die Allokation je Aufruf.
+ * </p>
+ * <p>
+ * Ausführen z.B. mit {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.omnixys.account.TraceContextPropagatorBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceContextPropagatorBenchmark {
+
+	private static final String TOPIC = "notification.create.account";
+	private static final String OPERATION = "create";
+
+	private final SpanContext spanContext = SpanContext.create(
+		"0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault()
+	);
+
+	private Headers w3cHeaders;
+	private Headers b3Headers;
+	private KafkaUtilService kafkaUtilService;
+
+	@Setup
+	public void setup() {
+		w3cHeaders = new RecordHeaders();
+		w3cHeaders.add("x-service", bytes("account"));
+		w3cHeaders.add("traceparent", bytes("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"));
+		b3Headers = new RecordHeaders();
+		b3Headers.add("b3", bytes("0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-1"));
+		kafkaUtilService = new KafkaUtilService("account", "1.0.0", false);
+	}
+
+	@Benchmark
+	public SpanContext extractLegacySplit() {
+		return legacyExtract(w3cHeaders);
+	}
+
+	@Benchmark
+	public SpanContext extractTraceparent() {
+		return TraceContextPropagator.extract(w3cHeaders);
+	}
+
+	@Benchmark
+	public SpanContext extractB3() {
+		return TraceContextPropagator.extract(b3Headers);
+	}
+
+	@Benchmark
+	public Headers buildHeadersLegacyFormat() {
+		return legacyBuildStandardHeaders(TOPIC, OPERATION, spanContext);
+	}
+
+	@Benchmark
+	public Headers buildHeaders() {
+		return kafkaUtilService.buildStandardHeaders(TOPIC, OPERATION, spanContext);
+	}
+
+	/**
+	 * Nachbildung des früheren {@code KafkaConsumerService.linkedContext}.
+	 */
+	private static SpanContext legacyExtract(final Headers headers) {
+		final Header header = headers.lastHeader("traceparent");
+		final var traceParent = header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+		if (traceParent == null || !traceParent.startsWith("00-")) {
+			return null;
+		}
+		final String[] parts = traceParent.split("-");
+		if (parts.length != 4) {
+			return null;
+		}
+		final var linkedContext = SpanContext.createFromRemoteParent(
+			parts[1],
+			parts[2],
+			"01".equals(parts[3]) ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+			TraceState.getDefault()
+		);
+		return linkedContext.isValid() ? linkedContext : null;
+	}
+
+	/**
+	 * Nachbildung des früheren {@link KafkaUtilService#buildStandardHeaders}.
+	 */
+	private static RecordHeaders legacyBuildStandardHeaders(final String topic, final String operation, final SpanContext spanContext) {
+		final var headers = new RecordHeaders();
+		headers.add(new RecordHeader("x-service", bytes("account")));
+		headers.add(new RecordHeader("x-event-name", bytes(topic)));
+		headers.add(new RecordHeader("x-event-version", bytes("1.0.0")));
+		headers.add(new RecordHeader("x-event-type", bytes(operation)));
+		if (spanContext != null && spanContext.isValid()) {
+			final var traceFlags = spanContext.isSampled() ? "01" : "00";
+			final var traceparent = String.format("00-%s-%s-%s", spanContext.getTraceId(), spanContext.getSpanId(), traceFlags);
+			headers.add(new RecordHeader("traceparent", bytes(traceparent)));
+		}
+		return headers;
+	}
+
+	private static byte[] bytes(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+			.include(TraceContextPropagatorBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()).run();
+	}
+}
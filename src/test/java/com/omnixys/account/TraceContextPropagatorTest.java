@@ -0,0 +1,87 @@
+package com.omnixys.account;
+
+import com.omnixys.account.tracing.TraceContextPropagator;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests für das Lesen und Schreiben des Trace-Kontexts in Kafka-Headern.
+ */
+class TraceContextPropagatorTest {
+
+	private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+	private static final String SPAN_ID = "b7ad6b7169203331";
+
+	@Test
+	void injectsAndExtractsW3cTraceContext() {
+		final var traceState = TraceState.builder().put("congo", "t61rcWkgMzE").put("rojo", "00f067aa0ba902b7").build();
+		final var context = SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getSampled(), traceState);
+		final var headers = new RecordHeaders();
+
+		TraceContextPropagator.inject(context, headers, true);
+
+		assertThat(value(headers, "traceparent")).isEqualTo("00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+		assertThat(value(headers, "tracestate")).isEqualTo("rojo=00f067aa0ba902b7,congo=t61rcWkgMzE");
+		assertThat(value(headers, "b3")).isEqualTo(TRACE_ID + "-" + SPAN_ID + "-1");
+		final var extracted = TraceContextPropagator.extract(headers);
+		assertThat(extracted.isRemote()).isTrue();
+		assertThat(extracted.getTraceId()).isEqualTo(TRACE_ID);
+		assertThat(extracted.getSpanId()).isEqualTo(SPAN_ID);
+		assertThat(extracted.isSampled()).isTrue();
+		assertThat(extracted.getTraceState().asMap()).isEqualTo(traceState.asMap());
+		assertThat(TraceContextPropagator.tracestate(extracted.getTraceState())).isEqualTo(bytes("rojo=00f067aa0ba902b7,congo=t61rcWkgMzE"));
+	}
+
+	@Test
+	void extractsB3SingleAndMultiHeaders() {
+		final var single = new RecordHeaders();
+		single.add("b3", bytes("a3ce929d0e0e4736-" + SPAN_ID + "-d-00f067aa0ba902b7"));
+		final var fromSingle = TraceContextPropagator.extract(single);
+		assertThat(fromSingle.getTraceId()).isEqualTo("0000000000000000a3ce929d0e0e4736");
+		assertThat(fromSingle.getSpanId()).isEqualTo(SPAN_ID);
+		assertThat(fromSingle.isSampled()).isTrue();
+
+		final var multi = new RecordHeaders();
+		multi.add("X-B3-TraceId", bytes(TRACE_ID));
+		multi.add("X-B3-SpanId", bytes(SPAN_ID));
+		multi.add("X-B3-Sampled", bytes("0"));
+		final var fromMulti = TraceContextPropagator.extract(multi);
+		assertThat(fromMulti.getTraceId()).isEqualTo(TRACE_ID);
+		assertThat(fromMulti.isSampled()).isFalse();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"",
+		"00-" + TRACE_ID + "-" + SPAN_ID,
+		"00-" + TRACE_ID + "-" + SPAN_ID + "-01-extra",
+		"ff-" + TRACE_ID + "-" + SPAN_ID + "-01",
+		"00-00000000000000000000000000000000-" + SPAN_ID + "-01",
+		"00-" + TRACE_ID + "-0000000000000000-01",
+		"00-0AF7651916CD43DD8448EB211C80319C-" + SPAN_ID + "-01",
+		"00_" + TRACE_ID + "-" + SPAN_ID + "-01",
+		"00-" + TRACE_ID + "-" + SPAN_ID + "-0x"
+	})
+	void rejectsInvalidTraceparent(final String traceparent) {
+		final var headers = new RecordHeaders();
+		headers.add("traceparent", bytes(traceparent));
+		assertThat(TraceContextPropagator.extract(headers)).isNull();
+	}
+
+	private static String value(final RecordHeaders headers, final String key) {
+		return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] bytes(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
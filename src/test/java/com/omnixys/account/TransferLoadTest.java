@@ -0,0 +1,122 @@
+package com.omnixys.account;
+
+import com.omnixys.account.exceptions.InsufficientFundsException;
+import com.omnixys.account.service.AccountBalanceService;
+import com.omnixys.account.utils.Env;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lasttest für zufällige Überweisungen zwischen 10.000 Konten.
+ * <p>
+ * Wird nur mit {@code -Dload=true} ausgeführt, z.B. {@code ./mvnw test -Dtest=TransferLoadTest -Dload=true}.
+ * </p>
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class TransferLoadTest {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final int THREADS = 32;
+	private static final Duration DURATION = Duration.ofSeconds(30);
+
+	@Autowired
+	private AccountBalanceService accountBalanceService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	protected static void setup() {
+		new Env();
+	}
+
+	@Test
+	void randomTransfers() throws InterruptedException, ExecutionException {
+		final var ids = createAccounts();
+		final var sumBefore = totalBalance();
+
+		final var transfers = new AtomicLong();
+		final var rejected = new AtomicLong();
+		final var deadlocks = new AtomicLong();
+		final var deadline = System.nanoTime() + DURATION.toNanos();
+
+		final var workers = new ArrayList<Future<?>>(THREADS);
+		try (var executor = Executors.newFixedThreadPool(THREADS)) {
+			for (int i = 0; i < THREADS; i++) {
+				workers.add(executor.submit(() -> {
+					final var random = ThreadLocalRandom.current();
+					while (System.nanoTime() < deadline) {
+						final var from = ids.get(random.nextInt(ACCOUNTS));
+						final var to = ids.get(random.nextInt(ACCOUNTS));
+						if (from.equals(to)) {
+							continue;
+						}
+						try {
+							accountBalanceService.transfer(from, to, BigDecimal.valueOf(random.nextInt(1, 100)));
+							transfers.incrementAndGet();
+						} catch (InsufficientFundsException _) {
+							rejected.incrementAndGet();
+						} catch (PessimisticLockingFailureException _) {
+							deadlocks.incrementAndGet();
+						}
+					}
+				}));
+			}
+		}
+		for (final var worker : workers) {
+			worker.get();
+		}
+
+		final var perSecond = transfers.get() / (double) DURATION.toSeconds();
+		System.out.printf("Überweisungen: %d (%.0f/s), abgelehnt: %d, Deadlocks: %d%n",
+			transfers.get(), perSecond, rejected.get(), deadlocks.get());
+
+		assertThat(transfers.get()).isPositive();
+		assertThat(deadlocks.get()).isZero();
+		assertThat(totalBalance()).isEqualByComparingTo(sumBefore);
+	}
+
+	private List<UUID> createAccounts() {
+		final var ids = new ArrayList<UUID>(ACCOUNTS);
+		final var now = Timestamp.valueOf(LocalDateTime.now());
+		final var rows = new ArrayList<Object[]>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			final var id = UUID.randomUUID();
+			ids.add(id);
+			rows.add(new Object[]{id, new BigDecimal("1000.00"), now, now, UUID.randomUUID(), "load" + i});
+		}
+		jdbcTemplate.batchUpdate("""
+			INSERT INTO account (id, version, balance, rate_of_interest, category, state, overdraft_limit,
+			                     transaction_limit, created, updated, user_id, username)
+			VALUES (?, 1, ?, 0.1, 'CHECKING', 'ACTIVE', 500, 50, ?, ?, ?, ?)
+			""", rows);
+		return ids;
+	}
+
+	private BigDecimal totalBalance() {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM account", BigDecimal.class);
+	}
+}